@@ -0,0 +1,86 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checksum of a data body of {@code bodyLength} characters, by the MD5 code the server used before
+ * {@link ChecksumCalculator} and by each algorithm of the calculator. Run with {@code -prof gc} to compare the
+ * allocation per checksum as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChecksumBenchmark {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    @Param({"73", "4096", "1048576"})
+    private int bodyLength;
+
+    private String dataBody;
+    private ChecksumCalculator checksumCalculator;
+
+    @Setup
+    public void createBody() {
+        StringBuilder body = new StringBuilder(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+        }
+        dataBody = body.toString();
+        checksumCalculator = new ChecksumCalculatorImpl();
+    }
+
+    @Benchmark
+    public String legacyMd5() throws NoSuchAlgorithmException {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        md.update(dataBody.getBytes());
+        byte[] digest = md.digest();
+
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    @Benchmark
+    public String md5() {
+        return checksumCalculator.checksum(dataBody, ChecksumAlgorithmEnum.MD5);
+    }
+
+    @Benchmark
+    public String crc32() {
+        return checksumCalculator.checksum(dataBody, ChecksumAlgorithmEnum.CRC32);
+    }
+
+    @Benchmark
+    public String crc32c() {
+        return checksumCalculator.checksum(dataBody, ChecksumAlgorithmEnum.CRC32C);
+    }
+
+    @Benchmark
+    public String xxHash64() {
+        return checksumCalculator.checksum(dataBody, ChecksumAlgorithmEnum.XXHASH64);
+    }
+}
@@ -0,0 +1,86 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.component.impl.DataBodyCodecImpl;
+import com.db.dataplatform.techtest.server.configuration.DataBodyCodecProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of compressing and restoring a data body of {@code bodyLength} characters with each codec. The body is
+ * made of random fields of an envelope-like record, so it compresses about as well as real envelopes do. A trial
+ * fails in setup if the codec did not actually shrink the body, since it would then time the uncompressed path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataBodyCodecBenchmark {
+
+    private static final String[] FIELDS = {"TSLA", "USDGBP", "10Y", "BID", "ASK", "LAST", "2026-10-18", "SETTLED"};
+
+    @Param({"LZ4", "DEFLATE"})
+    private BodyCodecEnum codec;
+
+    @Param({"1024", "65536"})
+    private int bodyLength;
+
+    private DataBodyCodecImpl dataBodyCodec;
+    private String dataBody;
+    private byte[] compressedBody;
+
+    @Setup
+    public void createBody() {
+        Random random = new Random(42);
+        StringBuilder body = new StringBuilder(bodyLength);
+        while (body.length() < bodyLength) {
+            body.append(FIELDS[random.nextInt(FIELDS.length)]).append(';')
+                    .append(random.nextInt(100000) / 100.0).append('\n');
+        }
+        dataBody = body.substring(0, bodyLength);
+
+        DataBodyCodecProperties properties = new DataBodyCodecProperties();
+        properties.getBlockTypes().put(BlockTypeEnum.BLOCKTYPEA, codec);
+        dataBodyCodec = new DataBodyCodecImpl(properties, new SimpleMeterRegistry());
+        DataBodyEntity dataBodyEntity = encode();
+        compressedBody = dataBodyEntity.getCompressedBody();
+        if (compressedBody == null || compressedBody.length >= dataBody.getBytes(StandardCharsets.UTF_8).length) {
+            throw new IllegalStateException(codec + " did not compress a body of " + bodyLength + " characters");
+        }
+    }
+
+    @Benchmark
+    public DataBodyEntity encode() {
+        DataHeaderEntity dataHeaderEntity = new DataHeaderEntity();
+        dataHeaderEntity.setBlocktype(BlockTypeEnum.BLOCKTYPEA);
+        DataBodyEntity dataBodyEntity = new DataBodyEntity();
+        dataBodyEntity.setDataHeaderEntity(dataHeaderEntity);
+        dataBodyEntity.setDataBody(dataBody);
+        dataBodyCodec.encode(dataBodyEntity);
+        return dataBodyEntity;
+    }
+
+    @Benchmark
+    public String decode() {
+        return dataBodyCodec.decode(BlockTypeEnum.BLOCKTYPEA, codec, compressedBody);
+    }
+}
@@ -0,0 +1,82 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
+import com.db.dataplatform.techtest.server.mapper.DataBodyDeserializer;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a pushed envelope and getting the MD5 of its body: parsed first and then hashed, as before
+ * {@link DataBodyDeserializer}, or hashed by the deserializer while parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataBodyDeserializationBenchmark {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    @Param({"73", "4096", "1048576"})
+    private int bodyLength;
+
+    private byte[] request;
+    private ChecksumCalculator checksumCalculator;
+    private ObjectReader plainReader;
+    private ObjectReader hashingReader;
+
+    @Setup
+    public void createRequest() throws IOException {
+        StringBuilder body = new StringBuilder(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+        }
+        checksumCalculator = new ChecksumCalculatorImpl();
+
+        ObjectMapper plainMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper hashingMapper = Jackson2ObjectMapperBuilder.json()
+                .deserializerByType(DataBody.class, new DataBodyDeserializer(checksumCalculator))
+                .build();
+        request = plainMapper.writeValueAsString(new DataEnvelope(new DataHeader("Test", BlockTypeEnum.BLOCKTYPEA),
+                new DataBody(body.toString()), null)).getBytes(StandardCharsets.UTF_8);
+        plainReader = plainMapper.readerFor(DataEnvelope.class);
+        hashingReader = hashingMapper.readerFor(DataEnvelope.class);
+    }
+
+    @Benchmark
+    public String parseThenHash() throws IOException {
+        DataEnvelope envelope = plainReader.readValue(request);
+        return checksumCalculator.checksum(envelope.getDataBody().getDataBody(), ChecksumAlgorithmEnum.MD5);
+    }
+
+    @Benchmark
+    public String hashWhileParsing() throws IOException {
+        DataEnvelope envelope = hashingReader.readValue(request);
+        return envelope.getDataBody().calculatedMd5Checksum();
+    }
+}
@@ -0,0 +1,60 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.mapper.DataEnvelopeMapper;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a pushed envelope to its entities with {@link DataEnvelopeMapper}, or with ModelMapper configured as the
+ * server used to configure it. Run with {@code -prof gc} for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataEnvelopeMappingBenchmark {
+
+    private DataEnvelope envelope;
+    private ModelMapper modelMapper;
+    private DataEnvelopeMapper dataEnvelopeMapper;
+
+    @Setup
+    public void createMappers() {
+        envelope = new DataEnvelope(new DataHeader("Test", BlockTypeEnum.BLOCKTYPEA),
+                new DataBody("AKCp5fU4WNWKBVvhXsbNhqk33tawri9iJUkA5o4A6YqpwvAoYjajVw8xdEw6r9796h1wEp29D"), null);
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setFieldMatchingEnabled(true);
+        dataEnvelopeMapper = new DataEnvelopeMapper();
+    }
+
+    @Benchmark
+    public DataBodyEntity modelMapper() {
+        DataBodyEntity dataBodyEntity = modelMapper.map(envelope.getDataBody(), DataBodyEntity.class);
+        dataBodyEntity.setDataHeaderEntity(modelMapper.map(envelope.getDataHeader(), DataHeaderEntity.class));
+        return dataBodyEntity;
+    }
+
+    @Benchmark
+    public DataBodyEntity dataEnvelopeMapper() {
+        return dataEnvelopeMapper.toDataBodyEntity(envelope);
+    }
+}
@@ -0,0 +1,72 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the response of a listing: {@code rows} envelopes with bodies of {@code bodyLength} characters, with
+ * the object mapper the server is configured with. Parsing a pushed envelope is in
+ * {@link DataBodyDeserializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataEnvelopeSerializationBenchmark {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    @Param({"1", "100", "10000"})
+    private int rows;
+
+    @Param({"73", "4096"})
+    private int bodyLength;
+
+    private List<DataEnvelope> envelopes;
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void createEnvelopes() {
+        StringBuilder body = new StringBuilder(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+        }
+        envelopes = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            envelopes.add(new DataEnvelope(new DataHeader("Test" + row, BlockTypeEnum.BLOCKTYPEA),
+                    new DataBody(body.toString()), null));
+        }
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, DataEnvelope.class));
+    }
+
+    @Benchmark
+    public byte[] writeDataEnvelopes() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(envelopes);
+    }
+}
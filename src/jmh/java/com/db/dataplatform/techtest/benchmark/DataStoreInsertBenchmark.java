@@ -0,0 +1,127 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.repository.DataHeaderRepository;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepository;
+import com.db.dataplatform.techtest.server.service.DataBodyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to insert {@code rows} envelopes through {@link DataBodyService}, either one envelope per transaction as
+ * the single push does, or {@code rowsPerTransaction} at a time as the bulk push does. Inserts per second are
+ * {@code rows} divided by the reported time.
+ * <p>
+ * {@code backend} picks the store: the embedded H2 database, or the segment store in a temporary directory. The
+ * segment store is not emptied between iterations, every iteration inserts new names instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class DataStoreInsertBenchmark {
+
+    private static final String BODY = "AKCp5fU4WNWKBVvhXsbNhqk33tawri9iJUkA5o4A6YqpwvAoYjajVw8xdEw6r9796h1wEp29D";
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"1", "500"})
+    private int rowsPerTransaction;
+
+    @Param({DataStoreProperties.JPA_BACKEND, DataStoreProperties.SEGMENT_BACKEND})
+    private String backend;
+
+    private Path segmentDirectory;
+    private ConfigurableApplicationContext context;
+    private DataBodyService dataBodyService;
+    private DataStoreRepository dataStoreRepository;
+    private DataHeaderRepository dataHeaderRepository;
+    private TransactionTemplate transactionTemplate;
+    private int iteration;
+
+    @Setup(Level.Trial)
+    public void startContext() throws IOException {
+        segmentDirectory = Files.createTempDirectory("segments");
+        context = new SpringApplicationBuilder(PersistenceBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN",
+                        "--" + DataStoreProperties.BACKEND_PROPERTY + "=" + backend,
+                        "--dataserver.store.segment.directory=" + segmentDirectory);
+        dataBodyService = context.getBean(DataBodyService.class);
+        dataStoreRepository = context.getBean(DataStoreRepository.class);
+        dataHeaderRepository = context.getBean(DataHeaderRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTables() {
+        dataStoreRepository.deleteAllInBatch();
+        dataHeaderRepository.deleteAllInBatch();
+        iteration++;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(segmentDirectory);
+    }
+
+    @Benchmark
+    public void insert() {
+        for (int first = 0; first < rows; first += rowsPerTransaction) {
+            List<DataBodyEntity> chunk = new ArrayList<>(rowsPerTransaction);
+            for (int row = first; row < Math.min(rows, first + rowsPerTransaction); row++) {
+                chunk.add(createDataBodyEntity("I" + iteration + "-" + row));
+            }
+            if (chunk.size() == 1) {
+                dataBodyService.saveDataBody(chunk.get(0));
+            } else {
+                transactionTemplate.execute(status -> {
+                    dataBodyService.saveDataBodies(chunk);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static DataBodyEntity createDataBodyEntity(String name) {
+        DataHeaderEntity dataHeaderEntity = new DataHeaderEntity();
+        dataHeaderEntity.setName(name);
+        dataHeaderEntity.setBlocktype(BlockTypeEnum.BLOCKTYPEA);
+
+        DataBodyEntity dataBodyEntity = new DataBodyEntity();
+        dataBodyEntity.setDataHeaderEntity(dataHeaderEntity);
+        dataBodyEntity.setDataBody(BODY);
+        return dataBodyEntity;
+    }
+}
@@ -0,0 +1,26 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.component.impl.DataBodyCodecImpl;
+import com.db.dataplatform.techtest.server.configuration.DataBodyCodecProperties;
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.segment.SegmentStore;
+import com.db.dataplatform.techtest.server.service.impl.DataBodyServiceImpl;
+import com.db.dataplatform.techtest.server.service.impl.SegmentDataBodyServiceImpl;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Just the persistence layer of the server, with the settings from application.properties: the JPA layer against
+ * the embedded H2 database, or the segment store when {@code dataserver.store.backend=segment}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.db.dataplatform.techtest.server.persistence.model")
+@EnableJpaRepositories("com.db.dataplatform.techtest.server.persistence.repository")
+@Import({DataBodyServiceImpl.class, SegmentDataBodyServiceImpl.class, SegmentStore.class, DataStoreProperties.class,
+        DataBodyCodecImpl.class, DataBodyCodecProperties.class})
+public class PersistenceBenchmarkConfiguration {
+}
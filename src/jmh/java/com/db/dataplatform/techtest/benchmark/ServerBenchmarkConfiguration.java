@@ -0,0 +1,26 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.component.IngestMetrics;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
+import com.db.dataplatform.techtest.server.component.impl.DataHeaderNameFilterImpl;
+import com.db.dataplatform.techtest.server.component.impl.HadoopRetryPolicyImpl;
+import com.db.dataplatform.techtest.server.component.impl.ServerImpl;
+import com.db.dataplatform.techtest.server.configuration.HadoopOutboxProperties;
+import com.db.dataplatform.techtest.server.configuration.HadoopRetryProperties;
+import com.db.dataplatform.techtest.server.configuration.IngestProperties;
+import com.db.dataplatform.techtest.server.mapper.DataEnvelopeMapper;
+import com.db.dataplatform.techtest.server.service.impl.DataHeaderServiceImpl;
+import com.db.dataplatform.techtest.server.service.impl.HadoopOutboxServiceImpl;
+import com.db.dataplatform.techtest.server.service.impl.SegmentDataHeaderServiceImpl;
+import org.springframework.context.annotation.Import;
+
+/**
+ * {@link PersistenceBenchmarkConfiguration} plus {@link ServerImpl} and what it writes to in the same transaction,
+ * the Hadoop outbox. Nothing forwards the outbox, and no web layer or response cache is started.
+ */
+@Import({PersistenceBenchmarkConfiguration.class, ServerImpl.class, DataHeaderServiceImpl.class,
+        SegmentDataHeaderServiceImpl.class, DataEnvelopeMapper.class, ChecksumCalculatorImpl.class, IngestMetrics.class,
+        HadoopOutboxServiceImpl.class, HadoopOutboxProperties.class, HadoopRetryPolicyImpl.class,
+        HadoopRetryProperties.class, DataHeaderNameFilterImpl.class, IngestProperties.class})
+public class ServerBenchmarkConfiguration {
+}
@@ -0,0 +1,92 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single push through {@link Server}, end to end against the embedded H2 database: checksum, mapping, the
+ * DATA_STORE and outbox rows and the commit. Every invocation pushes a new name, so the tables grow during the
+ * trial as they do on a live server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServerIngestBenchmark {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    @Param({"73", "4096", "65536"})
+    private int bodyLength;
+
+    private ConfigurableApplicationContext context;
+    private Server server;
+    private String dataBody;
+    private String checksum;
+    private byte[] dataBodyBytes;
+    private long pushed;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(ServerBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        server = context.getBean(Server.class);
+
+        StringBuilder body = new StringBuilder(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+        }
+        dataBody = body.toString();
+        dataBodyBytes = dataBody.getBytes(StandardCharsets.UTF_8);
+        checksum = context.getBean(ChecksumCalculator.class).checksum(dataBody, ChecksumAlgorithmEnum.MD5);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean saveDataEnvelope() throws IOException, NoSuchAlgorithmException {
+        DataEnvelope envelope = new DataEnvelope(new DataHeader("P" + pushed++, BlockTypeEnum.BLOCKTYPEA),
+                new DataBody(dataBody), null);
+        return server.saveDataEnvelope(envelope, checksum, ChecksumAlgorithmEnum.MD5);
+    }
+
+    @Benchmark
+    public boolean saveStreamedDataEnvelope() throws IOException {
+        return server.saveDataEnvelope(new DataHeader("S" + pushed++, BlockTypeEnum.BLOCKTYPEA),
+                new ByteArrayInputStream(dataBodyBytes), checksum, ChecksumAlgorithmEnum.MD5);
+    }
+}
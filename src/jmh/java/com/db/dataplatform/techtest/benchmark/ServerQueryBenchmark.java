@@ -0,0 +1,94 @@
+package com.db.dataplatform.techtest.benchmark;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading envelopes of a block type through {@link Server} from the embedded H2 database, which holds
+ * {@code rows} envelopes of that block type and as many of another. The listing returns all of them, the page
+ * the first {@link #PAGE_SIZE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServerQueryBenchmark {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int PAGE_SIZE = 100;
+    private static final int ROWS_PER_TRANSACTION = 500;
+
+    @Param({"1000", "20000"})
+    private int rows;
+
+    @Param({"73", "4096"})
+    private int bodyLength;
+
+    private ConfigurableApplicationContext context;
+    private Server server;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(ServerBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        server = context.getBean(Server.class);
+
+        StringBuilder body = new StringBuilder(bodyLength);
+        for (int i = 0; i < bodyLength; i++) {
+            body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+        }
+        for (BlockTypeEnum blockType : new BlockTypeEnum[]{BlockTypeEnum.BLOCKTYPEA, BlockTypeEnum.BLOCKTYPEB}) {
+            for (int first = 0; first < rows; first += ROWS_PER_TRANSACTION) {
+                List<DataEnvelope> chunk = new ArrayList<>(ROWS_PER_TRANSACTION);
+                for (int row = first; row < Math.min(rows, first + ROWS_PER_TRANSACTION); row++) {
+                    chunk.add(new DataEnvelope(new DataHeader(blockType + "-" + row, blockType),
+                            new DataBody(body.toString()), null));
+                }
+                server.saveDataEnvelopes(chunk);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DataEnvelope> getDataEnvelopByBlockType() {
+        return server.getDataEnvelopByBlockType(BlockTypeEnum.BLOCKTYPEA.name());
+    }
+
+    @Benchmark
+    public DataEnvelopePage getDataEnvelopePage() {
+        return server.getDataEnvelopePage(BlockTypeEnum.BLOCKTYPEA.name(), 0, PAGE_SIZE);
+    }
+}
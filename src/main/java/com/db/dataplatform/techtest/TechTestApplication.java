@@ -1,17 +1,21 @@
 package com.db.dataplatform.techtest;
 
+import com.db.dataplatform.techtest.client.LoadGeneratorProperties;
 import com.db.dataplatform.techtest.client.api.model.DataBody;
 import com.db.dataplatform.techtest.client.api.model.DataEnvelope;
 import com.db.dataplatform.techtest.client.api.model.DataHeader;
 import com.db.dataplatform.techtest.client.component.Client;
+import com.db.dataplatform.techtest.client.component.LoadGenerator;
+import com.db.dataplatform.techtest.client.component.LoadReport;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.event.EventListener;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.UnsupportedEncodingException;
 import java.util.List;
@@ -19,7 +23,7 @@ import java.util.List;
 import static com.db.dataplatform.techtest.Constant.DUMMY_DATA;
 
 @SpringBootApplication
-@EnableRetry
+@EnableScheduling
 public class TechTestApplication {
 
 	public static final String HEADER_NAME = "TSLA-USDGBP-10Y";
@@ -28,13 +32,27 @@ public class TechTestApplication {
 	@Autowired
 	private Client client;
 
+	@Autowired
+	private LoadGenerator loadGenerator;
+
+	@Autowired
+	private LoadGeneratorProperties loadGeneratorProperties;
+
+	@Autowired
+	private ConfigurableApplicationContext applicationContext;
+
 	public static void main(String[] args) {
 
 		SpringApplication.run(TechTestApplication.class, args);
 	}
 
 	@EventListener(ApplicationReadyEvent.class)
-	public void initiatePushDataFlow() throws JsonProcessingException, UnsupportedEncodingException {
+	public void initiatePushDataFlow() throws JsonProcessingException, UnsupportedEncodingException, InterruptedException {
+		if (loadGeneratorProperties.isEnabled()) {
+			generateLoad();
+			return;
+		}
+
 		pushData();
 
 		queryData();
@@ -42,6 +60,14 @@ public class TechTestApplication {
 		updateData();
 	}
 
+	private void generateLoad() throws InterruptedException {
+		LoadReport report = loadGenerator.run();
+
+		if (loadGeneratorProperties.isExitWhenDone()) {
+			System.exit(SpringApplication.exit(applicationContext, () -> report.isPassed() ? 0 : 1));
+		}
+	}
+
 	private void updateData() throws UnsupportedEncodingException {
 		boolean success = client.updateData(HEADER_NAME, BlockTypeEnum.BLOCKTYPEB.name());
 	}
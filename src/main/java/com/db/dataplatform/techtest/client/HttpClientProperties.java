@@ -0,0 +1,42 @@
+package com.db.dataplatform.techtest.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool and timeout settings of the HTTP client behind the {@code RestTemplate}.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "client.http")
+public class HttpClientProperties {
+
+    private int maxTotal = 50;
+
+    private int maxPerRoute = 20;
+
+    private int connectTimeoutMillis = 2000;
+
+    private int readTimeoutMillis = 30000;
+
+    /**
+     * How long a request waits for a pooled connection before failing.
+     */
+    private int connectionRequestTimeoutMillis = 1000;
+
+    /**
+     * Used when the server does not send a Keep-Alive timeout. Kept below Tomcat's default of 20 seconds so
+     * the client never reuses a connection the server has already closed.
+     */
+    private long keepAliveMillis = 15000;
+
+    private long idleEvictionMillis = 30000;
+
+    /**
+     * Connections idle for longer are checked before they are leased again.
+     */
+    private int validateAfterInactivityMillis = 2000;
+}
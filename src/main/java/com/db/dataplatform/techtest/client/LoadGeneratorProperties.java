@@ -0,0 +1,68 @@
+package com.db.dataplatform.techtest.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings of the load generation mode, which replaces the single push, query and update of the client on
+ * start up when enabled. Requests beyond {@code client.http.max-per-route} wait for a pooled connection, so
+ * raise that as well for a higher concurrency.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "client.load")
+public class LoadGeneratorProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Stops the application once the load has run, with exit code 1 when a limit below was exceeded.
+     */
+    private boolean exitWhenDone = true;
+
+    private int concurrency = 8;
+
+    /**
+     * Requests started per second across all workers. A request is timed from when it was due to start, so time
+     * spent waiting behind a slow server counts. 0 runs every worker back to back instead.
+     */
+    private double ratePerSecond = 20;
+
+    /**
+     * Requests in this time after start up are sent but not recorded.
+     */
+    private long warmupMillis = 10000;
+
+    private long durationMillis = 60000;
+
+    private double queryRatio = 0.2;
+
+    private double updateRatio = 0.1;
+
+    /**
+     * Body lengths of pushed envelopes, in characters, picked with the weights at the same position.
+     */
+    private List<Integer> bodySizes = new ArrayList<>(Arrays.asList(73, 1024, 4096));
+
+    private List<Integer> bodySizeWeights = new ArrayList<>(Arrays.asList(70, 25, 5));
+
+    /**
+     * Limit on the 99th percentile latency of every operation. 0 for no limit.
+     */
+    private long maxP99Millis = 0;
+
+    private double maxErrorRatio = 0.01;
+
+    /**
+     * Directory the latency distribution of every operation is written to, in HdrHistogram's percentile format.
+     * Not written when empty.
+     */
+    private String reportDirectory = "";
+}
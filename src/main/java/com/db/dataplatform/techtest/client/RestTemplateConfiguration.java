@@ -1,8 +1,18 @@
 package com.db.dataplatform.techtest.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
 import lombok.RequiredArgsConstructor;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,7 +21,9 @@ import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @RequiredArgsConstructor
@@ -19,18 +31,83 @@ public class RestTemplateConfiguration {
 
     private final RestTemplateBuilder restTemplateBuilder;
 
-    @Bean
-    public RestTemplate createRestTemplate(MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter,
-                                           StringHttpMessageConverter stringHttpMessageConverter) {
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(HttpClientProperties properties,
+                                                                          MeterRegistry meterRegistry) {
+        Timer leaseTimer = Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("outcome", "leased")
+                .register(meterRegistry);
+        Timer timeoutTimer = Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("outcome", "timeout")
+                .register(meterRegistry);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager() {
+            @Override
+            public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+                ConnectionRequest request = super.requestConnection(route, state);
+                return new ConnectionRequest() {
+                    @Override
+                    public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                        long startNanos = System.nanoTime();
+                        try {
+                            HttpClientConnection connection = request.get(timeout, timeUnit);
+                            leaseTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                            return connection;
+                        } catch (ConnectionPoolTimeoutException e) {
+                            timeoutTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public boolean cancel() {
+                        return request.cancel();
+                    }
+                };
+            }
+        };
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(properties.getValidateAfterInactivityMillis());
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "rest-template", Collections.emptyList())
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager,
+                                          HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(properties.getConnectTimeoutMillis())
+                .setSocketTimeout(properties.getReadTimeoutMillis())
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMillis())
+                .build();
 
-        RestTemplate restTemplate = restTemplateBuilder.build();
+        return HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? keepAlive : properties.getKeepAliveMillis();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEvictionMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
 
-        CloseableHttpClient client = HttpClients.createDefault();
-        RestTemplate template= new RestTemplate();
-        template.setRequestFactory(new HttpComponentsClientHttpRequestFactory(client));
-        template.setMessageConverters(Arrays.asList(mappingJackson2HttpMessageConverter, stringHttpMessageConverter));
+    @Bean
+    public RestTemplate createRestTemplate(CloseableHttpClient httpClient,
+                                           MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter,
+                                           StringHttpMessageConverter stringHttpMessageConverter) {
 
-        return restTemplate;
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .messageConverters(mappingJackson2HttpMessageConverter, stringHttpMessageConverter)
+                .build();
     }
 
 }
@@ -0,0 +1,5 @@
+package com.db.dataplatform.techtest.client.component;
+
+public interface LoadGenerator {
+    LoadReport run() throws InterruptedException;
+}
@@ -0,0 +1,7 @@
+package com.db.dataplatform.techtest.client.component;
+
+public enum LoadOperationEnum {
+    PUSH,
+    QUERY,
+    UPDATE
+}
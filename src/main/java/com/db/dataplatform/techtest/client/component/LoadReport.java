@@ -0,0 +1,51 @@
+package com.db.dataplatform.techtest.client.component;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latencies of the successful requests of a load run, in microseconds, and the number of failed ones.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LoadReport {
+
+    private final Map<LoadOperationEnum, Histogram> latencies;
+    private final Map<LoadOperationEnum, Long> errors;
+    private final double measuredSeconds;
+
+    /**
+     * Limits of {@code LoadGeneratorProperties} this run exceeded, empty if it passed.
+     */
+    private final List<String> violations;
+
+    public boolean isPassed() {
+        return violations.isEmpty();
+    }
+
+    public long getCount(LoadOperationEnum operation) {
+        return latencies.get(operation).getTotalCount();
+    }
+
+    public double getThroughput(LoadOperationEnum operation) {
+        return getCount(operation) / measuredSeconds;
+    }
+
+    public double getErrorRatio() {
+        long count = 0;
+        long errorCount = 0;
+        for (LoadOperationEnum operation : LoadOperationEnum.values()) {
+            count += getCount(operation) + errors.get(operation);
+            errorCount += errors.get(operation);
+        }
+        return count == 0 ? 0 : (double) errorCount / count;
+    }
+
+    public double getPercentileMillis(LoadOperationEnum operation, double percentile) {
+        return latencies.get(operation).getValueAtPercentile(percentile) / 1000.0;
+    }
+}
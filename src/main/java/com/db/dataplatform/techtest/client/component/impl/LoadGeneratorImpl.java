@@ -0,0 +1,253 @@
+package com.db.dataplatform.techtest.client.component.impl;
+
+import com.db.dataplatform.techtest.client.LoadGeneratorProperties;
+import com.db.dataplatform.techtest.client.api.model.DataBody;
+import com.db.dataplatform.techtest.client.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.client.api.model.DataHeader;
+import com.db.dataplatform.techtest.client.component.Client;
+import com.db.dataplatform.techtest.client.component.LoadGenerator;
+import com.db.dataplatform.techtest.client.component.LoadOperationEnum;
+import com.db.dataplatform.techtest.client.component.LoadReport;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link Client} from {@code concurrency} workers for a fixed time and records the latency of every
+ * request in an HdrHistogram per operation.
+ * <p>
+ * With a rate, request {@code n} is due {@code n / ratePerSecond} seconds after the start and is timed from
+ * then, whichever worker picks it up. When the server falls behind, the requests waiting for a worker are
+ * therefore counted as slow rather than not sent, which a closed loop would hide.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoadGeneratorImpl implements LoadGenerator {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Client client;
+    private final LoadGeneratorProperties properties;
+
+    @Override
+    public LoadReport run() throws InterruptedException {
+        Run run = new Run();
+        log.info("Generating load for {} ms after {} ms of warm up: {} workers, {} requests per second",
+                properties.getDurationMillis(), properties.getWarmupMillis(), properties.getConcurrency(),
+                properties.getRatePerSecond() > 0 ? properties.getRatePerSecond() : "unlimited");
+
+        AtomicInteger workerCount = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getConcurrency(),
+                runnable -> new Thread(runnable, "load-" + workerCount.incrementAndGet()));
+        for (int i = 0; i < properties.getConcurrency(); i++) {
+            workers.execute(run::work);
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getWarmupMillis() + properties.getDurationMillis()
+                + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS)) {
+            log.warn("Load workers still busy after the run, interrupting them");
+            workers.shutdownNow();
+        }
+
+        LoadReport report = run.report();
+        logReport(report);
+        writeHistograms(report);
+        return report;
+    }
+
+    private List<String> violations(LoadReport report) {
+        List<String> violations = new ArrayList<>();
+        if (report.getErrorRatio() > properties.getMaxErrorRatio()) {
+            violations.add(String.format("error ratio %.4f above %.4f", report.getErrorRatio(), properties.getMaxErrorRatio()));
+        }
+        if (properties.getMaxP99Millis() > 0) {
+            for (LoadOperationEnum operation : LoadOperationEnum.values()) {
+                double p99Millis = report.getPercentileMillis(operation, 99);
+                if (p99Millis > properties.getMaxP99Millis()) {
+                    violations.add(String.format("%s p99 %.1f ms above %d ms", operation, p99Millis, properties.getMaxP99Millis()));
+                }
+            }
+        }
+        return violations;
+    }
+
+    private void logReport(LoadReport report) {
+        for (LoadOperationEnum operation : LoadOperationEnum.values()) {
+            log.info(String.format("%s: %d requests, %d failed, %.1f per second, latency ms p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                    operation, report.getCount(operation), report.getErrors().get(operation),
+                    report.getThroughput(operation), report.getPercentileMillis(operation, 50),
+                    report.getPercentileMillis(operation, 90), report.getPercentileMillis(operation, 99),
+                    report.getPercentileMillis(operation, 99.9), report.getPercentileMillis(operation, 100)));
+        }
+        if (report.isPassed()) {
+            log.info("Load run passed, error ratio {}", String.format("%.4f", report.getErrorRatio()));
+        } else {
+            log.error("Load run failed: {}", String.join(", ", report.getViolations()));
+        }
+    }
+
+    private void writeHistograms(LoadReport report) {
+        if (!StringUtils.hasText(properties.getReportDirectory())) {
+            return;
+        }
+        File directory = new File(properties.getReportDirectory());
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.warn("Cannot create the load report directory {}", directory);
+            return;
+        }
+        for (LoadOperationEnum operation : LoadOperationEnum.values()) {
+            File file = new File(directory, operation.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(file, "UTF-8")) {
+                report.getLatencies().get(operation).outputPercentileDistribution(out, 1000.0);
+            } catch (IOException e) {
+                log.warn("Cannot write the load report {}", file, e);
+            }
+        }
+        log.info("Latency distributions written to {}", directory.getAbsolutePath());
+    }
+
+    /**
+     * State of one run, shared by its workers.
+     */
+    private class Run {
+
+        private final String runId = Long.toString(System.currentTimeMillis(), 36);
+        private final long startNanos = System.nanoTime();
+        private final long warmupEndNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(properties.getWarmupMillis());
+        private final long endNanos = warmupEndNanos + TimeUnit.MILLISECONDS.toNanos(properties.getDurationMillis());
+        private final long intervalNanos = properties.getRatePerSecond() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / properties.getRatePerSecond()) : 0;
+        private final AtomicLong tickets = new AtomicLong();
+        private final AtomicLong pushes = new AtomicLong();
+
+        private final String[] bodies;
+        private final int[] cumulativeWeights;
+        private final List<String> pushedNames = Collections.synchronizedList(new ArrayList<>());
+        private final Map<LoadOperationEnum, Histogram> latencies = new EnumMap<>(LoadOperationEnum.class);
+        private final Map<LoadOperationEnum, LongAdder> errors = new EnumMap<>(LoadOperationEnum.class);
+
+        Run() {
+            List<Integer> sizes = properties.getBodySizes();
+            List<Integer> weights = properties.getBodySizeWeights();
+            if (sizes.isEmpty() || (!weights.isEmpty() && weights.size() != sizes.size())) {
+                throw new IllegalArgumentException("client.load.body-size-weights needs a weight for every body size");
+            }
+            bodies = new String[sizes.size()];
+            cumulativeWeights = new int[sizes.size()];
+            for (int i = 0; i < sizes.size(); i++) {
+                bodies[i] = randomBody(sizes.get(i));
+                cumulativeWeights[i] = (i == 0 ? 0 : cumulativeWeights[i - 1]) + (weights.isEmpty() ? 1 : weights.get(i));
+            }
+            for (LoadOperationEnum operation : LoadOperationEnum.values()) {
+                latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        void work() {
+            while (!Thread.currentThread().isInterrupted()) {
+                long dueNanos = intervalNanos == 0 ? System.nanoTime() : startNanos + tickets.getAndIncrement() * intervalNanos;
+                if (dueNanos >= endNanos) {
+                    return;
+                }
+                for (long wait = dueNanos - System.nanoTime(); wait > 0; wait = dueNanos - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                LoadOperationEnum operation = nextOperation();
+                boolean succeeded = send(operation);
+                long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueNanos);
+                if (dueNanos < warmupEndNanos) {
+                    continue;
+                }
+                if (succeeded) {
+                    latencies.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+                } else {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+
+        private LoadOperationEnum nextOperation() {
+            double draw = ThreadLocalRandom.current().nextDouble();
+            if (draw < properties.getQueryRatio()) {
+                return LoadOperationEnum.QUERY;
+            }
+            if (draw < properties.getQueryRatio() + properties.getUpdateRatio() && !pushedNames.isEmpty()) {
+                return LoadOperationEnum.UPDATE;
+            }
+            return LoadOperationEnum.PUSH;
+        }
+
+        private boolean send(LoadOperationEnum operation) {
+            try {
+                switch (operation) {
+                    case PUSH:
+                        String name = "LOAD-" + runId + "-" + pushes.incrementAndGet();
+                        client.pushData(new DataEnvelope(new DataHeader(name, BlockTypeEnum.BLOCKTYPEA),
+                                new DataBody(nextBody())));
+                        pushedNames.add(name);
+                        return true;
+                    case QUERY:
+                        client.getData(BlockTypeEnum.BLOCKTYPEA.name());
+                        return true;
+                    default:
+                        String pushedName = pushedNames.get(ThreadLocalRandom.current().nextInt(pushedNames.size()));
+                        return client.updateData(pushedName, BlockTypeEnum.BLOCKTYPEB.name());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("{} request failed", operation, e);
+                return false;
+            }
+        }
+
+        private String nextBody() {
+            int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int i = 0;
+            while (draw >= cumulativeWeights[i]) {
+                i++;
+            }
+            return bodies[i];
+        }
+
+        LoadReport report() {
+            Map<LoadOperationEnum, Long> errorCounts = new EnumMap<>(LoadOperationEnum.class);
+            errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+            double measuredSeconds = Math.max(1, Math.min(System.nanoTime(), endNanos) - warmupEndNanos) / 1e9;
+            LoadReport report = new LoadReport(latencies, errorCounts, measuredSeconds, Collections.emptyList());
+            return new LoadReport(latencies, errorCounts, measuredSeconds, violations(report));
+        }
+
+        private String randomBody(int length) {
+            StringBuilder body = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                body.append(ALPHABET.charAt(ThreadLocalRandom.current().nextInt(ALPHABET.length())));
+            }
+            return body.toString();
+        }
+    }
+}
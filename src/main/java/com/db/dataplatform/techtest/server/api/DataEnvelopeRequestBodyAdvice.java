@@ -0,0 +1,54 @@
+package com.db.dataplatform.techtest.server.api;
+
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.IngestMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Times reading a pushed {@link DataEnvelope} from the request, from when the message converter starts until
+ * it returns the envelope, as the {@link IngestMetrics.Stage#DESERIALIZE} stage of its block type. Envelopes
+ * without a block type fail validation afterwards and are not timed.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class DataEnvelopeRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String START_NANOS_ATTRIBUTE = DataEnvelopeRequestBodyAdvice.class.getName() + ".startNanos";
+
+    private final IngestMetrics ingestMetrics;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == DataEnvelope.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(START_NANOS_ATTRIBUTE, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Long startNanos = (Long) RequestContextHolder.currentRequestAttributes()
+                .getAttribute(START_NANOS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        DataEnvelope envelope = (DataEnvelope) body;
+        if (startNanos != null && envelope.getDataHeader() != null && envelope.getDataHeader().getBlockType() != null) {
+            ingestMetrics.recordStage(IngestMetrics.Stage.DESERIALIZE, envelope.getDataHeader().getBlockType(), startNanos);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,58 @@
+package com.db.dataplatform.techtest.server.api;
+
+import com.db.dataplatform.techtest.server.api.model.AdmissionRejection;
+import com.db.dataplatform.techtest.server.component.PushAdmissionControl;
+import com.db.dataplatform.techtest.server.configuration.AdmissionControlProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers a push the {@link PushAdmissionControl} turns away before its body is read: 429 when the client is over
+ * its rate, 503 when the server is overloaded, with Retry-After in both cases. The dispatch that completes an
+ * asynchronous push is not checked again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PushAdmissionInterceptor implements HandlerInterceptor {
+
+    private final PushAdmissionControl pushAdmissionControl;
+    private final AdmissionControlProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        String clientId = request.getHeader(properties.getClientIdHeader());
+        if (!StringUtils.hasText(clientId)) {
+            clientId = request.getRemoteAddr();
+        }
+
+        AdmissionRejection rejection = pushAdmissionControl.admit(clientId);
+        if (rejection == null) {
+            return true;
+        }
+
+        HttpStatus status = rejection.getReason() == AdmissionRejection.Reason.RATE_LIMITED
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        log.debug("Push from {} turned away: {}", clientId, rejection.getReason());
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.getRetryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(status.getReasonPhrase() + ": " + rejection.getReason());
+        return false;
+    }
+}
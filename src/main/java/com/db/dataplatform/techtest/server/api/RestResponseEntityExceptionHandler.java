@@ -1,5 +1,7 @@
 package com.db.dataplatform.techtest.server.api;
 
+import com.db.dataplatform.techtest.server.exception.DataEnvelopeConflictException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +11,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import javax.validation.ConstraintViolationException;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class RestResponseEntityExceptionHandler
@@ -23,4 +26,28 @@ public class RestResponseEntityExceptionHandler
         return handleExceptionInternal(ex, bodyOfResponse,
                 new HttpHeaders(), HttpStatus.CONFLICT, request);
     }
+
+    /**
+     * A name pushed with different content, or stored concurrently by another push.
+     */
+    @ExceptionHandler(value = {DataEnvelopeConflictException.class, DataIntegrityViolationException.class})
+    protected ResponseEntity<Object> handleStoredName(Exception ex, WebRequest request) {
+
+        String bodyOfResponse = "Data header name is already stored with different content";
+
+        return handleExceptionInternal(ex, bodyOfResponse,
+                new HttpHeaders(), HttpStatus.CONFLICT, request);
+    }
+
+    /**
+     * The request executor's queue is full.
+     */
+    @ExceptionHandler(value = {RejectedExecutionException.class})
+    protected ResponseEntity<Object> handleRejectedRequest(Exception ex, WebRequest request) {
+
+        String bodyOfResponse = "Server is busy, retry later";
+
+        return handleExceptionInternal(ex, bodyOfResponse,
+                new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
 }
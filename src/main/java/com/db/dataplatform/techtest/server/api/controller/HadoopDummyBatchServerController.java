@@ -0,0 +1,43 @@
+package com.db.dataplatform.techtest.server.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Batch counterpart of {@link HadoopDummyServerController}: one call stores a whole array of envelopes with the
+ * same simulated latency as a single push. This code does not require any test coverage.
+ */
+
+@Slf4j
+@Controller
+@RequestMapping("/hadoopserver")
+public class HadoopDummyBatchServerController {
+
+    @PostMapping(value = "/pushbigdata/batch")
+    public ResponseEntity<HttpStatus> pushBigDataBatch(@RequestBody List<JsonNode> payload) throws InterruptedException {
+
+        log.info("Saving batch of {} to Hadoop file system", payload.size());
+        Random random = new Random();
+        int workDuration = random.ints(2000, 4000).findAny().getAsInt();
+
+        // Simulate long running work.
+        Thread.sleep(workDuration);
+
+        if(workDuration > 3000) {
+            log.info("Hadoop back end has timed out");
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+
+        log.info("Saving batch to Hadoop file system - finished");
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,11 +1,18 @@
 package com.db.dataplatform.techtest.server.api.controller;
 
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
 import com.db.dataplatform.techtest.server.api.model.DataBody;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.BulkIngestor;
+import com.db.dataplatform.techtest.server.component.DataEnvelopeResponseCache;
+import com.db.dataplatform.techtest.server.component.RequestExecutor;
 import com.db.dataplatform.techtest.server.component.Server;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,15 +25,27 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * The pushes and the block type reads do their work on the {@link RequestExecutor}, returning a future or a
+ * streamed body, so they do not hold a Tomcat worker while they wait on the data store.
+ */
 @Slf4j
 @Controller
 @RequestMapping("/dataserver")
@@ -34,34 +53,144 @@ import java.util.List;
 @Validated
 public class ServerController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final Server server;
+    private final BulkIngestor bulkIngestor;
+    private final DataEnvelopeResponseCache dataEnvelopeResponseCache;
+    private final RequestExecutor requestExecutor;
 
 
+    /**
+     * The client may compute its checksum with any of {@link ChecksumAlgorithmEnum} and name it in checksumAlgorithm;
+     * MD5 is assumed when it does not.
+     */
     @PostMapping(value = "/pushdata", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Boolean> pushData(@Valid @RequestBody DataEnvelope dataEnvelope, @RequestParam String clientChecksum) throws IOException, NoSuchAlgorithmException {
+    public CompletableFuture<ResponseEntity<Boolean>> pushData(@Valid @RequestBody DataEnvelope dataEnvelope, @RequestParam String clientChecksum,
+                                                               @RequestParam(defaultValue = "MD5") ChecksumAlgorithmEnum checksumAlgorithm) {
 
 
         log.info("Data envelope received: {}", dataEnvelope.getDataHeader().getName());
-        boolean checksumPass = server.saveDataEnvelope(dataEnvelope,clientChecksum);
+        return requestExecutor.submit(() -> {
+            boolean checksumPass = server.saveDataEnvelope(dataEnvelope,clientChecksum,checksumAlgorithm);
+
+            log.info("Data envelope persisted. Attribute name: {}", dataEnvelope.getDataHeader().getName());
+
+            return ResponseEntity.ok(checksumPass);
+        });
+    }
+
+    /**
+     * Large-payload push: the request body is the data body itself, UTF-8 encoded, and is streamed into storage
+     * rather than read into memory. The checksum is computed over the bytes as received.
+     */
+    @PostMapping(value = "/pushdata/{blockType}/{name}",
+            consumes = {MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Boolean>> pushDataBody(final @PathVariable String blockType, final @PathVariable @NotBlank String name,
+                                                                   InputStream requestBody, @RequestParam String clientChecksum,
+                                                                   @RequestParam(defaultValue = "MD5") ChecksumAlgorithmEnum checksumAlgorithm) {
+
+        DataHeader dataHeader;
+        try {
+            dataHeader = new DataHeader(name, BlockTypeEnum.valueOf(blockType));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid BlockType: {}", blockType);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).build());
+        }
 
-        log.info("Data envelope persisted. Attribute name: {}", dataEnvelope.getDataHeader().getName());
+        log.info("Data body received: {}", name);
+        return requestExecutor.submit(() -> {
+            boolean checksumPass = server.saveDataEnvelope(dataHeader, requestBody, clientChecksum, checksumAlgorithm);
 
-        return ResponseEntity.ok(checksumPass);
+            log.info("Data body persisted. Attribute name: {}", name);
+            return ResponseEntity.ok(checksumPass);
+        });
     }
 
+    /**
+     * Accepts a JSON array or newline-delimited JSON of envelopes, each carrying its client checksum in md5Checksum.
+     * One result per envelope is streamed back as newline-delimited JSON while the request is still being read,
+     * so clients sending large pushes should read the response concurrently.
+     */
+    @PostMapping(value = "/pushdata/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE},
+            produces = APPLICATION_NDJSON_VALUE)
+    public void pushDataBulk(InputStream requestBody, HttpServletResponse response) throws IOException {
+
+        log.info("Bulk push received");
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        int received = bulkIngestor.ingest(requestBody, response.getOutputStream());
+
+        log.info("Bulk push processed {} envelopes", received);
+    }
+
+    /**
+     * Every envelope of the block type as a JSON array, served from the response cache or, when too large to be
+     * cached, streamed as it is read from the database. The body is written on the {@link RequestExecutor}.
+     */
     @GetMapping(value = "/data/{blockType}")
-    public ResponseEntity<List<DataEnvelope>> getData(final @PathVariable String blockType) throws IOException{
+    public ResponseEntity<StreamingResponseBody> getData(final @PathVariable String blockType) {
 
         log.info("BlockType received: {}", blockType);
         try {
-            List<DataEnvelope> dataEnvelopeList = server.getDataEnvelopByBlockType(blockType);
-            log.info("Retrieved data {}",dataEnvelopeList);
-            return ResponseEntity.ok(dataEnvelopeList);
+            BlockTypeEnum.valueOf(blockType);
         } catch (IllegalArgumentException e) {
             // Handle the case where an invalid blockType is provided
             log.error("Invalid BlockType: {}", blockType);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(responseBody -> {
+                    int written = dataEnvelopeResponseCache.writeDataEnvelopes(blockType, responseBody);
+                    log.info("Retrieved {} envelopes", written);
+                });
+    }
+
+    /**
+     * The body of one envelope as plain text, streamed from storage.
+     */
+    @GetMapping(value = "/databody/{name}")
+    public void getDataBody(final @PathVariable String name, HttpServletResponse response) throws IOException {
+
+        log.info("Data body requested: {}", name);
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (!server.writeDataBody(name, response.getWriter())) {
+            log.info("No data body named {}", name);
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+        }
+    }
+
+    /**
+     * Keyset pagination: returns up to {@code limit} envelopes stored after {@code afterId}. When there may be more,
+     * the URL of the next page is given in the Link header with rel="next".
+     */
+    @GetMapping(value = "/data/{blockType}", params = "limit")
+    public CompletableFuture<ResponseEntity<List<DataEnvelope>>> getDataPage(final @PathVariable String blockType,
+                                                                             final @RequestParam(defaultValue = "0") long afterId,
+                                                                             final @RequestParam @Min(1) @Max(1000) int limit) {
+
+        log.info("BlockType received: {} after {}", blockType, afterId);
+        // The current request is only known on the Tomcat worker.
+        UriComponentsBuilder nextPage = ServletUriComponentsBuilder.fromCurrentRequest();
+        return requestExecutor.submit(() -> {
+            try {
+                DataEnvelopePage page = server.getDataEnvelopePage(blockType, afterId, limit);
+                log.info("Retrieved {} envelopes", page.getDataEnvelopes().size());
+                ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+                if (page.getNextAfterId() != null) {
+                    String next = nextPage
+                            .replaceQueryParam("afterId", page.getNextAfterId())
+                            .toUriString();
+                    responseBuilder.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                }
+                return responseBuilder.body(page.getDataEnvelopes());
+            } catch (IllegalArgumentException e) {
+                log.error("Invalid BlockType: {}", blockType);
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).<List<DataEnvelope>>build();
+            }
+        });
     }
 
     @PutMapping(value = "/update/{name}/{newBlockType}")
@@ -81,4 +210,29 @@ public class ServerController {
         }
     }
 
+    /**
+     * Bulk re-tag in one statement: either the names in the request body, a JSON array, or every name starting
+     * with namePrefix.
+     *
+     * @return the number of envelopes updated.
+     */
+    @PutMapping(value = "/update/{newBlockType}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Integer> updateBlockTypes(final @PathVariable String newBlockType,
+                                                    @RequestBody(required = false) List<String> names,
+                                                    @RequestParam(required = false) String namePrefix) {
+
+        if ((names == null) == (namePrefix == null)) {
+            log.error("Bulk update to {} needs either names or a name prefix", newBlockType);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        try {
+            int updated = names != null ? server.updateDataBlockTypes(names, newBlockType)
+                    : server.updateDataBlockTypeByNamePrefix(namePrefix, newBlockType);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid bulk update to {}: {}", newBlockType, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
 }
@@ -0,0 +1,32 @@
+package com.db.dataplatform.techtest.server.api.model;
+
+import lombok.Value;
+
+/**
+ * Why a push is turned away, and after how many seconds the client should try again.
+ */
+@Value
+public class AdmissionRejection {
+
+    public enum Reason {
+        /**
+         * The client pushed faster than its rate.
+         */
+        RATE_LIMITED,
+        /**
+         * Too many requests are being handled already.
+         */
+        REQUEST_BACKLOG,
+        /**
+         * Too many envelopes are waiting to be forwarded to Hadoop.
+         */
+        OUTBOX_BACKLOG,
+        /**
+         * Too many threads are waiting for a database connection.
+         */
+        DB_POOL_SATURATED
+    }
+
+    Reason reason;
+    long retryAfterSeconds;
+}
@@ -0,0 +1,9 @@
+package com.db.dataplatform.techtest.server.api.model;
+
+public enum BulkIngestOutcomeEnum {
+    CHECKSUM_PASS,
+    CHECKSUM_FAIL,
+    DUPLICATE,
+    INVALID,
+    ERROR
+}
@@ -0,0 +1,24 @@
+package com.db.dataplatform.techtest.server.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one envelope of a bulk push, identified by its position in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class BulkIngestResult {
+
+    private int index;
+
+    private String name;
+
+    private BulkIngestOutcomeEnum outcome;
+
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.db.dataplatform.techtest.server.api.model;
+
+/**
+ * Algorithms a client can compute its checksum with. Checksums are lowercase hex; CRC and xxHash values are
+ * written big-endian with leading zeros, e.g. 8 digits for CRC32C.
+ */
+public enum ChecksumAlgorithmEnum {
+    MD5,
+    CRC32,
+    CRC32C,
+    /**
+     * xxHash64 with seed 0.
+     */
+    XXHASH64
+}
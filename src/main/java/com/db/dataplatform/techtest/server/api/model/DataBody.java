@@ -1,8 +1,9 @@
 package com.db.dataplatform.techtest.server.api.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -10,7 +11,6 @@ import javax.validation.constraints.NotNull;
 
 @JsonSerialize(as = DataBody.class)
 @JsonDeserialize(as = DataBody.class)
-@AllArgsConstructor
 @NoArgsConstructor
 @Getter
 public class DataBody {
@@ -18,4 +18,27 @@ public class DataBody {
     @NotNull
     private String dataBody;
 
+    /**
+     * MD5 of dataBody when it was computed while the request was parsed. Deliberately without a getter, so that
+     * Jackson does not treat it as a property.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private String calculatedMd5Checksum;
+
+    public DataBody(String dataBody) {
+        this.dataBody = dataBody;
+    }
+
+    public DataBody(String dataBody, String calculatedMd5Checksum) {
+        this.dataBody = dataBody;
+        this.calculatedMd5Checksum = calculatedMd5Checksum;
+    }
+
+    /**
+     * @return the MD5 of dataBody if it is already known, otherwise null.
+     */
+    public String calculatedMd5Checksum() {
+        return calculatedMd5Checksum;
+    }
 }
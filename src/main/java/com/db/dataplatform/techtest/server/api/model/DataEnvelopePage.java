@@ -0,0 +1,18 @@
+package com.db.dataplatform.techtest.server.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One keyset page of envelopes. {@code nextAfterId} is the cursor for the next page, null on the last page.
+ */
+@AllArgsConstructor
+@Getter
+public class DataEnvelopePage {
+
+    private List<DataEnvelope> dataEnvelopes;
+
+    private Long nextAfterId;
+}
@@ -0,0 +1,16 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkIngestor {
+
+    /**
+     * Reads a JSON array or newline-delimited JSON stream of envelopes and writes one
+     * {@link com.db.dataplatform.techtest.server.api.model.BulkIngestResult} per envelope as newline-delimited JSON.
+     *
+     * @return the number of envelopes read.
+     */
+    int ingest(InputStream requestBody, OutputStream responseBody) throws IOException;
+}
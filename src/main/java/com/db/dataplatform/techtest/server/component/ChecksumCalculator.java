@@ -0,0 +1,46 @@
+package com.db.dataplatform.techtest.server.component;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ChecksumCalculator {
+
+    /**
+     * @return the checksum of the UTF-8 encoding of {@code data}, as lowercase hex.
+     */
+    String checksum(CharSequence data, ChecksumAlgorithmEnum algorithm);
+
+    /**
+     * Same as {@link #checksum(CharSequence, ChecksumAlgorithmEnum)} for a slice of a char array, such as the text
+     * buffer of a JSON parser, without copying it.
+     */
+    String checksum(char[] chars, int offset, int length, ChecksumAlgorithmEnum algorithm);
+
+    /**
+     * Reads {@code in} to the end without closing it.
+     *
+     * @return the checksum of the bytes read, as lowercase hex.
+     */
+    String checksum(InputStream in, ChecksumAlgorithmEnum algorithm) throws IOException;
+
+    /**
+     * @return a new hasher for checksums computed piece by piece, e.g. by a {@link ChecksumInputStream}.
+     */
+    Hasher newHasher(ChecksumAlgorithmEnum algorithm);
+
+    /**
+     * Accumulates one checksum at a time; {@link #finish()} returns the result and readies it for the next one.
+     * Not thread-safe.
+     */
+    interface Hasher {
+
+        void update(byte[] bytes, int offset, int length);
+
+        /**
+         * @return the checksum of the bytes given since the last call, as lowercase hex.
+         */
+        String finish();
+    }
+}
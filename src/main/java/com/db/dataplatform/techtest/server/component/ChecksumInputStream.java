@@ -0,0 +1,81 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Computes the checksum of the bytes read through it, so a body can be hashed while it is streamed elsewhere.
+ */
+public class ChecksumInputStream extends FilterInputStream {
+
+    private final ChecksumCalculator.Hasher hasher;
+    private String checksum;
+    private final byte[] single = new byte[1];
+
+    public ChecksumInputStream(InputStream in, ChecksumCalculator.Hasher hasher) {
+        super(in);
+        this.hasher = hasher;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b != -1) {
+            single[0] = (byte) b;
+            hasher.update(single, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        int read = in.read(bytes, offset, length);
+        if (read > 0) {
+            hasher.update(bytes, offset, read);
+        }
+        return read;
+    }
+
+    /**
+     * Skipped bytes are read, so they are part of the checksum.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 4096)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    /**
+     * @return the checksum of everything read, as lowercase hex. Call after reading; the checksum is fixed by
+     * the first call.
+     */
+    public String getChecksum() {
+        if (checksum == null) {
+            checksum = hasher.finish();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,27 @@
+package com.db.dataplatform.techtest.server.component;
+
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+
+public interface DataBodyCodec {
+
+    /**
+     * Compresses the body of the entity with the codec configured for its block type, moving it from dataBody
+     * to compressedBody. Leaves it uncompressed when it is short or does not get smaller.
+     */
+    void encode(DataBodyEntity dataBodyEntity);
+
+    /**
+     * Restores dataBody of an entity read from the database.
+     */
+    void decode(DataBodyEntity dataBodyEntity);
+
+    /**
+     * Restores dataBody of a projection read from the database.
+     */
+    void decode(DataEnvelopeProjection dataEnvelopeProjection);
+
+    String decode(BlockTypeEnum blockType, BodyCodecEnum codec, byte[] compressedBody);
+}
@@ -0,0 +1,17 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface DataEnvelopeResponseCache {
+
+    /**
+     * Writes every envelope of the block type as a JSON array, from the cache when possible.
+     *
+     * @return the number of envelopes written.
+     * @throws IllegalArgumentException for an unknown block type, before anything is written.
+     */
+    int writeDataEnvelopes(String blockType, OutputStream responseBody) throws IOException;
+
+    void onDataEnvelopesChanged(DataEnvelopesChangedEvent event);
+}
@@ -0,0 +1,23 @@
+package com.db.dataplatform.techtest.server.component;
+
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Published when envelopes of the given block types are stored or moved between block types.
+ */
+@Getter
+public class DataEnvelopesChangedEvent {
+
+    private final Set<BlockTypeEnum> blockTypes;
+
+    public DataEnvelopesChangedEvent(Collection<BlockTypeEnum> blockTypes) {
+        this.blockTypes = EnumSet.noneOf(BlockTypeEnum.class);
+        blockTypes.stream().filter(Objects::nonNull).forEach(this.blockTypes::add);
+    }
+}
@@ -0,0 +1,15 @@
+package com.db.dataplatform.techtest.server.component;
+
+/**
+ * Answers whether a name may be stored without a lookup in the data store. A negative answer is always right,
+ * a positive one has to be confirmed by a lookup.
+ */
+public interface DataHeaderNameFilter {
+
+    boolean mightContain(String name);
+
+    /**
+     * Safe to call for names whose transaction later rolls back, they only become false positives.
+     */
+    void add(String name);
+}
@@ -0,0 +1,18 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking Hadoop client. The returned futures complete once Hadoop answered, exceptionally with a
+ * {@link com.db.dataplatform.techtest.server.exception.HadoopClientException} for any non-2xx status.
+ */
+public interface HadoopClient {
+
+    CompletableFuture<Void> pushData(String payload);
+
+    /**
+     * Sends the payloads as one JSON array to the batch endpoint.
+     */
+    CompletableFuture<Void> pushBatch(List<String> payloads);
+}
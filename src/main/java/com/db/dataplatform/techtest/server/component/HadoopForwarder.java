@@ -0,0 +1,16 @@
+package com.db.dataplatform.techtest.server.component;
+
+public interface HadoopForwarder {
+
+    /**
+     * Claims due HADOOP_OUTBOX rows and sends them to Hadoop without waiting for the answers.
+     *
+     * @return the number of rows dispatched.
+     */
+    int drainOutbox();
+
+    /**
+     * @return the number of Hadoop calls currently waiting for an answer.
+     */
+    int getInFlight();
+}
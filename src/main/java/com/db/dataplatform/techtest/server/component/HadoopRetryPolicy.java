@@ -0,0 +1,20 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.time.Instant;
+
+/**
+ * Decides when a failed Hadoop delivery is attempted again.
+ */
+public interface HadoopRetryPolicy {
+
+    /**
+     * Tells the policy that envelopes were sent for the first time.
+     */
+    void recordFirstAttempts(int envelopes);
+
+    /**
+     * @param failedAttempts attempts made so far, including the one that just failed.
+     * @return when the next attempt is due, or null when the envelope has used all its attempts.
+     */
+    Instant nextAttempt(int failedAttempts, Instant now);
+}
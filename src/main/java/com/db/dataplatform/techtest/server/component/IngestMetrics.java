@@ -0,0 +1,81 @@
+package com.db.dataplatform.techtest.server.component;
+
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each stage of a push, and the envelopes pushed, by block type. Together with the
+ * {@code http.server.requests} timer of the endpoint they show which stage a slow push spends its time in.
+ * <p>
+ * Compressing the body is part of {@link Stage#PERSIST} and is timed on its own as {@code dataserver.codec.time}.
+ * Delivery to Hadoop happens after the push has returned, from the outbox, and is timed as
+ * {@code hadoop.forwarding.push}, with its retries counted as {@code hadoop.forwarding.retries}.
+ */
+@Component
+public class IngestMetrics {
+
+    public enum Stage {
+        /**
+         * Reading the envelope from the request. An MD5 checksum is computed here rather than in CHECKSUM.
+         */
+        DESERIALIZE,
+        CHECKSUM,
+        MAP,
+        /**
+         * Writing the envelope to the data store, up to but not including the commit.
+         */
+        PERSIST,
+        /**
+         * Recording the envelope in the Hadoop outbox, in the transaction of the push.
+         */
+        OUTBOX
+    }
+
+    /**
+     * Invalid envelopes may have no block type, and failed ones are reported by the bulk push only.
+     */
+    private static final Set<BulkIngestOutcomeEnum> COUNTED_OUTCOMES = EnumSet.of(BulkIngestOutcomeEnum.CHECKSUM_PASS,
+            BulkIngestOutcomeEnum.CHECKSUM_FAIL, BulkIngestOutcomeEnum.DUPLICATE);
+
+    private final Timer[][] stageTimers = new Timer[Stage.values().length][BlockTypeEnum.values().length];
+    private final Counter[][] envelopeCounters = new Counter[BulkIngestOutcomeEnum.values().length][BlockTypeEnum.values().length];
+
+    public IngestMetrics(MeterRegistry meterRegistry) {
+        for (BlockTypeEnum blockType : BlockTypeEnum.values()) {
+            for (Stage stage : Stage.values()) {
+                stageTimers[stage.ordinal()][blockType.ordinal()] = Timer.builder("dataserver.ingest.stage")
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("blockType", blockType.name())
+                        .register(meterRegistry);
+            }
+            for (BulkIngestOutcomeEnum outcome : COUNTED_OUTCOMES) {
+                envelopeCounters[outcome.ordinal()][blockType.ordinal()] = Counter.builder("dataserver.ingest.envelopes")
+                        .tag("outcome", outcome.name().toLowerCase())
+                        .tag("blockType", blockType.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} when the stage started; it ends now.
+     */
+    public void recordStage(Stage stage, BlockTypeEnum blockType, long startNanos) {
+        stageTimers[stage.ordinal()][blockType.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome CHECKSUM_PASS, CHECKSUM_FAIL or DUPLICATE.
+     */
+    public void countEnvelope(BlockTypeEnum blockType, BulkIngestOutcomeEnum outcome) {
+        envelopeCounters[outcome.ordinal()][blockType.ordinal()].increment();
+    }
+}
@@ -0,0 +1,15 @@
+package com.db.dataplatform.techtest.server.component;
+
+import com.db.dataplatform.techtest.server.api.model.AdmissionRejection;
+
+/**
+ * Decides, before its body is read, whether a push is handled or turned away straight away.
+ */
+public interface PushAdmissionControl {
+
+    /**
+     * @param clientId identity the client's rate is kept under.
+     * @return null when the push is admitted, otherwise why it is not.
+     */
+    AdmissionRejection admit(String clientId);
+}
@@ -0,0 +1,23 @@
+package com.db.dataplatform.techtest.server.component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the work of a controller endpoint off the Tomcat worker, which is released as soon as the endpoint
+ * returns the future. As an {@link Executor} it also writes streamed response bodies.
+ */
+public interface RequestExecutor extends Executor {
+
+    /**
+     * @return a future completed with the result of the task, or with the exception it threw, unwrapped, so the
+     * exception handlers see it as if the endpoint had thrown it.
+     */
+    <T> CompletableFuture<T> submit(Callable<T> task);
+
+    /**
+     * @return the tasks submitted and not finished yet, those waiting for a thread included.
+     */
+    int getInFlight();
+}
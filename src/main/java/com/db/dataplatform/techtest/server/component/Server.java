@@ -1,21 +1,37 @@
 package com.db.dataplatform.techtest.server.component;
 
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
-//import org.springframework.retry.annotation.Retryable;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.web.client.HttpServerErrorException;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface Server {
-    boolean saveDataEnvelope(DataEnvelope envelope, final String clientChecksum) throws IOException, NoSuchAlgorithmException;
+    boolean saveDataEnvelope(DataEnvelope envelope, final String clientChecksum, final ChecksumAlgorithmEnum checksumAlgorithm) throws IOException, NoSuchAlgorithmException;
 
-    @Retryable(value = {HttpServerErrorException.GatewayTimeout.class},maxAttempts = 3)
-    void pushDataToHadoop(DataEnvelope envelope);
+    boolean saveDataEnvelope(DataHeader dataHeader, InputStream dataBody, final String clientChecksum, final ChecksumAlgorithmEnum checksumAlgorithm) throws IOException;
+
+    List<BulkIngestOutcomeEnum> saveDataEnvelopes(List<DataEnvelope> envelopes);
 
     List<DataEnvelope> getDataEnvelopByBlockType(String blockType);
 
+    DataEnvelopePage getDataEnvelopePage(String blockType, long afterId, int limit);
+
+    void forEachDataEnvelopByBlockType(String blockType, Consumer<DataEnvelope> consumer);
+
+    boolean writeDataBody(String name, Writer writer) throws IOException;
+
     boolean updateDataBlockType(String name, String newBlockType);
+
+    int updateDataBlockTypes(Collection<String> names, String newBlockType);
+
+    int updateDataBlockTypeByNamePrefix(String namePrefix, String newBlockType);
 }
@@ -0,0 +1,92 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AIMD limit on the number of Hadoop calls in flight. Every call that completes within the latency threshold
+ * while the limit is being used grows the limit by one; a timeout, a failure or a call slower than the
+ * threshold multiplies it by the backoff ratio. The limit therefore settles just below the point where the
+ * back end starts timing out instead of hammering it with a fixed concurrency.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= getLimit()) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized int available() {
+        return Math.max(0, getLimit() - inFlight);
+    }
+
+    /**
+     * Releases a permit for a call that the back end answered successfully after the given latency.
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        boolean saturated = inFlight * 2 >= getLimit();
+        inFlight--;
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (saturated) {
+            // Only grow while the current limit is actually being used, otherwise it drifts up unchecked.
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    /**
+     * Releases a permit for a call that timed out or failed.
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    /**
+     * Releases a permit for a call that was never made.
+     */
+    public synchronized void onCancelled() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        int previous = getLimit();
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if (getLimit() < previous) {
+            log.info("Hadoop concurrency limit reduced from {} to {}", previous, getLimit());
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.api.model.BulkIngestResult;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.BulkIngestor;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.configuration.BulkIngestProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk push: envelopes are read one at a time with Jackson's streaming parser, collected into chunks
+ * of {@code chunkSize}, and each chunk is persisted in one transaction before its results are written out.
+ * Memory use therefore depends on the chunk size, not on the size of the request.
+ * <p>
+ * An envelope that cannot be mapped or fails validation is reported as INVALID and skipped. Malformed JSON
+ * ends the stream with an ERROR result, since the parser cannot find the next envelope after it.
+ */
+@Slf4j
+@Service
+public class BulkIngestorImpl implements BulkIngestor {
+
+    private final Server server;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader envelopeReader;
+    private final ObjectWriter resultWriter;
+    private final int chunkSize;
+
+    public BulkIngestorImpl(Server server, Validator validator, ObjectMapper objectMapper, BulkIngestProperties properties) {
+        this.server = server;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.envelopeReader = objectMapper.readerFor(DataEnvelope.class);
+        // Flushed once per chunk rather than once per result.
+        this.resultWriter = objectMapper.writerFor(BulkIngestResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.chunkSize = properties.getChunkSize();
+    }
+
+    @Override
+    public int ingest(InputStream requestBody, OutputStream responseBody) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(responseBody);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        // A root-level array is unwrapped, anything else is read as a sequence of root-level values.
+        MappingIterator<DataEnvelope> envelopes = envelopeReader.readValues(requestBody);
+        Chunk chunk = new Chunk();
+        int index = 0;
+        while (true) {
+            DataEnvelope envelope;
+            try {
+                if (!envelopes.hasNextValue()) {
+                    break;
+                }
+                envelope = envelopes.nextValue();
+            } catch (JsonParseException e) {
+                log.warn("Malformed bulk push at envelope {}: {}", index, e.getOriginalMessage());
+                chunk.reject(index, null, BulkIngestOutcomeEnum.ERROR, "Malformed JSON: " + e.getOriginalMessage());
+                index++;
+                break;
+            } catch (JsonMappingException e) {
+                chunk.reject(index, null, BulkIngestOutcomeEnum.INVALID, e.getOriginalMessage());
+                index++;
+                continue;
+            }
+
+            String violations = validate(envelope);
+            if (violations == null) {
+                chunk.accept(index, envelope);
+            } else {
+                chunk.reject(index, envelope.getDataHeader() == null ? null : envelope.getDataHeader().getName(),
+                        BulkIngestOutcomeEnum.INVALID, violations);
+            }
+            index++;
+
+            if (chunk.size() >= chunkSize) {
+                writeResults(persist(chunk), generator);
+                chunk = new Chunk();
+            }
+        }
+        writeResults(persist(chunk), generator);
+        generator.close();
+
+        log.info("Bulk push of {} envelopes completed", index);
+        return index;
+    }
+
+    private String validate(DataEnvelope envelope) {
+        Set<ConstraintViolation<DataEnvelope>> violations = validator.validate(envelope);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private List<BulkIngestResult> persist(Chunk chunk) {
+        List<DataEnvelope> accepted = chunk.acceptedEnvelopes();
+        if (!accepted.isEmpty()) {
+            try {
+                chunk.complete(server.saveDataEnvelopes(accepted));
+            } catch (RuntimeException e) {
+                // Saved one by one so a single bad envelope does not fail the envelopes next to it.
+                log.warn("Bulk chunk of {} envelopes failed, saving them one by one", accepted.size(), e);
+                List<BulkIngestOutcomeEnum> outcomes = new ArrayList<>(accepted.size());
+                for (DataEnvelope envelope : accepted) {
+                    outcomes.add(persistAlone(envelope));
+                }
+                chunk.complete(outcomes);
+            }
+        }
+        return chunk.results;
+    }
+
+    private BulkIngestOutcomeEnum persistAlone(DataEnvelope envelope) {
+        try {
+            return server.saveDataEnvelopes(Collections.singletonList(envelope)).get(0);
+        } catch (RuntimeException e) {
+            log.error("Bulk push of {} failed", envelope.getDataHeader().getName(), e);
+            return BulkIngestOutcomeEnum.ERROR;
+        }
+    }
+
+    private void writeResults(List<BulkIngestResult> results, JsonGenerator generator) throws IOException {
+        for (BulkIngestResult result : results) {
+            resultWriter.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    /**
+     * Results of one chunk in request order. Accepted envelopes get their outcome once the chunk is persisted.
+     */
+    private static class Chunk {
+
+        private final List<BulkIngestResult> results = new ArrayList<>();
+        private final List<DataEnvelope> accepted = new ArrayList<>();
+        private final List<Integer> acceptedPositions = new ArrayList<>();
+
+        void accept(int index, DataEnvelope envelope) {
+            acceptedPositions.add(results.size());
+            accepted.add(envelope);
+            results.add(new BulkIngestResult(index, envelope.getDataHeader().getName(), null, null));
+        }
+
+        void reject(int index, String name, BulkIngestOutcomeEnum outcome, String message) {
+            results.add(new BulkIngestResult(index, name, outcome, message));
+        }
+
+        int size() {
+            return results.size();
+        }
+
+        List<DataEnvelope> acceptedEnvelopes() {
+            return accepted;
+        }
+
+        void complete(List<BulkIngestOutcomeEnum> outcomes) {
+            for (int i = 0; i < outcomes.size(); i++) {
+                BulkIngestResult pending = results.get(acceptedPositions.get(i));
+                results.set(acceptedPositions.get(i),
+                        new BulkIngestResult(pending.getIndex(), pending.getName(), outcomes.get(i), null));
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import net.jpountz.xxhash.StreamingXXHash64;
+import net.jpountz.xxhash.XXHashFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Computes checksums without per-call setup: every thread keeps its own digests, UTF-8 encoder and buffers, text
+ * is encoded a block at a time instead of into a byte array the size of the body, and the result is hex-encoded
+ * from a lookup table. Apart from the returned String nothing is allocated per checksum.
+ */
+@Component
+public class ChecksumCalculatorImpl implements ChecksumCalculator {
+
+    private static final int BUFFER_SIZE = 8192;
+    // A char encodes to at most 3 bytes, so a block of chars always fits the byte buffer.
+    private static final int CHAR_BLOCK_SIZE = BUFFER_SIZE / 4;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final Supplier<Checksum> CRC32C_FACTORY = crc32cFactory();
+
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+
+    @Override
+    public String checksum(CharSequence data, ChecksumAlgorithmEnum algorithm) {
+        ThreadState state = threadState.get();
+        Hasher hasher = state.hasher(algorithm);
+        state.encoder.reset();
+        // Copied into an array-backed buffer a block at a time: the encoder only takes its fast path for those.
+        CharBuffer chars = state.chars;
+        chars.clear();
+
+        int copied = 0;
+        boolean endOfInput;
+        do {
+            int length = Math.min(chars.remaining(), data.length() - copied);
+            copyChars(data, copied, length, chars);
+            copied += length;
+            endOfInput = copied == data.length();
+            chars.flip();
+            encode(chars, endOfInput, state, hasher);
+            // Keeps a high surrogate whose low surrogate is in the next block.
+            chars.compact();
+        } while (!endOfInput);
+        flush(state, hasher);
+
+        return hasher.finish();
+    }
+
+    @Override
+    public String checksum(char[] chars, int offset, int length, ChecksumAlgorithmEnum algorithm) {
+        ThreadState state = threadState.get();
+        Hasher hasher = state.hasher(algorithm);
+        state.encoder.reset();
+        encode(CharBuffer.wrap(chars, offset, length), true, state, hasher);
+        flush(state, hasher);
+        return hasher.finish();
+    }
+
+    @Override
+    public String checksum(InputStream in, ChecksumAlgorithmEnum algorithm) throws IOException {
+        ThreadState state = threadState.get();
+        Hasher hasher = state.hasher(algorithm);
+        byte[] buffer = state.buffer.array();
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                hasher.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            hasher.finish();
+            throw e;
+        }
+        return hasher.finish();
+    }
+
+    @Override
+    public Hasher newHasher(ChecksumAlgorithmEnum algorithm) {
+        return createHasher(algorithm);
+    }
+
+    private static void encode(CharBuffer chars, boolean endOfInput, ThreadState state, Hasher hasher) {
+        ByteBuffer buffer = state.buffer;
+        CoderResult result;
+        do {
+            buffer.clear();
+            result = state.encoder.encode(chars, buffer, endOfInput);
+            hasher.update(buffer.array(), 0, buffer.position());
+        } while (result.isOverflow());
+    }
+
+    private static void flush(ThreadState state, Hasher hasher) {
+        ByteBuffer buffer = state.buffer;
+        CoderResult result;
+        do {
+            buffer.clear();
+            result = state.encoder.flush(buffer);
+            hasher.update(buffer.array(), 0, buffer.position());
+        } while (result.isOverflow());
+    }
+
+    private static void copyChars(CharSequence data, int offset, int length, CharBuffer chars) {
+        if (data instanceof String) {
+            ((String) data).getChars(offset, offset + length, chars.array(), chars.position());
+            chars.position(chars.position() + length);
+        } else {
+            for (int i = offset; i < offset + length; i++) {
+                chars.put(data.charAt(i));
+            }
+        }
+    }
+
+    private static String toHex(byte[] bytes, int length) {
+        char[] hex = new char[length * 2];
+        for (int i = 0; i < length; i++) {
+            hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    private static String toHex(long value, int length) {
+        char[] hex = new char[length * 2];
+        for (int i = hex.length - 1; i >= 0; i--) {
+            hex[i] = HEX_DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+        return new String(hex);
+    }
+
+    /**
+     * The JDK has an intrinsified CRC32C from Java 9 on; on Java 8 the table-driven one below is used.
+     */
+    private static Supplier<Checksum> crc32cFactory() {
+        try {
+            Constructor<? extends Checksum> constructor =
+                    Class.forName("java.util.zip.CRC32C").asSubclass(Checksum.class).getConstructor();
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create CRC32C", e);
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            return Crc32c::new;
+        }
+    }
+
+    private static class ThreadState {
+
+        private final Hasher[] hashers = new Hasher[ChecksumAlgorithmEnum.values().length];
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(CHAR_BLOCK_SIZE);
+        // Replaces unpaired surrogates the way String.getBytes(UTF_8) does.
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        Hasher hasher(ChecksumAlgorithmEnum algorithm) {
+            Hasher hasher = hashers[algorithm.ordinal()];
+            if (hasher == null) {
+                hasher = createHasher(algorithm);
+                hashers[algorithm.ordinal()] = hasher;
+            }
+            return hasher;
+        }
+    }
+
+    private static Hasher createHasher(ChecksumAlgorithmEnum algorithm) {
+        switch (algorithm) {
+            case MD5:
+                return new DigestHasher("MD5");
+            case CRC32:
+                return new ChecksumHasher(new CRC32());
+            case CRC32C:
+                return new ChecksumHasher(CRC32C_FACTORY.get());
+            case XXHASH64:
+                return new XxHash64Hasher();
+            default:
+                throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm);
+        }
+    }
+
+    private static class DigestHasher implements Hasher {
+
+        private final MessageDigest digest;
+        private final byte[] result;
+
+        DigestHasher(String algorithm) {
+            try {
+                digest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Error creating " + algorithm + " digest", e);
+            }
+            result = new byte[digest.getDigestLength()];
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            digest.update(bytes, offset, length);
+        }
+
+        @Override
+        public String finish() {
+            try {
+                digest.digest(result, 0, result.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException("Error calculating checksum", e);
+            }
+            return toHex(result, result.length);
+        }
+    }
+
+    private static class ChecksumHasher implements Hasher {
+
+        private final Checksum checksum;
+
+        ChecksumHasher(Checksum checksum) {
+            this.checksum = checksum;
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            checksum.update(bytes, offset, length);
+        }
+
+        @Override
+        public String finish() {
+            long value = checksum.getValue();
+            checksum.reset();
+            return toHex(value, 4);
+        }
+    }
+
+    private static class XxHash64Hasher implements Hasher {
+
+        private final StreamingXXHash64 hash = XXHashFactory.fastestInstance().newStreamingHash64(0);
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            hash.update(bytes, offset, length);
+        }
+
+        @Override
+        public String finish() {
+            long value = hash.getValue();
+            hash.reset();
+            return toHex(value, 8);
+        }
+    }
+
+    /**
+     * CRC-32C (Castagnoli), as used by iSCSI, ext4 and HDFS. Eight bytes are folded in per step using eight
+     * lookup tables (slice-by-8), the tail a byte at a time.
+     */
+    private static class Crc32c implements Checksum {
+
+        private static final int[][] TABLES = new int[8][256];
+
+        static {
+            for (int i = 0; i < 256; i++) {
+                int crc = i;
+                for (int bit = 0; bit < 8; bit++) {
+                    crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0x82F63B78 : crc >>> 1;
+                }
+                TABLES[0][i] = crc;
+            }
+            for (int table = 1; table < TABLES.length; table++) {
+                for (int i = 0; i < 256; i++) {
+                    int previous = TABLES[table - 1][i];
+                    TABLES[table][i] = (previous >>> 8) ^ TABLES[0][previous & 0xff];
+                }
+            }
+        }
+
+        private int crc = 0xFFFFFFFF;
+
+        @Override
+        public void update(int b) {
+            crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xff];
+        }
+
+        @Override
+        public void update(byte[] bytes, int offset, int length) {
+            int[] t0 = TABLES[0], t1 = TABLES[1], t2 = TABLES[2], t3 = TABLES[3];
+            int[] t4 = TABLES[4], t5 = TABLES[5], t6 = TABLES[6], t7 = TABLES[7];
+            int value = crc;
+            int i = offset;
+            int end = offset + length;
+            for (; i + 8 <= end; i += 8) {
+                value ^= (bytes[i] & 0xff) | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff) << 16 | bytes[i + 3] << 24;
+                value = t7[value & 0xff] ^ t6[(value >>> 8) & 0xff] ^ t5[(value >>> 16) & 0xff] ^ t4[value >>> 24]
+                        ^ t3[bytes[i + 4] & 0xff] ^ t2[bytes[i + 5] & 0xff] ^ t1[bytes[i + 6] & 0xff] ^ t0[bytes[i + 7] & 0xff];
+            }
+            for (; i < end; i++) {
+                value = (value >>> 8) ^ t0[(value ^ bytes[i]) & 0xff];
+            }
+            crc = value;
+        }
+
+        @Override
+        public long getValue() {
+            return ~crc & 0xFFFFFFFFL;
+        }
+
+        @Override
+        public void reset() {
+            crc = 0xFFFFFFFF;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.DataBodyCodec;
+import com.db.dataplatform.techtest.server.configuration.DataBodyCodecProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed bodies are stored as the length of the UTF-8 encoded body in four bytes, big-endian, followed by
+ * an LZ4 block or a raw DEFLATE stream. Knowing the length up front lets both be decoded in one call into an
+ * array of the right size.
+ * <p>
+ * Time spent in each codec, bytes in and out and the compression ratio of every body are recorded per block
+ * type, so the codec of a block type can be chosen from production data.
+ */
+@Component
+public class DataBodyCodecImpl implements DataBodyCodec {
+
+    private static final int LENGTH_BYTES = 4;
+
+    private final DataBodyCodecProperties properties;
+    private final LZ4Compressor lz4Compressor;
+    private final LZ4FastDecompressor lz4Decompressor;
+    private final ThreadLocal<Deflater> deflater;
+    private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+    private final CodecMeters[][] meters;
+
+    public DataBodyCodecImpl(DataBodyCodecProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        LZ4Factory lz4Factory = LZ4Factory.fastestInstance();
+        this.lz4Compressor = lz4Factory.fastCompressor();
+        this.lz4Decompressor = lz4Factory.fastDecompressor();
+        this.deflater = ThreadLocal.withInitial(() -> new Deflater(properties.getDeflateLevel(), true));
+        this.meters = new CodecMeters[BlockTypeEnum.values().length][BodyCodecEnum.values().length];
+        for (BlockTypeEnum blockType : BlockTypeEnum.values()) {
+            for (BodyCodecEnum codec : BodyCodecEnum.values()) {
+                meters[blockType.ordinal()][codec.ordinal()] = new CodecMeters(meterRegistry,
+                        Tags.of("blockType", blockType.name(), "codec", codec.name()));
+            }
+        }
+    }
+
+    @Override
+    public void encode(DataBodyEntity dataBodyEntity) {
+        BlockTypeEnum blockType = dataBodyEntity.getDataHeaderEntity().getBlocktype();
+        BodyCodecEnum codec = properties.codecFor(blockType);
+        String dataBody = dataBodyEntity.getDataBody();
+        dataBodyEntity.setBodyCodec(BodyCodecEnum.NONE);
+        dataBodyEntity.setCompressedBody(null);
+        if (codec == BodyCodecEnum.NONE || dataBody == null || dataBody.length() < properties.getMinLength()) {
+            return;
+        }
+
+        CodecMeters codecMeters = meters[blockType.ordinal()][codec.ordinal()];
+        long start = System.nanoTime();
+        byte[] raw = dataBody.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = codec == BodyCodecEnum.LZ4 ? compressLz4(raw) : compressDeflate(raw);
+        codecMeters.encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        int storedLength = compressed == null ? raw.length : compressed.length;
+        codecMeters.rawBytes.increment(raw.length);
+        codecMeters.storedBytes.increment(storedLength);
+        codecMeters.ratio.record((double) raw.length / storedLength);
+        if (compressed != null) {
+            dataBodyEntity.setBodyCodec(codec);
+            dataBodyEntity.setCompressedBody(compressed);
+            dataBodyEntity.setDataBody(null);
+        }
+    }
+
+    @Override
+    public void decode(DataBodyEntity dataBodyEntity) {
+        if (dataBodyEntity.getBodyCodec() != BodyCodecEnum.NONE) {
+            dataBodyEntity.setDataBody(decode(dataBodyEntity.getDataHeaderEntity().getBlocktype(),
+                    dataBodyEntity.getBodyCodec(), dataBodyEntity.getCompressedBody()));
+        }
+    }
+
+    @Override
+    public void decode(DataEnvelopeProjection dataEnvelopeProjection) {
+        if (dataEnvelopeProjection.getBodyCodec() != BodyCodecEnum.NONE) {
+            dataEnvelopeProjection.setDataBody(decode(dataEnvelopeProjection.getBlockType(),
+                    dataEnvelopeProjection.getBodyCodec(), dataEnvelopeProjection.getCompressedBody()));
+        }
+    }
+
+    @Override
+    public String decode(BlockTypeEnum blockType, BodyCodecEnum codec, byte[] compressedBody) {
+        long start = System.nanoTime();
+        byte[] raw = new byte[(compressedBody[0] & 0xff) << 24 | (compressedBody[1] & 0xff) << 16
+                | (compressedBody[2] & 0xff) << 8 | (compressedBody[3] & 0xff)];
+        switch (codec) {
+            case LZ4:
+                lz4Decompressor.decompress(compressedBody, LENGTH_BYTES, raw, 0, raw.length);
+                break;
+            case DEFLATE:
+                inflate(compressedBody, raw);
+                break;
+            default:
+                throw new IllegalArgumentException("Not a compression codec: " + codec);
+        }
+        String dataBody = new String(raw, StandardCharsets.UTF_8);
+        meters[blockType.ordinal()][codec.ordinal()].decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return dataBody;
+    }
+
+    /**
+     * @return null when the body does not get smaller.
+     */
+    private byte[] compressLz4(byte[] raw) {
+        byte[] compressed = new byte[LENGTH_BYTES + lz4Compressor.maxCompressedLength(raw.length)];
+        int length = LENGTH_BYTES + lz4Compressor.compress(raw, 0, raw.length, compressed, LENGTH_BYTES);
+        return length < raw.length ? withLength(compressed, length, raw.length) : null;
+    }
+
+    /**
+     * @return null when the body does not get smaller.
+     */
+    private byte[] compressDeflate(byte[] raw) {
+        Deflater threadDeflater = deflater.get();
+        try {
+            threadDeflater.setInput(raw);
+            threadDeflater.finish();
+            // Anything that does not fit in fewer bytes than the body is of no use.
+            byte[] compressed = new byte[raw.length];
+            int length = LENGTH_BYTES;
+            while (!threadDeflater.finished() && length < compressed.length) {
+                length += threadDeflater.deflate(compressed, length, compressed.length - length);
+            }
+            return threadDeflater.finished() && length < raw.length ? withLength(compressed, length, raw.length) : null;
+        } finally {
+            threadDeflater.reset();
+        }
+    }
+
+    private void inflate(byte[] compressedBody, byte[] raw) {
+        Inflater threadInflater = inflater.get();
+        try {
+            threadInflater.setInput(compressedBody, LENGTH_BYTES, compressedBody.length - LENGTH_BYTES);
+            int length = 0;
+            while (length < raw.length) {
+                int inflated = threadInflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (threadInflater.finished() || threadInflater.needsInput())) {
+                    throw new IllegalStateException("Truncated DEFLATE body");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt DEFLATE body", e);
+        } finally {
+            threadInflater.reset();
+        }
+    }
+
+    private static byte[] withLength(byte[] compressed, int length, int rawLength) {
+        compressed[0] = (byte) (rawLength >>> 24);
+        compressed[1] = (byte) (rawLength >>> 16);
+        compressed[2] = (byte) (rawLength >>> 8);
+        compressed[3] = (byte) rawLength;
+        return Arrays.copyOf(compressed, length);
+    }
+
+    private static class CodecMeters {
+
+        private final Timer encodeTimer;
+        private final Timer decodeTimer;
+        private final Counter rawBytes;
+        private final Counter storedBytes;
+        private final DistributionSummary ratio;
+
+        CodecMeters(MeterRegistry meterRegistry, Tags tags) {
+            this.encodeTimer = Timer.builder("dataserver.codec.time")
+                    .description("Time taken to compress or decompress one data body")
+                    .tags(tags).tag("operation", "encode")
+                    .register(meterRegistry);
+            this.decodeTimer = Timer.builder("dataserver.codec.time")
+                    .description("Time taken to compress or decompress one data body")
+                    .tags(tags).tag("operation", "decode")
+                    .register(meterRegistry);
+            this.rawBytes = Counter.builder("dataserver.codec.bytes")
+                    .description("UTF-8 bytes of the data bodies given to the codec, and bytes stored for them")
+                    .tags(tags).tag("form", "raw")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            this.storedBytes = Counter.builder("dataserver.codec.bytes")
+                    .description("UTF-8 bytes of the data bodies given to the codec, and bytes stored for them")
+                    .tags(tags).tag("form", "stored")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            this.ratio = DistributionSummary.builder("dataserver.codec.ratio")
+                    .description("Raw size over stored size of each compressed data body")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.DataEnvelopeResponseCache;
+import com.db.dataplatform.techtest.server.component.DataEnvelopesChangedEvent;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.configuration.DataEnvelopeCacheProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of the serialized response per block type, so repeated polls are answered without going
+ * to the database or mapping entities again.
+ * <p>
+ * Entries are dropped once a transaction that changed their block type has committed. A load that is running
+ * at that moment is dropped without waiting for it, so a stale response is never kept; the committing thread
+ * still holds its connection, and waiting there for a load that needs one could exhaust the pool. Concurrent
+ * misses for the same block type wait for a single load, run by the first of them outside the cache's locks.
+ * Responses over {@code maxEntryBytes} are streamed instead; that decision is cached as well, until the next
+ * change or expiry.
+ */
+@Slf4j
+@Component
+public class DataEnvelopeResponseCacheImpl implements DataEnvelopeResponseCache {
+
+    private static final CachedResponse TOO_LARGE = new CachedResponse(null, 0);
+
+    private final Server server;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter envelopeWriter;
+    private final DataEnvelopeCacheProperties properties;
+    private final AsyncCache<BlockTypeEnum, CachedResponse> responses;
+    private final Counter invalidationCounter;
+
+    public DataEnvelopeResponseCacheImpl(Server server, ObjectMapper objectMapper,
+                                         DataEnvelopeCacheProperties properties, MeterRegistry meterRegistry) {
+        this.server = server;
+        this.objectMapper = objectMapper;
+        this.envelopeWriter = objectMapper.writerFor(DataEnvelope.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeightBytes())
+                .weigher((BlockTypeEnum blockType, CachedResponse response) -> response.weight())
+                .expireAfterWrite(properties.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "dataEnvelopeResponses");
+        this.invalidationCounter = Counter.builder("dataserver.cache.invalidations")
+                .description("Cached block-type responses dropped because a write changed them")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int writeDataEnvelopes(String blockType, OutputStream responseBody) throws IOException {
+        BlockTypeEnum blockTypeEnum = BlockTypeEnum.valueOf(blockType);
+        if (properties.isEnabled()) {
+            CompletableFuture<CachedResponse> loading = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> pending = responses.get(blockTypeEnum, (key, executor) -> loading);
+            if (pending == loading) {
+                try {
+                    loading.complete(load(blockTypeEnum));
+                } catch (RuntimeException e) {
+                    loading.completeExceptionally(e);
+                }
+            }
+            CachedResponse cached;
+            try {
+                cached = pending.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            if (cached.body != null) {
+                responseBody.write(cached.body);
+                return cached.count;
+            }
+        }
+        return stream(blockTypeEnum, responseBody);
+    }
+
+    /**
+     * Runs after commit, or straight away when the change was made outside a transaction.
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataEnvelopesChanged(DataEnvelopesChangedEvent event) {
+        for (BlockTypeEnum blockType : event.getBlockTypes()) {
+            responses.synchronous().invalidate(blockType);
+            invalidationCounter.increment();
+        }
+    }
+
+    private CachedResponse load(BlockTypeEnum blockType) {
+        BoundedOutputStream buffer = new BoundedOutputStream(properties.getMaxEntryBytes());
+        try {
+            int count = stream(blockType, buffer);
+            return new CachedResponse(buffer.toByteArray(), count);
+        } catch (EntryTooLargeException e) {
+            log.info("Response for {} is over {} bytes, streaming it instead of caching", blockType,
+                    properties.getMaxEntryBytes());
+            return TOO_LARGE;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int stream(BlockTypeEnum blockType, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        int[] written = {0};
+        try {
+            generator.writeStartArray();
+            server.forEachDataEnvelopByBlockType(blockType.name(), dataEnvelope -> {
+                try {
+                    envelopeWriter.writeValue(generator, dataEnvelope);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndArray();
+            generator.close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return written[0];
+    }
+
+    private static class CachedResponse {
+
+        private final byte[] body;
+        private final int count;
+
+        CachedResponse(byte[] body, int count) {
+            this.body = body;
+            this.count = count;
+        }
+
+        int weight() {
+            return body == null ? 0 : body.length;
+        }
+    }
+
+    private static class EntryTooLargeException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Gives up as soon as the response outgrows a cache entry, which also stops reading from the database.
+     */
+    private static class BoundedOutputStream extends ByteArrayOutputStream {
+
+        private final int limit;
+
+        BoundedOutputStream(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int len) {
+            if (count + len > limit) {
+                throw new UncheckedIOException(new EntryTooLargeException());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.DataHeaderNameFilter;
+import com.db.dataplatform.techtest.server.configuration.IngestProperties;
+import com.db.dataplatform.techtest.server.service.DataHeaderService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A Bloom filter over the stored names, filled from the data store on start up and kept up to date by the pushes.
+ * Sized for {@code nameFilterExpectedNames} at {@code nameFilterFalsePositiveRate}; the rate it currently expects
+ * is published as {@code dataserver.ingest.name.filter.fpp}.
+ * <p>
+ * Bits are set with compare-and-set, so adds and lookups need no lock. The bit positions come from two 64-bit
+ * hashes of the name's chars (Kirsch-Mitzenmacher), so nothing is allocated per name.
+ */
+@Slf4j
+@Component
+public class DataHeaderNameFilterImpl implements DataHeaderNameFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder names = new LongAdder();
+
+    public DataHeaderNameFilterImpl(IngestProperties properties, DataHeaderService dataHeaderService, MeterRegistry meterRegistry) {
+        double expectedNames = Math.max(1, properties.getNameFilterExpectedNames());
+        double falsePositiveRate = properties.getNameFilterFalsePositiveRate();
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("dataserver.ingest.name-filter-false-positive-rate must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedNames * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / expectedNames * Math.log(2)));
+
+        long start = System.nanoTime();
+        dataHeaderService.forEachName(this::add);
+        log.info("Name filter of {} KiB with {} hashes filled with {} names in {} ms", words / 128, hashCount,
+                names.sum(), (System.nanoTime() - start) / 1000000);
+
+        Gauge.builder("dataserver.ingest.name.filter.fpp", this, DataHeaderNameFilterImpl::expectedFalsePositiveRate)
+                .description("False positive rate expected for the names added so far")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightContain(String name) {
+        long hash = hash(name);
+        long step = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(String name) {
+        long hash = hash(name);
+        long step = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash + i * step, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    added = true;
+                    break;
+                }
+            }
+        }
+        if (added) {
+            names.increment();
+        }
+    }
+
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * names.doubleValue() / bitCount), hashCount);
+    }
+
+    /**
+     * FNV-1a over the chars, finished with the MurmurHash3 mixer so every bit of the result depends on every char.
+     */
+    private static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,129 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker around the Hadoop sink. It opens when the failure rate over the last
+ * {@code windowSize} calls reaches the threshold, rejects calls while open, and after the open duration
+ * lets a single trial call through: its outcome closes the circuit again or re-opens it.
+ */
+@Slf4j
+public class HadoopCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public HadoopCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos,
+                                LongSupplier nanoClock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Circuit breaker window must satisfy 1 <= minimumCalls <= windowSize");
+        }
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return true when a call may be made now. In the half-open state only one trial call is permitted.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns a permission that was acquired but not used for a call.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        record(true);
+    }
+
+    public synchronized void onFailure() {
+        record(false);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean success) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            transitionTo(success ? State.CLOSED : State.OPEN);
+            return;
+        }
+        if (state == State.OPEN) {
+            // Answer to a call made before the circuit opened.
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            if (!outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = success;
+        if (!success) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State newState) {
+        log.info("Hadoop circuit breaker {} -> {}", state, newState);
+        state = newState;
+        if (newState == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+        }
+        if (newState != State.HALF_OPEN) {
+            recorded = 0;
+            next = 0;
+            failures = 0;
+        }
+    }
+}
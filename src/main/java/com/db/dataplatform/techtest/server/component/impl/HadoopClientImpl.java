@@ -0,0 +1,100 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.HadoopClient;
+import com.db.dataplatform.techtest.server.exception.HadoopClientException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HadoopClientImpl implements HadoopClient {
+
+    public static final String HADOOP_POST_URI = "http://localhost:8090/hadoopserver/pushbigdata";
+    public static final String HADOOP_BATCH_POST_URI = "http://localhost:8090/hadoopserver/pushbigdata/batch";
+
+    private final CloseableHttpAsyncClient hadoopHttpAsyncClient;
+
+    @Override
+    public CompletableFuture<Void> pushData(final String payload) {
+        return post(HADOOP_POST_URI, new StringEntity(payload, ContentType.APPLICATION_JSON));
+    }
+
+    /**
+     * Payloads are already serialised envelopes, so the array is assembled without re-parsing them. It is sent
+     * chunked and encoded one payload at a time while the client writes it, rather than joined and encoded up
+     * front, which would copy the whole batch twice.
+     */
+    @Override
+    public CompletableFuture<Void> pushBatch(final List<String> payloads) {
+        return post(HADOOP_BATCH_POST_URI, new InputStreamEntity(jsonArray(payloads), -1, ContentType.APPLICATION_JSON));
+    }
+
+    private static InputStream jsonArray(List<String> payloads) {
+        // Parts are "[", then payloads at odd and commas at even positions, then "]".
+        int last = Math.max(1, 2 * payloads.size());
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+            private int part;
+
+            @Override
+            public boolean hasMoreElements() {
+                return part <= last;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int current = part++;
+                String text = current == 0 ? "[" : current == last ? "]" : current % 2 == 0 ? "," : payloads.get(current / 2);
+                return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+    private CompletableFuture<Void> post(String uri, HttpEntity body) {
+        HttpPost request = new HttpPost(uri);
+        request.setEntity(body);
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        hadoopHttpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                int status = response.getStatusLine().getStatusCode();
+                EntityUtils.consumeQuietly(response.getEntity());
+                if (status >= 200 && status < 300) {
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(new HadoopClientException("Hadoop returned " + status + " for " + uri, status));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+}
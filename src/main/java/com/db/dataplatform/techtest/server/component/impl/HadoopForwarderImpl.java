@@ -0,0 +1,306 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.HadoopClient;
+import com.db.dataplatform.techtest.server.component.HadoopForwarder;
+import com.db.dataplatform.techtest.server.component.HadoopRetryPolicy;
+import com.db.dataplatform.techtest.server.configuration.HadoopCircuitBreakerProperties;
+import com.db.dataplatform.techtest.server.configuration.HadoopForwardingProperties;
+import com.db.dataplatform.techtest.server.configuration.HadoopOutboxProperties;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the HADOOP_OUTBOX table to Hadoop so that ingest requests do not wait on the Hadoop back end.
+ * Rows are deleted once Hadoop accepted them, so an envelope survives restarts until it is delivered.
+ * <p>
+ * Claimed rows are grouped into batches of at most {@code batchMaxSize} envelopes and {@code batchMaxChars}
+ * payload characters. A partial batch is sent once its oldest envelope has waited {@code batchMaxLingerMillis},
+ * checked on every outbox poll. Claims are sized by the same character limit per free call slot, so the
+ * payloads held in memory stay bounded however large the bodies are.
+ * Batches are sent with the non-blocking {@link HadoopClient}; how many are in flight at once is decided
+ * by an {@link AdaptiveConcurrencyLimiter}, and rows are only claimed while the limiter has room. A batch that
+ * cannot be sent when it is due, because the limiter shrank or the circuit opened meanwhile, is released back
+ * to the outbox rather than held, since its claim could expire and hand the rows to another poller.
+ * <p>
+ * While the {@link HadoopCircuitBreaker} is open nothing is claimed, so deliveries are deferred in the
+ * outbox rather than sent to a back end that is failing; failed rows are rescheduled by the
+ * {@link HadoopRetryPolicy}.
+ */
+@Slf4j
+@Service
+public class HadoopForwarderImpl implements HadoopForwarder {
+
+    private final HadoopClient hadoopClient;
+    private final HadoopOutboxService hadoopOutboxService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final HadoopCircuitBreaker circuitBreaker;
+    private final HadoopRetryPolicy retryPolicy;
+    private final ExecutorService completionExecutor;
+    private final int claimBatchSize;
+    private final int batchMaxSize;
+    private final long batchMaxChars;
+    private final long batchMaxLingerNanos;
+    private final long shutdownTimeoutMillis;
+    private final long pendingSampleNanos;
+
+    private final List<HadoopOutboxEntity> pendingBatch = new ArrayList<>();
+    private long pendingBatchStartNanos;
+    private long pendingBatchChars;
+
+    // Written by the poll only.
+    private volatile long outboxPending;
+    private long outboxPendingSampledNanos;
+
+    private final Counter forwardedCounter;
+    private final Counter failedCounter;
+    private final Timer pushTimer;
+    private final DistributionSummary batchSizeSummary;
+
+    public HadoopForwarderImpl(HadoopClient hadoopClient, HadoopOutboxService hadoopOutboxService,
+                               HadoopRetryPolicy retryPolicy, HadoopForwardingProperties properties,
+                               HadoopOutboxProperties outboxProperties, HadoopCircuitBreakerProperties circuitBreakerProperties,
+                               MeterRegistry meterRegistry) {
+        this.hadoopClient = hadoopClient;
+        this.hadoopOutboxService = hadoopOutboxService;
+        this.retryPolicy = retryPolicy;
+        this.claimBatchSize = outboxProperties.getBatchSize();
+        this.batchMaxSize = properties.getBatchMaxSize();
+        this.batchMaxChars = properties.getBatchMaxChars();
+        this.batchMaxLingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getBatchMaxLingerMillis());
+        this.shutdownTimeoutMillis = properties.getShutdownTimeoutMillis();
+        this.pendingSampleNanos = TimeUnit.MILLISECONDS.toNanos(outboxProperties.getPendingSampleMillis());
+        this.outboxPendingSampledNanos = System.nanoTime() - pendingSampleNanos;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties.getConcurrencyInitialLimit(),
+                properties.getConcurrencyMinLimit(), properties.getConcurrencyMaxLimit(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getConcurrencyLatencyThresholdMillis()),
+                properties.getConcurrencyBackoffRatio());
+        this.circuitBreaker = new HadoopCircuitBreaker(circuitBreakerProperties.getWindowSize(),
+                circuitBreakerProperties.getMinimumCalls(), circuitBreakerProperties.getFailureRateThreshold(),
+                TimeUnit.MILLISECONDS.toNanos(circuitBreakerProperties.getOpenDurationMillis()), System::nanoTime);
+        // Only records outcomes in the outbox; the Hadoop calls themselves do not hold a thread.
+        this.completionExecutor = Executors.newFixedThreadPool(properties.getWorkerThreads(),
+                new CustomizableThreadFactory("hadoop-forwarder-"));
+
+        Gauge.builder("hadoop.forwarding.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Hadoop calls waiting for an answer")
+                .register(meterRegistry);
+        Gauge.builder("hadoop.forwarding.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on Hadoop calls in flight")
+                .register(meterRegistry);
+        Gauge.builder("hadoop.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Hadoop circuit breaker state: 0 closed, 1 open, 2 half open")
+                .register(meterRegistry);
+        // A scrape reads the count of the last poll that sampled it rather than counting the table itself.
+        Gauge.builder("hadoop.outbox.pending", this, forwarder -> forwarder.outboxPending)
+                .description("Outbox rows waiting to be claimed")
+                .register(meterRegistry);
+        this.forwardedCounter = Counter.builder("hadoop.forwarding.envelopes")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("hadoop.forwarding.envelopes")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        this.pushTimer = Timer.builder("hadoop.forwarding.push")
+                .description("Time taken by one successful Hadoop call")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("hadoop.forwarding.batch.size")
+                .description("Envelopes sent per Hadoop call")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${hadoop.outbox.poll-interval-millis:100}")
+    public void pollOutbox() {
+        try {
+            int released = hadoopOutboxService.releaseExpiredClaims();
+            if (released > 0) {
+                log.warn("Released {} expired outbox claims", released);
+            }
+            drainOutbox();
+            samplePending();
+        } catch (RuntimeException e) {
+            log.error("Polling the Hadoop outbox failed", e);
+        }
+    }
+
+    @Override
+    public synchronized int drainOutbox() {
+        if (circuitBreaker.getState() != HadoopCircuitBreaker.State.CLOSED) {
+            return dispatchTrialBatch();
+        }
+        int dispatched = 0;
+        int room;
+        // Keep claiming while claims come back full so a backlog is caught up without waiting for the next poll.
+        while (circuitBreaker.getState() == HadoopCircuitBreaker.State.CLOSED
+                && (room = concurrencyLimiter.available() * batchMaxSize - pendingBatch.size()) > 0) {
+            int requested = Math.min(room, claimBatchSize);
+            long charRoom = concurrencyLimiter.available() * batchMaxChars - pendingBatchChars;
+            List<HadoopOutboxEntity> claimed = hadoopOutboxService.claimBatch(requested, Math.max(1, charRoom));
+            for (HadoopOutboxEntity entry : claimed) {
+                int chars = entry.getPayload().length();
+                if (!pendingBatch.isEmpty() && pendingBatchChars + chars > batchMaxChars) {
+                    dispatchPendingBatch();
+                }
+                if (pendingBatch.isEmpty()) {
+                    pendingBatchStartNanos = System.nanoTime();
+                }
+                pendingBatch.add(entry);
+                pendingBatchChars += chars;
+                if (pendingBatch.size() >= batchMaxSize || pendingBatchChars >= batchMaxChars) {
+                    dispatchPendingBatch();
+                }
+            }
+            dispatched += claimed.size();
+            if (claimed.size() < requested) {
+                break;
+            }
+        }
+        if (!pendingBatch.isEmpty() && System.nanoTime() - pendingBatchStartNanos >= batchMaxLingerNanos) {
+            dispatchPendingBatch();
+        }
+        return dispatched;
+    }
+
+    @Override
+    public int getInFlight() {
+        return concurrencyLimiter.getInFlight();
+    }
+
+    /**
+     * While the circuit is not closed only the single trial call the breaker permits is made, using the
+     * batch left over from before it opened or else one newly claimed envelope.
+     */
+    private int dispatchTrialBatch() {
+        if (!concurrencyLimiter.tryAcquire()) {
+            releasePendingBatch();
+            return 0;
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            concurrencyLimiter.onCancelled();
+            releasePendingBatch();
+            return 0;
+        }
+        int claimed = 0;
+        if (pendingBatch.isEmpty()) {
+            List<HadoopOutboxEntity> trial = hadoopOutboxService.claimBatch(1, batchMaxChars);
+            if (trial.isEmpty()) {
+                circuitBreaker.releasePermission();
+                concurrencyLimiter.onCancelled();
+                return 0;
+            }
+            pendingBatch.addAll(trial);
+            claimed = trial.size();
+        }
+        sendPendingBatch();
+        return claimed;
+    }
+
+    private void samplePending() {
+        long now = System.nanoTime();
+        if (now - outboxPendingSampledNanos >= pendingSampleNanos) {
+            outboxPendingSampledNanos = now;
+            outboxPending = hadoopOutboxService.countPending();
+        }
+    }
+
+    private void dispatchPendingBatch() {
+        if (!concurrencyLimiter.tryAcquire()) {
+            releasePendingBatch();
+            return;
+        }
+        sendPendingBatch();
+    }
+
+    private void releasePendingBatch() {
+        if (pendingBatch.isEmpty()) {
+            return;
+        }
+        List<HadoopOutboxEntity> batch = new ArrayList<>(pendingBatch);
+        pendingBatch.clear();
+        pendingBatchChars = 0;
+        try {
+            hadoopOutboxService.releaseClaims(batch);
+        } catch (RuntimeException e) {
+            // The rows stay claimed and are released once the claim timeout passes.
+            log.error("Releasing {} unsent outbox rows failed, first : {}", batch.size(), batch.get(0).getDataHeaderName(), e);
+        }
+    }
+
+    private void sendPendingBatch() {
+        List<HadoopOutboxEntity> batch = new ArrayList<>(pendingBatch);
+        pendingBatch.clear();
+        pendingBatchChars = 0;
+        retryPolicy.recordFirstAttempts((int) batch.stream().filter(entry -> entry.getAttempts() == 0).count());
+
+        long startNanos = System.nanoTime();
+        send(batch).whenCompleteAsync((ignored, failure) -> complete(batch, System.nanoTime() - startNanos, failure),
+                completionExecutor);
+    }
+
+    private CompletableFuture<Void> send(List<HadoopOutboxEntity> batch) {
+        try {
+            if (batch.size() == 1) {
+                return hadoopClient.pushData(batch.get(0).getPayload());
+            }
+            return hadoopClient.pushBatch(batch.stream().map(HadoopOutboxEntity::getPayload).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private void complete(List<HadoopOutboxEntity> batch, long latencyNanos, Throwable failure) {
+        try {
+            if (failure == null) {
+                concurrencyLimiter.onSuccess(latencyNanos);
+                circuitBreaker.onSuccess();
+                pushTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+                forwardedCounter.increment(batch.size());
+                batchSizeSummary.record(batch.size());
+                hadoopOutboxService.markDelivered(batch);
+            } else {
+                concurrencyLimiter.onDropped();
+                circuitBreaker.onFailure();
+                failedCounter.increment(batch.size());
+                log.error("Pushing {} envelopes to Hadoop unsuccessful, first : {}", batch.size(), batch.get(0).getDataHeaderName(), failure);
+                hadoopOutboxService.markFailed(batch);
+            }
+        } catch (RuntimeException e) {
+            // The rows stay claimed and are retried once the claim timeout passes.
+            log.error("Recording the Hadoop delivery outcome failed, first : {}", batch.get(0).getDataHeaderName(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        while (concurrencyLimiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        completionExecutor.shutdown();
+        if (!completionExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                || concurrencyLimiter.getInFlight() > 0) {
+            // Rows of unfinished calls stay claimed and are released again once the claim timeout passes.
+            log.warn("Hadoop forwarder stopped with {} calls still in flight", concurrencyLimiter.getInFlight());
+            completionExecutor.shutdownNow();
+        }
+    }
+}
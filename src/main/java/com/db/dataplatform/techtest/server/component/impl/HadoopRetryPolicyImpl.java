@@ -0,0 +1,84 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.HadoopRetryPolicy;
+import com.db.dataplatform.techtest.server.configuration.HadoopRetryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exponential backoff with jitter for failed Hadoop deliveries, capped by a retry budget.
+ * <p>
+ * The budget earns {@code budgetRatio} retries for every envelope sent for the first time plus
+ * {@code budgetMinPerSecond} over time. A retry that finds the budget empty is deferred by the maximum
+ * delay instead, so retries can never multiply the load on a back end that is already failing.
+ */
+@Component
+public class HadoopRetryPolicyImpl implements HadoopRetryPolicy {
+
+    private final HadoopRetryProperties properties;
+
+    private double budget;
+    private long lastRefillNanos = System.nanoTime();
+
+    private final Counter scheduledCounter;
+    private final Counter deferredCounter;
+    private final Counter exhaustedCounter;
+
+    public HadoopRetryPolicyImpl(HadoopRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.budget = properties.getBudgetCapacity();
+        this.scheduledCounter = Counter.builder("hadoop.forwarding.retries")
+                .tag("outcome", "scheduled")
+                .register(meterRegistry);
+        this.deferredCounter = Counter.builder("hadoop.forwarding.retries")
+                .tag("outcome", "deferred")
+                .description("Retries pushed back because the retry budget was empty")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("hadoop.forwarding.retries")
+                .tag("outcome", "exhausted")
+                .description("Envelopes parked after using all attempts")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void recordFirstAttempts(int envelopes) {
+        refill();
+        budget = Math.min(properties.getBudgetCapacity(), budget + envelopes * properties.getBudgetRatio());
+    }
+
+    @Override
+    public synchronized Instant nextAttempt(int failedAttempts, Instant now) {
+        if (properties.getMaxAttempts() > 0 && failedAttempts >= properties.getMaxAttempts()) {
+            exhaustedCounter.increment();
+            return null;
+        }
+
+        refill();
+        if (budget < 1) {
+            deferredCounter.increment();
+            return now.plusMillis(properties.getMaxDelayMillis());
+        }
+        budget--;
+        scheduledCounter.increment();
+        return now.plusMillis(backoffMillis(failedAttempts));
+    }
+
+    public long backoffMillis(int failedAttempts) {
+        double delay = properties.getInitialDelayMillis() * Math.pow(properties.getMultiplier(), Math.max(0, failedAttempts - 1));
+        delay = Math.min(delay, properties.getMaxDelayMillis());
+        double randomised = delay * properties.getJitter() * ThreadLocalRandom.current().nextDouble();
+        return (long) (delay - randomised);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (double) (now - lastRefillNanos) / TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        budget = Math.min(properties.getBudgetCapacity(), budget + seconds * properties.getBudgetMinPerSecond());
+    }
+}
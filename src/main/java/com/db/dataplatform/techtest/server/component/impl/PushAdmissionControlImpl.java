@@ -0,0 +1,110 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.api.model.AdmissionRejection;
+import com.db.dataplatform.techtest.server.component.PushAdmissionControl;
+import com.db.dataplatform.techtest.server.component.RequestExecutor;
+import com.db.dataplatform.techtest.server.configuration.AdmissionControlProperties;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overload is checked first, so a push turned away with 503 does not use up its client's tokens. Every check
+ * reads a value that is already at hand: the request executor's in-flight count, the Hikari pool's waiting
+ * threads, and the outbox backlog, which is counted on a schedule rather than per push since counting it needs
+ * a connection itself.
+ * <p>
+ * Buckets are dropped once idle for as long as a full refill takes, which loses nothing, or when more than
+ * {@code maxClients} are kept. Rejections are counted in {@code dataserver.admission.rejected} by reason.
+ */
+@Slf4j
+@Component
+public class PushAdmissionControlImpl implements PushAdmissionControl {
+
+    private final AdmissionControlProperties properties;
+    private final RequestExecutor requestExecutor;
+    private final HadoopOutboxService hadoopOutboxService;
+    private final HikariDataSource hikariDataSource;
+    private final Cache<String, TokenBucket> buckets;
+    private final Map<AdmissionRejection.Reason, Counter> rejectionCounters = new EnumMap<>(AdmissionRejection.Reason.class);
+
+    private volatile long outboxPending;
+
+    public PushAdmissionControlImpl(AdmissionControlProperties properties, RequestExecutor requestExecutor,
+                                    HadoopOutboxService hadoopOutboxService, DataSource dataSource,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.requestExecutor = requestExecutor;
+        this.hadoopOutboxService = hadoopOutboxService;
+        this.hikariDataSource = dataSource instanceof HikariDataSource ? (HikariDataSource) dataSource : null;
+        long refillNanos = (long) Math.ceil(properties.getBurst() / properties.getRatePerSecond() * TimeUnit.SECONDS.toNanos(1));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(refillNanos, TimeUnit.NANOSECONDS)
+                .build();
+        for (AdmissionRejection.Reason reason : AdmissionRejection.Reason.values()) {
+            rejectionCounters.put(reason, Counter.builder("dataserver.admission.rejected")
+                    .description("Pushes turned away before they were handled")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public AdmissionRejection admit(String clientId) {
+        AdmissionRejection.Reason overload = overload();
+        if (overload != null) {
+            return reject(overload, properties.getOverloadRetryAfterSeconds());
+        }
+
+        long waitNanos = buckets.get(clientId,
+                id -> new TokenBucket(properties.getRatePerSecond(), properties.getBurst(), System::nanoTime))
+                .tryAcquire();
+        if (waitNanos > 0) {
+            return reject(AdmissionRejection.Reason.RATE_LIMITED,
+                    Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${dataserver.admission.outbox-sample-millis:1000}")
+    public void sampleOutbox() {
+        try {
+            outboxPending = hadoopOutboxService.countPending();
+        } catch (RuntimeException e) {
+            // The last count is kept, a database too busy to count is caught by the pool check.
+            log.warn("Counting the Hadoop outbox backlog failed: {}", e.getMessage());
+        }
+    }
+
+    private AdmissionRejection.Reason overload() {
+        if (requestExecutor.getInFlight() >= properties.getMaxInFlightRequests()) {
+            return AdmissionRejection.Reason.REQUEST_BACKLOG;
+        }
+        HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+        if (pool != null && pool.getThreadsAwaitingConnection() >= properties.getMaxThreadsAwaitingConnection()) {
+            return AdmissionRejection.Reason.DB_POOL_SATURATED;
+        }
+        if (outboxPending >= properties.getMaxOutboxPending()) {
+            return AdmissionRejection.Reason.OUTBOX_BACKLOG;
+        }
+        return null;
+    }
+
+    private AdmissionRejection reject(AdmissionRejection.Reason reason, long retryAfterSeconds) {
+        rejectionCounters.get(reason).increment();
+        return new AdmissionRejection(reason, retryAfterSeconds);
+    }
+}
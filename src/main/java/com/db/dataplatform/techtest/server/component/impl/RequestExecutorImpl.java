@@ -0,0 +1,179 @@
+package com.db.dataplatform.techtest.server.component.impl;
+
+import com.db.dataplatform.techtest.server.component.RequestExecutor;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionModeEnum;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request blocked on the data store holds a thread of this executor rather than a Tomcat worker. The platform
+ * pool queues at most {@code queueCapacity} requests; past that a request is rejected and answered with 503.
+ * A request not done after {@code timeoutMillis} is completed with {@link AsyncRequestTimeoutException}, which is
+ * also answered with 503. A task still queued then is dropped; a running task is left to finish, since an interrupt
+ * in the middle of a JDBC or Hibernate call can leave the connection or session unusable.
+ * <p>
+ * Virtual threads are looked up by reflection, so the server still builds for and runs on Java 8, where
+ * {@code VIRTUAL} falls back to the platform pool. The requests in progress are published as
+ * {@code dataserver.request.inflight}.
+ */
+@Slf4j
+@Component
+public class RequestExecutorImpl implements RequestExecutor {
+
+    @Getter
+    private final RequestExecutionModeEnum mode;
+    private final ExecutorService executor;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final long timeoutMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public RequestExecutorImpl(RequestExecutionProperties properties, MeterRegistry meterRegistry) {
+        ExecutorService virtualThreadExecutor = properties.getMode() == RequestExecutionModeEnum.VIRTUAL
+                ? newVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            this.mode = RequestExecutionModeEnum.VIRTUAL;
+            this.executor = virtualThreadExecutor;
+        } else if (properties.getMode() == RequestExecutionModeEnum.DIRECT) {
+            this.mode = RequestExecutionModeEnum.DIRECT;
+            this.executor = null;
+        } else {
+            this.mode = RequestExecutionModeEnum.PLATFORM;
+            this.executor = new ThreadPoolExecutor(properties.getPlatformThreads(), properties.getPlatformThreads(),
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                    new CustomizableThreadFactory("request-"), new ThreadPoolExecutor.AbortPolicy());
+        }
+        log.info("Requests run in {} mode, {} requested", mode, properties.getMode());
+
+        this.timeoutMillis = properties.getTimeoutMillis();
+        if (executor != null) {
+            CustomizableThreadFactory timeoutThreadFactory = new CustomizableThreadFactory("request-timeout-");
+            timeoutThreadFactory.setDaemon(true);
+            this.timeouts = new ScheduledThreadPoolExecutor(1, timeoutThreadFactory);
+            this.timeouts.setRemoveOnCancelPolicy(true);
+        } else {
+            this.timeouts = null;
+        }
+
+        Gauge.builder("dataserver.request.inflight", inFlight, AtomicInteger::get)
+                .description("Requests queued or running on the request executor")
+                .tag("mode", mode.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        try {
+            return start(task);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * A rejected task is thrown back to the caller, so the streamed response it was to write fails at once.
+     */
+    @Override
+    public void execute(Runnable task) {
+        start(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            timeouts.shutdownNow();
+        }
+    }
+
+    /**
+     * A task is counted in flight from its submission until it finishes, or until it times out if it never
+     * started.
+     */
+    private <T> CompletableFuture<T> start(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicBoolean started = new AtomicBoolean();
+        Runnable run = () -> {
+            if (!started.compareAndSet(false, true)) {
+                // Timed out while queued.
+                return;
+            }
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+        inFlight.incrementAndGet();
+        if (executor == null) {
+            run.run();
+            return future;
+        }
+
+        Future<?> execution;
+        try {
+            execution = executor.submit(run);
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        ScheduledFuture<?> timeout = timeouts.schedule(() -> {
+            if (!future.completeExceptionally(new AsyncRequestTimeoutException())) {
+                return;
+            }
+            if (started.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                execution.cancel(false);
+                if (executor instanceof ThreadPoolExecutor) {
+                    ((ThreadPoolExecutor) executor).remove((Runnable) execution);
+                }
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, e) -> timeout.cancel(false));
+        return future;
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, or null on a JDK without it or with it disabled.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.info("Virtual threads are not available on Java {}", System.getProperty("java.version"));
+            return null;
+        }
+    }
+}
@@ -1,26 +1,49 @@
 package com.db.dataplatform.techtest.server.component.impl;
 
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
 import com.db.dataplatform.techtest.server.api.model.DataBody;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
 import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import com.db.dataplatform.techtest.server.component.ChecksumInputStream;
+import com.db.dataplatform.techtest.server.component.DataHeaderNameFilter;
+import com.db.dataplatform.techtest.server.component.DataEnvelopesChangedEvent;
+import com.db.dataplatform.techtest.server.component.IngestMetrics;
 import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.configuration.ConflictPolicyEnum;
+import com.db.dataplatform.techtest.server.configuration.IngestProperties;
+import com.db.dataplatform.techtest.server.exception.DataEnvelopeConflictException;
+import com.db.dataplatform.techtest.server.mapper.DataEnvelopeMapper;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
-import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
 import com.db.dataplatform.techtest.server.service.DataBodyService;
+import com.db.dataplatform.techtest.server.service.DataHeaderService;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,106 +51,345 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ServerImpl implements Server {
 
-    private static final String HADOOP_POST_URI =   "http://localhost:8090/hadoopserver/pushbigdata";
     private final DataBodyService dataBodyServiceImpl;
-    private final ModelMapper modelMapper;
+    private final DataHeaderService dataHeaderServiceImpl;
+    private final DataEnvelopeMapper dataEnvelopeMapper;
+    private final ChecksumCalculator checksumCalculator;
+    private final IngestMetrics ingestMetrics;
+    private final DataHeaderNameFilter dataHeaderNameFilter;
+    private final IngestProperties ingestProperties;
 
-    private final RestTemplate restTemplate;
+    private final HadoopOutboxService hadoopOutboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     /**
+     * A push of a stored name with the same body and block type is a replay and is acknowledged without writing
+     * anything. Any other push of a stored name is rejected or replaces the stored envelope, depending on the
+     * conflict policy.
+     *
      * @param envelope
      * @param clientChecksum
+     * @param checksumAlgorithm the algorithm the client computed its checksum with. Only an MD5 checksum is
+     *                          stored with the envelope.
      * @return true if there is a match with the client provided checksum.
+     * @throws DataEnvelopeConflictException for a conflicting push under {@link ConflictPolicyEnum#REJECT}.
      */
     @Override
-    public boolean saveDataEnvelope(DataEnvelope envelope, final String clientChecksum) {
+    @Transactional
+    public boolean saveDataEnvelope(DataEnvelope envelope, final String clientChecksum, final ChecksumAlgorithmEnum checksumAlgorithm) {
 
-        String calculatedChecksum = calculateMD5Checksum(envelope.getDataBody());
-        if(calculatedChecksum.equals(clientChecksum)){
+        BlockTypeEnum blockType = envelope.getDataHeader().getBlockType();
+        String name = envelope.getDataHeader().getName();
+        long stageStart = System.nanoTime();
+        String calculatedChecksum = calculateChecksum(envelope.getDataBody(), checksumAlgorithm);
+        ingestMetrics.recordStage(IngestMetrics.Stage.CHECKSUM, blockType, stageStart);
+        boolean checksumPass = clientChecksum.equals(calculatedChecksum);
+
+        Optional<DataEnvelopeProjection> stored = findStored(name);
+        if (stored.isPresent()) {
+            if (isReplay(stored.get(), blockType, calculateChecksum(envelope.getDataBody(), ChecksumAlgorithmEnum.MD5))) {
+                log.info("Replayed push of {} acknowledged without storing it again", name);
+                ingestMetrics.countEnvelope(blockType, BulkIngestOutcomeEnum.DUPLICATE);
+                return checksumPass;
+            }
+            if (ingestProperties.getConflictPolicy() == ConflictPolicyEnum.REJECT) {
+                throw new DataEnvelopeConflictException("Data header name is already stored with different content: " + name);
+            }
+            log.info("Replacing stored envelope {}", name);
+        }
+        if(checksumPass && checksumAlgorithm == ChecksumAlgorithmEnum.MD5){
             envelope.setMd5Checksum(clientChecksum);
         }
 
 
         // Save to persistence.
-        persist(envelope);
+        persist(envelope, stored.isPresent());
+
+        // Recorded in the same transaction as the data, the forwarding workers deliver it to Hadoop after commit.
+        stageStart = System.nanoTime();
+        hadoopOutboxService.enqueue(envelope);
+        ingestMetrics.recordStage(IngestMetrics.Stage.OUTBOX, blockType, stageStart);
+        applicationEventPublisher.publishEvent(new DataEnvelopesChangedEvent(stored.isPresent()
+                ? EnumSet.of(blockType, stored.get().getBlockType()) : Collections.singleton(blockType)));
 
+        ingestMetrics.countEnvelope(blockType, checksumPass ? BulkIngestOutcomeEnum.CHECKSUM_PASS : BulkIngestOutcomeEnum.CHECKSUM_FAIL);
         log.info("Data persisted successfully, data name: {}", envelope.getDataHeader().getName());
+        return checksumPass;
+    }
+
+    /**
+     * Streams the body from the request into the data store, hashing it on the way, and then from the data store
+     * into the Hadoop outbox, so only a buffer of the body is held at any time.
+     * <p>
+     * The body of a stored name is only hashed: it is acknowledged if it is a replay and rejected otherwise,
+     * whatever the conflict policy, since it is not kept to replace the stored one with.
+     *
+     * @param dataHeader
+     * @param dataBody UTF-8 encoded body, read to the end.
+     * @param clientChecksum
+     * @param checksumAlgorithm the algorithm the client computed its checksum with. Only an MD5 checksum is
+     *                          stored with the envelope.
+     * @return true if there is a match with the client provided checksum.
+     */
+    @Override
+    @Transactional
+    public boolean saveDataEnvelope(DataHeader dataHeader, InputStream dataBody, final String clientChecksum,
+                                    final ChecksumAlgorithmEnum checksumAlgorithm) throws IOException {
+
+        Optional<DataEnvelopeProjection> stored = findStored(dataHeader.getName());
+        if (stored.isPresent()) {
+            return acknowledgeReplay(dataHeader, stored.get(), dataBody, clientChecksum, checksumAlgorithm);
+        }
+
+        log.info("Persisting streamed data with attribute name: {}", dataHeader.getName());
+        BlockTypeEnum blockType = dataHeader.getBlockType();
+        long stageStart = System.nanoTime();
+        ChecksumInputStream checksumInputStream = new ChecksumInputStream(dataBody, checksumCalculator.newHasher(checksumAlgorithm));
+        DataBodyEntity dataBodyEntity = new DataBodyEntity();
+        dataBodyEntity.setDataHeaderEntity(dataEnvelopeMapper.toDataHeaderEntity(dataHeader));
+        ingestMetrics.recordStage(IngestMetrics.Stage.MAP, blockType, stageStart);
+
+        // Reading and hashing the request are part of this stage, the body is read while it is stored.
+        stageStart = System.nanoTime();
+        Supplier<String> md5Checksum = () -> checksumAlgorithm == ChecksumAlgorithmEnum.MD5
+                && checksumInputStream.getChecksum().equals(clientChecksum) ? clientChecksum : null;
+        dataBodyServiceImpl.saveDataBody(dataBodyEntity, new InputStreamReader(checksumInputStream, StandardCharsets.UTF_8),
+                md5Checksum);
+        dataHeaderNameFilter.add(dataHeader.getName());
+        String calculatedChecksum = checksumInputStream.getChecksum();
+        ingestMetrics.recordStage(IngestMetrics.Stage.PERSIST, blockType, stageStart);
+
+        stageStart = System.nanoTime();
+        dataBodyServiceImpl.readDataBody(dataHeader.getName(),
+                storedDataBody -> hadoopOutboxService.enqueue(dataHeader, md5Checksum.get(), storedDataBody));
+        ingestMetrics.recordStage(IngestMetrics.Stage.OUTBOX, blockType, stageStart);
+        applicationEventPublisher.publishEvent(
+                new DataEnvelopesChangedEvent(Collections.singleton(blockType)));
+
+        boolean checksumPass = calculatedChecksum.equals(clientChecksum);
+        ingestMetrics.countEnvelope(blockType, checksumPass ? BulkIngestOutcomeEnum.CHECKSUM_PASS : BulkIngestOutcomeEnum.CHECKSUM_FAIL);
+        log.info("Data persisted successfully, data name: {}", dataHeader.getName());
+        return checksumPass;
+    }
+
+    /**
+     * Saves envelopes whose names are not stored yet in one transaction. The client checksum of each envelope
+     * is taken from its md5Checksum field.
+     * <p>
+     * Only the checksum and mapping of each envelope are timed as stages, the envelopes of different block types
+     * are stored together. A stored name is reported as DUPLICATE whatever its content, the conflict policy only
+     * applies to single pushes.
+     *
+     * @param envelopes
+     * @return the outcome of every envelope, in the order given.
+     */
+    @Override
+    @Transactional
+    public List<BulkIngestOutcomeEnum> saveDataEnvelopes(List<DataEnvelope> envelopes) {
+        Set<String> names = new HashSet<>();
+        for (DataEnvelope envelope : envelopes) {
+            names.add(envelope.getDataHeader().getName());
+        }
+        // Only the names the filter may contain are looked up.
+        names.removeIf(name -> !dataHeaderNameFilter.mightContain(name));
+        Set<String> seen = names.isEmpty() ? new HashSet<>() : dataHeaderServiceImpl.findExistingNames(names);
+
+        List<BulkIngestOutcomeEnum> outcomes = new ArrayList<>(envelopes.size());
+        List<DataEnvelope> accepted = new ArrayList<>(envelopes.size());
+        List<DataBodyEntity> dataBodyEntities = new ArrayList<>(envelopes.size());
+        for (DataEnvelope envelope : envelopes) {
+            BlockTypeEnum blockType = envelope.getDataHeader().getBlockType();
+            if (!seen.add(envelope.getDataHeader().getName())) {
+                outcomes.add(BulkIngestOutcomeEnum.DUPLICATE);
+                ingestMetrics.countEnvelope(blockType, BulkIngestOutcomeEnum.DUPLICATE);
+                continue;
+            }
+            long stageStart = System.nanoTime();
+            String calculatedChecksum = calculateChecksum(envelope.getDataBody(), ChecksumAlgorithmEnum.MD5);
+            ingestMetrics.recordStage(IngestMetrics.Stage.CHECKSUM, blockType, stageStart);
+            BulkIngestOutcomeEnum outcome = calculatedChecksum.equals(envelope.getMd5Checksum())
+                    ? BulkIngestOutcomeEnum.CHECKSUM_PASS : BulkIngestOutcomeEnum.CHECKSUM_FAIL;
+            outcomes.add(outcome);
+            ingestMetrics.countEnvelope(blockType, outcome);
+            accepted.add(envelope);
+            stageStart = System.nanoTime();
+            dataBodyEntities.add(dataEnvelopeMapper.toDataBodyEntity(envelope));
+            ingestMetrics.recordStage(IngestMetrics.Stage.MAP, blockType, stageStart);
+        }
+
+        dataBodyServiceImpl.saveDataBodies(dataBodyEntities);
+        for (DataEnvelope envelope : accepted) {
+            dataHeaderNameFilter.add(envelope.getDataHeader().getName());
+            hadoopOutboxService.enqueue(envelope);
+        }
+        if (!accepted.isEmpty()) {
+            applicationEventPublisher.publishEvent(new DataEnvelopesChangedEvent(
+                    accepted.stream().map(envelope -> envelope.getDataHeader().getBlockType()).collect(Collectors.toSet())));
+        }
 
-        pushDataToHadoop(envelope);
-        return clientChecksum.equals(calculatedChecksum);
+        log.info("Bulk persisted {} of {} envelopes", accepted.size(), envelopes.size());
+        return outcomes;
     }
 
     @Override
-    @Retryable(value = {HttpServerErrorException.GatewayTimeout.class},maxAttempts = 3)
-    public void pushDataToHadoop(final DataEnvelope envelope)
+    public List<DataEnvelope> getDataEnvelopByBlockType(final String blockType)
     {
-        log.info("Pushing the data to Hadoop, payload : {}", envelope);
-        restTemplate.postForEntity(HADOOP_POST_URI, envelope, Boolean.class);
+        List<DataEnvelopeProjection> dataEnvelopeProjections = dataBodyServiceImpl.getDataByBlockType(BlockTypeEnum.valueOf(blockType));
+        return dataEnvelopeProjections.stream().map(dataEnvelopeMapper::toDataEnvelope).collect(Collectors.toList());
+    }
 
+    @Override
+    public DataEnvelopePage getDataEnvelopePage(final String blockType, final long afterId, final int limit)
+    {
+        List<DataEnvelopeProjection> dataEnvelopeProjections = dataBodyServiceImpl.getDataByBlockTypeAfter(BlockTypeEnum.valueOf(blockType), afterId, limit);
+        Long nextAfterId = dataEnvelopeProjections.size() < limit ? null
+                : dataEnvelopeProjections.get(dataEnvelopeProjections.size() - 1).getDataStoreId();
+        return new DataEnvelopePage(dataEnvelopeProjections.stream().map(dataEnvelopeMapper::toDataEnvelope).collect(Collectors.toList()), nextAfterId);
     }
-    @Recover
-    private void recovery(Exception exception, String message){
-        log.info("Pushing the data to Hadoop unsuccessful : {}", message);
-        log.error(exception.getMessage(),exception);
+
+    /**
+     * @throws IllegalArgumentException for an unknown block type, before any envelope is handed over.
+     */
+    @Override
+    public void forEachDataEnvelopByBlockType(final String blockType, final Consumer<DataEnvelope> consumer)
+    {
+        dataBodyServiceImpl.forEachByBlockType(BlockTypeEnum.valueOf(blockType),
+                dataEnvelopeProjection -> consumer.accept(dataEnvelopeMapper.toDataEnvelope(dataEnvelopeProjection)));
     }
 
+    /**
+     * Copies the stored body of the named envelope to the writer without materialising it.
+     *
+     * @return false when there is no envelope of that name, in which case nothing is written.
+     */
     @Override
-    public List<DataEnvelope> getDataEnvelopByBlockType(final String blockType)
+    public boolean writeDataBody(final String name, final Writer writer) throws IOException
     {
-        List<DataBodyEntity> dataBodyEntityList = dataBodyServiceImpl.getDataByBlockType(BlockTypeEnum.valueOf(blockType));
-        return dataBodyEntityList.stream().map(this::dataEnvelopConverter).collect(Collectors.toList());
+        return dataBodyServiceImpl.readDataBody(name, dataBody -> copy(dataBody, writer));
     }
 
+    /**
+     * Changes the block type in one update statement without loading the envelope. The body keeps the codec it
+     * was stored with.
+     *
+     * @return false when there is no envelope of that name.
+     */
     @Override
+    @Transactional
     public boolean updateDataBlockType(final String name, final String newBlockType)
     {
-        Optional<DataBodyEntity> optionalDataBodyEntity = dataBodyServiceImpl.getDataByBlockName(name);
+        int updated = dataHeaderServiceImpl.updateBlockType(name, BlockTypeEnum.valueOf(newBlockType));
+        publishBlockTypesChanged(updated);
+        return updated > 0;
+    }
 
-        if(optionalDataBodyEntity.isPresent()){
-            DataBodyEntity dataBodyEntity = optionalDataBodyEntity.get();
-                dataBodyEntity.getDataHeaderEntity().setBlocktype(BlockTypeEnum.valueOf(newBlockType));
-                saveData(dataBodyEntity);
-                return true;
-        }
-        return false;
+    /**
+     * @return the number of the named envelopes that are stored, all of which now have the block type.
+     */
+    @Override
+    @Transactional
+    public int updateDataBlockTypes(final Collection<String> names, final String newBlockType)
+    {
+        int updated = dataHeaderServiceImpl.updateBlockType(names, BlockTypeEnum.valueOf(newBlockType));
+        publishBlockTypesChanged(updated);
+        log.info("Updated {} of {} envelopes to {}", updated, names.size(), newBlockType);
+        return updated;
     }
 
-    private DataEnvelope dataEnvelopConverter(final DataBodyEntity dataBodyEntity)
+    /**
+     * @throws IllegalArgumentException for an empty prefix, which would update every envelope.
+     */
+    @Override
+    @Transactional
+    public int updateDataBlockTypeByNamePrefix(final String namePrefix, final String newBlockType)
     {
-        DataHeader header = new DataHeader(dataBodyEntity.getDataHeaderEntity().getName(),dataBodyEntity.getDataHeaderEntity().getBlocktype());
-        DataBody dataBody = new DataBody(dataBodyEntity.getDataBody());
-        return new DataEnvelope(header,dataBody,dataBodyEntity.getChecksum());
+        if (namePrefix.isEmpty()) {
+            throw new IllegalArgumentException("Name prefix must not be empty");
+        }
+        int updated = dataHeaderServiceImpl.updateBlockTypeByNamePrefix(namePrefix, BlockTypeEnum.valueOf(newBlockType));
+        publishBlockTypesChanged(updated);
+        log.info("Updated {} envelopes named {}* to {}", updated, namePrefix, newBlockType);
+        return updated;
+    }
+
+    /**
+     * The previous block types are not read, so every block type counts as changed.
+     */
+    private void publishBlockTypesChanged(int updated) {
+        if (updated > 0) {
+            applicationEventPublisher.publishEvent(new DataEnvelopesChangedEvent(EnumSet.allOf(BlockTypeEnum.class)));
+        }
     }
 
-    private void persist(DataEnvelope envelope) {
+    private void persist(DataEnvelope envelope, boolean replace) {
         log.info("Persisting data with attribute name: {}", envelope.getDataHeader().getName());
-        DataHeaderEntity dataHeaderEntity = modelMapper.map(envelope.getDataHeader(), DataHeaderEntity.class);
+        BlockTypeEnum blockType = envelope.getDataHeader().getBlockType();
+        long stageStart = System.nanoTime();
+        DataBodyEntity dataBodyEntity = dataEnvelopeMapper.toDataBodyEntity(envelope);
+        ingestMetrics.recordStage(IngestMetrics.Stage.MAP, blockType, stageStart);
 
-        DataBodyEntity dataBodyEntity = modelMapper.map(envelope.getDataBody(), DataBodyEntity.class);
-        dataBodyEntity.setDataHeaderEntity(dataHeaderEntity);
+        stageStart = System.nanoTime();
+        if (replace) {
+            dataBodyServiceImpl.replaceDataBody(dataBodyEntity);
+        } else {
+            saveData(dataBodyEntity);
+            dataHeaderNameFilter.add(envelope.getDataHeader().getName());
+        }
+        ingestMetrics.recordStage(IngestMetrics.Stage.PERSIST, blockType, stageStart);
+    }
 
-        saveData(dataBodyEntity);
+    /**
+     * Names the filter does not contain are new, only the others are looked up in the data store.
+     */
+    private Optional<DataEnvelopeProjection> findStored(String name) {
+        if (!dataHeaderNameFilter.mightContain(name)) {
+            return Optional.empty();
+        }
+        return dataBodyServiceImpl.getEnvelopeByName(name);
     }
 
-    private void saveData(DataBodyEntity dataBodyEntity) {
-        dataBodyServiceImpl.saveDataBody(dataBodyEntity);
+    /**
+     * The stored MD5 is the one the client sent, if it matched; otherwise the stored body is hashed.
+     */
+    private boolean isReplay(DataEnvelopeProjection stored, BlockTypeEnum blockType, String md5Checksum) {
+        String storedMd5Checksum = stored.getChecksum() != null ? stored.getChecksum()
+                : checksumCalculator.checksum(stored.getDataBody(), ChecksumAlgorithmEnum.MD5);
+        return stored.getBlockType() == blockType && storedMd5Checksum.equals(md5Checksum);
     }
 
-    private String calculateMD5Checksum(final DataBody dataBody) {
-        try{
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            md.update(dataBody.getDataBody().getBytes());
-            byte[] digest = md.digest();
+    private boolean acknowledgeReplay(DataHeader dataHeader, DataEnvelopeProjection stored, InputStream dataBody,
+                                      String clientChecksum, ChecksumAlgorithmEnum checksumAlgorithm) throws IOException {
+        ChecksumInputStream checksumInputStream = new ChecksumInputStream(dataBody, checksumCalculator.newHasher(checksumAlgorithm));
+        String md5Checksum = checksumCalculator.checksum(checksumInputStream, ChecksumAlgorithmEnum.MD5);
+        if (!isReplay(stored, dataHeader.getBlockType(), md5Checksum)) {
+            throw new DataEnvelopeConflictException("Data header name is already stored with different content: "
+                    + dataHeader.getName());
+        }
+        log.info("Replayed push of {} acknowledged without storing it again", dataHeader.getName());
+        ingestMetrics.countEnvelope(dataHeader.getBlockType(), BulkIngestOutcomeEnum.DUPLICATE);
+        return checksumInputStream.getChecksum().equals(clientChecksum);
+    }
 
-            StringBuilder result = new StringBuilder();
-            for (byte b : digest){
-                result.append(String.format("%02x",b));
-            }
-            return result.toString();
+    private static void copy(Reader reader, Writer writer) throws IOException {
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            writer.write(buffer, 0, read);
+        }
+        writer.flush();
+    }
 
-        } catch (NoSuchAlgorithmException e)
-        {
-            throw new RuntimeException("Error calculating MD5 checksum", e);
+    private void saveData(DataBodyEntity dataBodyEntity) {
+        dataBodyServiceImpl.saveDataBody(dataBodyEntity);
+    }
+
+    /**
+     * Uses the MD5 computed while the request was parsed, if there is one.
+     */
+    private String calculateChecksum(final DataBody dataBody, final ChecksumAlgorithmEnum checksumAlgorithm) {
+        if (checksumAlgorithm == ChecksumAlgorithmEnum.MD5 && dataBody.calculatedMd5Checksum() != null) {
+            return dataBody.calculatedMd5Checksum();
         }
+        return checksumCalculator.checksum(dataBody.getDataBody(), checksumAlgorithm);
     }
 }
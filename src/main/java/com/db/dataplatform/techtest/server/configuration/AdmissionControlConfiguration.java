@@ -0,0 +1,26 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import com.db.dataplatform.techtest.server.api.PushAdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionControlConfiguration implements WebMvcConfigurer {
+
+    private final AdmissionControlProperties properties;
+    private final PushAdmissionInterceptor pushAdmissionInterceptor;
+
+    /**
+     * Every push path takes one token, a bulk push as much as a single envelope.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(pushAdmissionInterceptor)
+                    .addPathPatterns("/dataserver/pushdata", "/dataserver/pushdata/**");
+        }
+    }
+}
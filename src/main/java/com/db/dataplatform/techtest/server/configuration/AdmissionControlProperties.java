@@ -0,0 +1,54 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits applied to the pushes before they are handled. A client over its rate gets 429 Too Many Requests; while
+ * the server is overloaded every push gets 503 Service Unavailable. Both carry a Retry-After header.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Header naming the client. Clients without it are told apart by their address. The header is trusted as
+     * sent, there is no authentication to check it against.
+     */
+    private String clientIdHeader = "X-Client-Id";
+
+    private double ratePerSecond = 100;
+
+    private int burst = 200;
+
+    /**
+     * Clients whose buckets are kept. A bucket idle long enough to have refilled is dropped in any case.
+     */
+    private int maxClients = 10000;
+
+    /**
+     * Requests queued or running on the request executor, pushes and reads together. Kept below the platform
+     * pool's threads plus its queue, so pushes are turned away with Retry-After before the queue rejects them.
+     */
+    private int maxInFlightRequests = 500;
+
+    /**
+     * Outbox rows waiting to be forwarded to Hadoop, counted every {@code outboxSampleMillis}.
+     */
+    private long maxOutboxPending = 100000;
+
+    private long outboxSampleMillis = 1000;
+
+    /**
+     * Threads waiting for a connection from the Hikari pool.
+     */
+    private int maxThreadsAwaitingConnection = 50;
+
+    private long overloadRetryAfterSeconds = 1;
+}
@@ -0,0 +1,21 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the bulk push endpoint.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.bulk")
+public class BulkIngestProperties {
+
+    /**
+     * Envelopes persisted per transaction. Only one chunk is held in memory at a time.
+     */
+    private int chunkSize = 500;
+}
@@ -0,0 +1,15 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+/**
+ * What a push does with a name that is already stored with a different body or block type.
+ */
+public enum ConflictPolicyEnum {
+    /**
+     * The push fails with 409 Conflict and the stored envelope is kept.
+     */
+    REJECT,
+    /**
+     * The stored envelope is replaced and forwarded to Hadoop again.
+     */
+    UPSERT
+}
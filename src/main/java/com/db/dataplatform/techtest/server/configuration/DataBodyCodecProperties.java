@@ -0,0 +1,42 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Compression of data bodies in DATA_STORE, chosen per block type.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.codec")
+public class DataBodyCodecProperties {
+
+    /**
+     * Codec per block type, for example {@code dataserver.codec.block-types.BLOCKTYPEA=LZ4}. Block types not
+     * listed are stored uncompressed, so by default none are compressed.
+     */
+    private Map<BlockTypeEnum, BodyCodecEnum> blockTypes = new EnumMap<>(BlockTypeEnum.class);
+
+    /**
+     * Bodies shorter than this many characters are stored uncompressed, as they gain too little to pay for it.
+     */
+    private int minLength = 256;
+
+    /**
+     * 1 (fastest) to 9 (smallest), or -1 for the zlib default.
+     */
+    private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+
+    public BodyCodecEnum codecFor(BlockTypeEnum blockType) {
+        return blockTypes.getOrDefault(blockType, BodyCodecEnum.NONE);
+    }
+}
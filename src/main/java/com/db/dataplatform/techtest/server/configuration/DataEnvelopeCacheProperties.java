@@ -0,0 +1,33 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the cache of serialized GET /data/{blockType} responses.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.cache")
+public class DataEnvelopeCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the bytes held by all cached responses together.
+     */
+    private long maxWeightBytes = 64 * 1024 * 1024;
+
+    /**
+     * Responses larger than this are streamed from the database instead of being cached.
+     */
+    private int maxEntryBytes = 8 * 1024 * 1024;
+
+    /**
+     * Bounds how stale a response can get if a write does not go through the server, e.g. a manual fix in H2.
+     */
+    private long expireAfterWriteMillis = 30000;
+}
@@ -0,0 +1,53 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Storage backend of the data envelopes.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.store")
+public class DataStoreProperties {
+
+    public static final String BACKEND_PROPERTY = "dataserver.store.backend";
+    public static final String JPA_BACKEND = "jpa";
+    public static final String SEGMENT_BACKEND = "segment";
+
+    /**
+     * {@value #JPA_BACKEND} for the DATA_STORE and DATA_HEADER tables, or {@value #SEGMENT_BACKEND} for the
+     * memory-mapped segment store. The Hadoop outbox stays in the database either way.
+     */
+    private String backend = JPA_BACKEND;
+
+    private SegmentSettings segment = new SegmentSettings();
+
+    @Getter
+    @Setter
+    public static class SegmentSettings {
+
+        private String directory = "data/segments";
+
+        /**
+         * Size of a segment file. A record larger than this gets a segment of its own.
+         */
+        private int sizeBytes = 64 * 1024 * 1024;
+
+        /**
+         * Forces every write to disk before returning. Without it a write survives a crash of the process,
+         * but not of the machine.
+         */
+        private boolean forceOnWrite = false;
+
+        private long compactionIntervalMillis = 60000;
+
+        /**
+         * A full segment is compacted once less than this share of its bytes belongs to current records.
+         */
+        private double compactionLiveRatio = 0.5;
+    }
+}
@@ -0,0 +1,24 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "hadoop.circuit-breaker")
+public class HadoopCircuitBreakerProperties {
+
+    /**
+     * Calls the failure rate is computed over.
+     */
+    private int windowSize = 20;
+
+    private int minimumCalls = 10;
+
+    private double failureRateThreshold = 0.8;
+
+    private long openDurationMillis = 10000;
+}
@@ -0,0 +1,25 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection settings of the non-blocking Hadoop HTTP client.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "hadoop.client")
+public class HadoopClientProperties {
+
+    private int connectTimeoutMillis = 2000;
+
+    /**
+     * Must stay above the slowest answer the back end gives before timing out on its own.
+     */
+    private int socketTimeoutMillis = 10000;
+
+    private int maxConnections = 64;
+}
@@ -0,0 +1,49 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizing of the in-process pipeline that forwards persisted envelopes to Hadoop.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "hadoop.forwarding")
+public class HadoopForwardingProperties {
+
+    /**
+     * Threads recording delivery outcomes in the outbox. Hadoop calls themselves do not occupy a thread.
+     */
+    private int workerThreads = 4;
+
+    /**
+     * Envelopes sent in one Hadoop call. 1 sends every envelope on its own to the single-envelope endpoint.
+     */
+    private int batchMaxSize = 50;
+
+    private long batchMaxLingerMillis = 250;
+
+    /**
+     * Payload characters sent in one Hadoop call, and claimed per free call slot, so large bodies do not pile up
+     * in memory. An envelope larger than this is sent on its own.
+     */
+    private long batchMaxChars = 1048576;
+
+    private int concurrencyInitialLimit = 4;
+
+    private int concurrencyMinLimit = 1;
+
+    private int concurrencyMaxLimit = 64;
+
+    /**
+     * Calls slower than this shrink the concurrency limit like a timeout does.
+     */
+    private long concurrencyLatencyThresholdMillis = 3000;
+
+    private double concurrencyBackoffRatio = 0.9;
+
+    private long shutdownTimeoutMillis = 10000;
+}
@@ -0,0 +1,28 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Polling and claiming of the HADOOP_OUTBOX table.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "hadoop.outbox")
+public class HadoopOutboxProperties {
+
+    private long pollIntervalMillis = 100;
+
+    private int batchSize = 100;
+
+    private long claimTimeoutMillis = 60000;
+
+    /**
+     * How often a poll also counts the PENDING rows for the {@code hadoop.outbox.pending} gauge, which only
+     * reads the last count.
+     */
+    private long pendingSampleMillis = 1000;
+}
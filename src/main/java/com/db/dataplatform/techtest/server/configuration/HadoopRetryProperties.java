@@ -0,0 +1,46 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * When failed Hadoop deliveries are attempted again, and how much retry traffic is allowed.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "hadoop.retry")
+public class HadoopRetryProperties {
+
+    private long initialDelayMillis = 500;
+
+    private double multiplier = 2.0;
+
+    private long maxDelayMillis = 60000;
+
+    /**
+     * Share of each delay that is randomised, 0 for none and 1 for anywhere between zero and the full delay.
+     */
+    private double jitter = 0.5;
+
+    /**
+     * Attempts after which an envelope is parked as FAILED in the outbox, where nothing claims it again. 0, the
+     * default, retries forever at no more than {@code maxDelayMillis} apart, so an outage of the back end loses
+     * no envelope.
+     */
+    private int maxAttempts = 0;
+
+    /**
+     * Retries earned per envelope sent for the first time.
+     */
+    private double budgetRatio = 0.2;
+
+    /**
+     * Retries allowed per second even when nothing new is being sent.
+     */
+    private double budgetMinPerSecond = 1.0;
+
+    private double budgetCapacity = 100;
+}
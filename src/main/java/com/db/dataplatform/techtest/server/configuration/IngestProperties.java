@@ -0,0 +1,30 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of duplicate detection on push. A push of a stored name with the same body and block type is a
+ * replay and is acknowledged without writing anything; any other push of a stored name is a conflict.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.ingest")
+public class IngestProperties {
+
+    /**
+     * Applies to JSON pushes. A streamed body is not buffered, so a conflicting streamed push is always rejected.
+     */
+    private ConflictPolicyEnum conflictPolicy = ConflictPolicyEnum.REJECT;
+
+    /**
+     * Names the in-memory name filter is sized for. Beyond that it still works, with more false positives,
+     * each of which costs one lookup by name.
+     */
+    private int nameFilterExpectedNames = 1000000;
+
+    private double nameFilterFalsePositiveRate = 0.01;
+}
@@ -0,0 +1,25 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import com.db.dataplatform.techtest.server.component.RequestExecutor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class RequestExecutionConfiguration implements WebMvcConfigurer {
+
+    private final RequestExecutionProperties properties;
+    private final RequestExecutor requestExecutor;
+
+    /**
+     * Streamed response bodies are written on the same executor as the asynchronous endpoints.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(properties.getTimeoutMillis());
+        configurer.setTaskExecutor(new TaskExecutorAdapter(requestExecutor));
+    }
+}
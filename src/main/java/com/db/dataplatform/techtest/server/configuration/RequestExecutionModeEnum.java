@@ -0,0 +1,20 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+/**
+ * Where the asynchronous controller endpoints do their work.
+ */
+public enum RequestExecutionModeEnum {
+    /**
+     * On the Tomcat worker that received the request, as a synchronous endpoint would.
+     */
+    DIRECT,
+    /**
+     * On a fixed pool of platform threads, releasing the Tomcat worker.
+     */
+    PLATFORM,
+    /**
+     * On a new virtual thread per request where the JDK has them, otherwise as {@link #PLATFORM}. The state the
+     * checksum calculator and the body codec keep per thread is then set up again for every request.
+     */
+    VIRTUAL
+}
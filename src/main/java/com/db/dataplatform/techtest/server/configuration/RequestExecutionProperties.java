@@ -0,0 +1,34 @@
+package com.db.dataplatform.techtest.server.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the executor the push and block type read endpoints run on.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "dataserver.request")
+public class RequestExecutionProperties {
+
+    private RequestExecutionModeEnum mode = RequestExecutionModeEnum.PLATFORM;
+
+    /**
+     * Size of the pool in {@code PLATFORM} mode, and in {@code VIRTUAL} mode on a JDK without virtual threads.
+     */
+    private int platformThreads = 200;
+
+    /**
+     * Requests waiting for a thread of the platform pool. A request that does not fit gets 503 Service Unavailable.
+     */
+    private int queueCapacity = 400;
+
+    /**
+     * A request not answered by then gets 503 Service Unavailable. Its task is dropped if it has not started, a
+     * running task is not interrupted.
+     */
+    private long timeoutMillis = 60000;
+}
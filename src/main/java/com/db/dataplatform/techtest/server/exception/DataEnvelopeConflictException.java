@@ -0,0 +1,13 @@
+package com.db.dataplatform.techtest.server.exception;
+
+/**
+ * A push of a name that is stored with different content, under {@code ConflictPolicyEnum.REJECT}.
+ */
+public class DataEnvelopeConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataEnvelopeConflictException(final String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,26 @@
 package com.db.dataplatform.techtest.server.exception;
 
+import lombok.Getter;
+
+@Getter
 public class HadoopClientException extends Exception {
 
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
     HadoopClientException(final String message, final Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
     }
 
     public HadoopClientException(final String message) {
         super(message);
+        this.statusCode = 0;
+    }
+
+    public HadoopClientException(final String message, final int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
     }
 }
@@ -0,0 +1,68 @@
+package com.db.dataplatform.techtest.server.mapper;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.component.ChecksumCalculator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Reads a {@link DataBody} and computes the MD5 of its text from the parser's own character buffer, so the
+ * checksum is ready together with the envelope and the body is not encoded to a byte array a second time.
+ * Other checksum algorithms are still computed by the server.
+ */
+@JsonComponent
+public class DataBodyDeserializer extends StdDeserializer<DataBody> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String DATA_BODY_FIELD = "dataBody";
+
+    private final ChecksumCalculator checksumCalculator;
+
+    public DataBodyDeserializer(ChecksumCalculator checksumCalculator) {
+        super(DataBody.class);
+        this.checksumCalculator = checksumCalculator;
+    }
+
+    @Override
+    public DataBody deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+
+        String dataBody = null;
+        String md5Checksum = null;
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.getCurrentName();
+            token = parser.nextToken();
+            if (!DATA_BODY_FIELD.equals(field)) {
+                handleUnknownProperty(parser, context, DataBody.class, field);
+            } else if (token == JsonToken.VALUE_STRING) {
+                char[] text = parser.getTextCharacters();
+                int offset = parser.getTextOffset();
+                int length = parser.getTextLength();
+                md5Checksum = checksumCalculator.checksum(text, offset, length, ChecksumAlgorithmEnum.MD5);
+                dataBody = new String(text, offset, length);
+            } else if (token == JsonToken.VALUE_NULL) {
+                dataBody = null;
+                md5Checksum = null;
+            } else {
+                // Numbers and booleans are coerced to text as before; the server computes their checksum.
+                dataBody = context.readValue(parser, String.class);
+                md5Checksum = null;
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            return (DataBody) context.handleUnexpectedToken(DataBody.class, parser);
+        }
+        return new DataBody(dataBody, md5Checksum);
+    }
+}
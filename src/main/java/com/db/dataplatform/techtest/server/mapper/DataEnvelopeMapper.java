@@ -0,0 +1,39 @@
+package com.db.dataplatform.techtest.server.mapper;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies envelopes between the API model and the persistence model field by field, without reflection.
+ */
+@Component
+public class DataEnvelopeMapper {
+
+    public DataHeaderEntity toDataHeaderEntity(DataHeader dataHeader) {
+        DataHeaderEntity dataHeaderEntity = new DataHeaderEntity();
+        dataHeaderEntity.setName(dataHeader.getName());
+        dataHeaderEntity.setBlocktype(dataHeader.getBlockType());
+        return dataHeaderEntity;
+    }
+
+    /**
+     * Copies the header and the body. md5Checksum of the envelope is not copied.
+     */
+    public DataBodyEntity toDataBodyEntity(DataEnvelope envelope) {
+        DataBodyEntity dataBodyEntity = new DataBodyEntity();
+        dataBodyEntity.setDataHeaderEntity(toDataHeaderEntity(envelope.getDataHeader()));
+        dataBodyEntity.setDataBody(envelope.getDataBody().getDataBody());
+        return dataBodyEntity;
+    }
+
+    public DataEnvelope toDataEnvelope(DataEnvelopeProjection dataEnvelopeProjection) {
+        DataHeader dataHeader = new DataHeader(dataEnvelopeProjection.getName(), dataEnvelopeProjection.getBlockType());
+        DataBody dataBody = new DataBody(dataEnvelopeProjection.getDataBody());
+        return new DataEnvelope(dataHeader, dataBody, dataEnvelopeProjection.getChecksum());
+    }
+}
@@ -0,0 +1,98 @@
+package com.db.dataplatform.techtest.server.mapper;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads {@code prefix}, then the characters of {@code source} escaped as the content of a JSON string, then
+ * {@code suffix}. Escapes the same characters Jackson does by default, so a document assembled this way is
+ * identical to one Jackson writes, while the source is only held a block at a time.
+ */
+public class JsonStringEscapingReader extends Reader {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final int BLOCK_SIZE = 4096;
+
+    private final String prefix;
+    private final Reader source;
+    private final String suffix;
+
+    private final char[] block = new char[BLOCK_SIZE];
+    private final StringBuilder pending = new StringBuilder(BLOCK_SIZE * 6);
+    private int pendingPosition;
+    private int stage;
+
+    public JsonStringEscapingReader(String prefix, Reader source, String suffix) {
+        this.prefix = prefix;
+        this.source = source;
+        this.suffix = suffix;
+    }
+
+    @Override
+    public int read(char[] out, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        int written = 0;
+        while (written < length) {
+            if (pendingPosition == pending.length() && !fillPending()) {
+                break;
+            }
+            int count = Math.min(length - written, pending.length() - pendingPosition);
+            pending.getChars(pendingPosition, pendingPosition + count, out, offset + written);
+            pendingPosition += count;
+            written += count;
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private boolean fillPending() throws IOException {
+        pending.setLength(0);
+        pendingPosition = 0;
+        switch (stage) {
+            case 0:
+                pending.append(prefix);
+                stage = 1;
+                return true;
+            case 1:
+                int read = source.read(block, 0, block.length);
+                if (read == -1) {
+                    pending.append(suffix);
+                    stage = 2;
+                } else {
+                    escape(read);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void escape(int length) {
+        for (int i = 0; i < length; i++) {
+            char c = block[i];
+            if (c == '"' || c == '\\') {
+                pending.append('\\').append(c);
+            } else if (c >= 0x20) {
+                pending.append(c);
+            } else if (c == '\n') {
+                pending.append("\\n");
+            } else if (c == '\r') {
+                pending.append("\\r");
+            } else if (c == '\t') {
+                pending.append("\\t");
+            } else if (c == '\b') {
+                pending.append("\\b");
+            } else if (c == '\f') {
+                pending.append("\\f");
+            } else {
+                pending.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xf]);
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.db.dataplatform.techtest.server.persistence;
+
+public enum BodyCodecEnum {
+    NONE,
+    LZ4,
+    DEFLATE
+}
@@ -1,15 +1,19 @@
 package com.db.dataplatform.techtest.server.persistence.model;
 
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.Lob;
 import javax.persistence.OneToOne;
 import javax.persistence.PrePersist;
 import javax.persistence.SequenceGenerator;
@@ -23,7 +27,7 @@ import java.time.Instant;
 public class DataBodyEntity {
 
     @Id
-    @SequenceGenerator(name = "dataStoreSequenceGenerator", sequenceName = "SEQ_DATA_STORE", allocationSize = 1)
+    @SequenceGenerator(name = "dataStoreSequenceGenerator", sequenceName = "SEQ_DATA_STORE", allocationSize = 50)
     @GeneratedValue(generator = "dataStoreSequenceGenerator")
     @Column(name = "DATA_STORE_ID")
     private Long dataStoreId;
@@ -32,9 +36,21 @@ public class DataBodyEntity {
     @JoinColumn(name = "DATA_HEADER_ID")
     private DataHeaderEntity dataHeaderEntity;
 
+    /**
+     * Null in the database when the body is stored compressed, see {@link #compressedBody}.
+     */
+    @Lob
     @Column(name = "DATA_BODY")
     private String dataBody;
 
+    @Column(name = "BODY_CODEC")
+    @Enumerated(EnumType.STRING)
+    private BodyCodecEnum bodyCodec = BodyCodecEnum.NONE;
+
+    @Lob
+    @Column(name = "COMPRESSED_BODY")
+    private byte[] compressedBody;
+
     @Column(name = "MD5_CHECKSUM")
     private String checksum;
 
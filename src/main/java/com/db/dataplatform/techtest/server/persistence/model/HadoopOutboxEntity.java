@@ -0,0 +1,66 @@
+package com.db.dataplatform.techtest.server.persistence.model;
+
+import com.db.dataplatform.techtest.server.persistence.OutboxStatusEnum;
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.PrePersist;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "HADOOP_OUTBOX")
+@Setter
+@Getter
+public class HadoopOutboxEntity {
+
+    @Id
+    @SequenceGenerator(name = "hadoopOutboxSequenceGenerator", sequenceName = "SEQ_HADOOP_OUTBOX", allocationSize = 50)
+    @GeneratedValue(generator = "hadoopOutboxSequenceGenerator")
+    @Column(name = "OUTBOX_ID")
+    private Long outboxId;
+
+    @Column(name = "DATA_HEADER_NAME")
+    private String dataHeaderName;
+
+    @Lob
+    @Column(name = "PAYLOAD")
+    private String payload;
+
+    @Column(name = "STATUS")
+    @Enumerated(EnumType.STRING)
+    private OutboxStatusEnum status;
+
+    @Column(name = "ATTEMPTS")
+    private int attempts;
+
+    @Column(name = "NEXT_ATTEMPT_TIMESTAMP")
+    private Instant nextAttemptTimestamp;
+
+    @Column(name = "CLAIMED_BY")
+    private String claimedBy;
+
+    @Column(name = "CLAIMED_TIMESTAMP")
+    private Instant claimedTimestamp;
+
+    @Column(name = "CREATED_TIMESTAMP")
+    private Instant createdTimestamp;
+
+    @PrePersist
+    public void setTimestamps() {
+        if (createdTimestamp == null) {
+            createdTimestamp = Instant.now();
+        }
+        if (nextAttemptTimestamp == null) {
+            nextAttemptTimestamp = createdTimestamp;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.db.dataplatform.techtest.server.persistence.projection;
+
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The columns of an envelope that a read returns, selected by a constructor expression so no entity is
+ * hydrated or managed. dataBody is null for a compressed body until the codec has decoded compressedBody.
+ */
+@AllArgsConstructor
+@Getter
+public class DataEnvelopeProjection {
+
+    private final Long dataStoreId;
+
+    private final String name;
+
+    private final BlockTypeEnum blockType;
+
+    @Setter
+    private String dataBody;
+
+    private final BodyCodecEnum bodyCodec;
+
+    private final byte[] compressedBody;
+
+    private final String checksum;
+}
@@ -0,0 +1,16 @@
+package com.db.dataplatform.techtest.server.persistence.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An outbox row that is due, with the length of its payload so a claim can be sized before any payload is read.
+ */
+@AllArgsConstructor
+@Getter
+public class DueOutboxEntryProjection {
+
+    private final Long outboxId;
+
+    private final Integer payloadLength;
+}
@@ -1,10 +1,47 @@
 package com.db.dataplatform.techtest.server.persistence.repository;
 
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface DataHeaderRepository extends JpaRepository<DataHeaderEntity, Long> {
 
+	@Query("select h.name from DataHeaderEntity h where h.name in :names")
+	List<String> findExistingNames(@Param("names") Collection<String> names);
+
+	/**
+	 * Must be consumed inside a transaction and closed after use.
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+	@Query("select h.name from DataHeaderEntity h")
+	Stream<String> streamNames();
+
+	@Modifying
+	@Query("update DataHeaderEntity h set h.blocktype = :blockType where h.name = :name")
+	int updateBlockType(@Param("name") String name, @Param("blockType") BlockTypeEnum blockType);
+
+	@Modifying
+	@Query("update DataHeaderEntity h set h.blocktype = :blockType where h.name in :names")
+	int updateBlockType(@Param("names") Collection<String> names, @Param("blockType") BlockTypeEnum blockType);
+
+	/**
+	 * @param namePattern a like pattern with backslash as the escape character.
+	 */
+	@Modifying
+	@Query("update DataHeaderEntity h set h.blocktype = :blockType where h.name like :namePattern escape '\\'")
+	int updateBlockTypeByNameLike(@Param("namePattern") String namePattern, @Param("blockType") BlockTypeEnum blockType);
+
 }
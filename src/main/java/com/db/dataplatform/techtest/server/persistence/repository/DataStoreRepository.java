@@ -2,14 +2,59 @@ package com.db.dataplatform.techtest.server.persistence.repository;
 
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface DataStoreRepository extends JpaRepository<DataBodyEntity, Long> {
-	List<DataBodyEntity> findByDataHeaderEntity_Blocktype(final BlockTypeEnum blockType);
-	DataBodyEntity findByDataHeaderEntity_Name(final String name);
+public interface DataStoreRepository extends JpaRepository<DataBodyEntity, Long>, DataStoreRepositoryCustom {
+
+	/**
+	 * Selects the columns of an envelope straight into a {@link DataEnvelopeProjection}.
+	 */
+	String SELECT_ENVELOPE = "select new com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection(" +
+			"d.dataStoreId, h.name, h.blocktype, d.dataBody, d.bodyCodec, d.compressedBody, d.checksum) " +
+			"from DataBodyEntity d join d.dataHeaderEntity h ";
+
+	/**
+	 * The header is fetched in the same statement, a derived query would load it with one more select per row.
+	 */
+	@Query("select d from DataBodyEntity d join fetch d.dataHeaderEntity h where h.name = :name")
+	DataBodyEntity findByDataHeaderEntity_Name(@Param("name") final String name);
+
+	@Query(SELECT_ENVELOPE + "where h.name = :name")
+	DataEnvelopeProjection findEnvelopeByName(@Param("name") String name);
+
+	@Query(SELECT_ENVELOPE + "where h.blocktype = :blockType")
+	List<DataEnvelopeProjection> findEnvelopesByBlockType(@Param("blockType") BlockTypeEnum blockType);
+
+	/**
+	 * Keyset page: the rows of a block type after the given id, in id order.
+	 */
+	@Query(SELECT_ENVELOPE + "where h.blocktype = :blockType and d.dataStoreId > :afterId order by d.dataStoreId")
+	List<DataEnvelopeProjection> findEnvelopePageByBlockType(@Param("blockType") BlockTypeEnum blockType,
+															 @Param("afterId") long afterId, Pageable pageable);
+
+	/**
+	 * Must be consumed inside a transaction and closed after use.
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	@Query(SELECT_ENVELOPE + "where h.blocktype = :blockType order by d.dataStoreId")
+	Stream<DataEnvelopeProjection> streamEnvelopesByBlockType(@Param("blockType") BlockTypeEnum blockType);
+
+	@Modifying
+	@Query("update DataBodyEntity d set d.checksum = :checksum where d.dataStoreId = :dataStoreId")
+	int updateChecksum(@Param("dataStoreId") long dataStoreId, @Param("checksum") String checksum);
 
 }
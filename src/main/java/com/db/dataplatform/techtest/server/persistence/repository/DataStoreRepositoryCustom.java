@@ -0,0 +1,29 @@
+package com.db.dataplatform.techtest.server.persistence.repository;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streams DATA_BODY in and out over JDBC, for bodies too large to be held as a String.
+ */
+public interface DataStoreRepositoryCustom {
+
+	/**
+	 * Replaces the body of a row that has been flushed, reading it from {@code dataBody} to the end.
+	 */
+	void writeDataBody(long dataStoreId, Reader dataBody);
+
+	/**
+	 * Hands the body of the named envelope to {@code consumer} while the row is open. Must run inside a
+	 * transaction.
+	 *
+	 * @return false when there is no such envelope.
+	 */
+	boolean readDataBody(String name, DataBodyReaderConsumer consumer) throws IOException;
+
+	@FunctionalInterface
+	interface DataBodyReaderConsumer {
+
+		void accept(Reader dataBody) throws IOException;
+	}
+}
@@ -0,0 +1,68 @@
+package com.db.dataplatform.techtest.server.persistence.repository;
+
+import com.db.dataplatform.techtest.server.component.DataBodyCodec;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Runs on the connection of the current Hibernate session, so it sees and takes part in the JPA transaction.
+ */
+@RequiredArgsConstructor
+public class DataStoreRepositoryCustomImpl implements DataStoreRepositoryCustom {
+
+	private static final String UPDATE_DATA_BODY = "update DATA_STORE set DATA_BODY = ? where DATA_STORE_ID = ?";
+	private static final String SELECT_DATA_BODY = "select s.DATA_BODY, s.BODY_CODEC, s.COMPRESSED_BODY, h.BLOCKTYPE from DATA_STORE s " +
+			"join DATA_HEADER h on h.DATA_HEADER_ID = s.DATA_HEADER_ID where h.NAME = ?";
+
+	private final EntityManager entityManager;
+	private final DataBodyCodec dataBodyCodec;
+
+	@Override
+	public void writeDataBody(long dataStoreId, Reader dataBody) {
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(UPDATE_DATA_BODY)) {
+				statement.setCharacterStream(1, dataBody);
+				statement.setLong(2, dataStoreId);
+				statement.executeUpdate();
+			}
+		});
+	}
+
+	@Override
+	public boolean readDataBody(String name, DataBodyReaderConsumer consumer) throws IOException {
+		try {
+			return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+				try (PreparedStatement statement = connection.prepareStatement(SELECT_DATA_BODY)) {
+					statement.setString(1, name);
+					try (ResultSet resultSet = statement.executeQuery()) {
+						if (!resultSet.next()) {
+							return false;
+						}
+						BodyCodecEnum codec = BodyCodecEnum.valueOf(resultSet.getString(2));
+						// Compressed bodies are small enough to have been stored from a String, so are decoded as one.
+						try (Reader dataBody = codec == BodyCodecEnum.NONE ? resultSet.getCharacterStream(1)
+								: new StringReader(dataBodyCodec.decode(BlockTypeEnum.valueOf(resultSet.getString(4)), codec,
+								resultSet.getBytes(3)))) {
+							consumer.accept(dataBody);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+						return true;
+					}
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.db.dataplatform.techtest.server.persistence.repository;
+
+import com.db.dataplatform.techtest.server.persistence.OutboxStatusEnum;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DueOutboxEntryProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HadoopOutboxRepository extends JpaRepository<HadoopOutboxEntity, Long>, HadoopOutboxRepositoryCustom {
+
+	@Query("select new com.db.dataplatform.techtest.server.persistence.projection.DueOutboxEntryProjection(o.outboxId, length(o.payload)) " +
+			"from HadoopOutboxEntity o where o.status = :status and o.nextAttemptTimestamp <= :now order by o.outboxId")
+	List<DueOutboxEntryProjection> findDue(@Param("status") OutboxStatusEnum status, @Param("now") Instant now, Pageable pageable);
+
+	/**
+	 * Claims the given rows for one poller. Rows another poller claimed in the meantime no longer match the
+	 * status predicate and are skipped, so every row is owned by exactly one claim token.
+	 */
+	@Modifying
+	@Query("update HadoopOutboxEntity o set o.status = :claimed, o.claimedBy = :claimToken, o.claimedTimestamp = :now " +
+			"where o.outboxId in :ids and o.status = :pending")
+	int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken, @Param("now") Instant now,
+			  @Param("pending") OutboxStatusEnum pending, @Param("claimed") OutboxStatusEnum claimed);
+
+	List<HadoopOutboxEntity> findByClaimedByOrderByOutboxId(final String claimToken);
+
+	@Modifying
+	@Query("update HadoopOutboxEntity o set o.status = :pending, o.claimedBy = null, o.claimedTimestamp = null " +
+			"where o.status = :claimed and o.claimedTimestamp < :cutoff")
+	int releaseClaimsOlderThan(@Param("cutoff") Instant cutoff,
+							   @Param("pending") OutboxStatusEnum pending, @Param("claimed") OutboxStatusEnum claimed);
+
+	/**
+	 * Hands claimed rows back without counting an attempt. Rows whose claim expired and was taken by another
+	 * poller carry a different claim token and are left alone.
+	 */
+	@Modifying
+	@Query("update HadoopOutboxEntity o set o.status = :pending, o.claimedBy = null, o.claimedTimestamp = null " +
+			"where o.outboxId in :ids and o.claimedBy in :claimTokens and o.status = :claimed")
+	int releaseClaims(@Param("ids") List<Long> ids, @Param("claimTokens") Collection<String> claimTokens,
+					  @Param("pending") OutboxStatusEnum pending, @Param("claimed") OutboxStatusEnum claimed);
+
+	/**
+	 * Counts a failed attempt on claimed rows and sets their status and next attempt, without loading them.
+	 * As with {@link #releaseClaims}, rows now held under another claim token are left alone.
+	 */
+	@Modifying
+	@Query("update HadoopOutboxEntity o set o.status = :status, o.attempts = o.attempts + 1, " +
+			"o.nextAttemptTimestamp = :nextAttempt, o.claimedBy = null, o.claimedTimestamp = null " +
+			"where o.outboxId in :ids and o.claimedBy in :claimTokens and o.status = :claimed")
+	int reschedule(@Param("ids") List<Long> ids, @Param("claimTokens") Collection<String> claimTokens,
+				   @Param("status") OutboxStatusEnum status, @Param("nextAttempt") Instant nextAttempt,
+				   @Param("claimed") OutboxStatusEnum claimed);
+
+	@Modifying
+	@Query("delete from HadoopOutboxEntity o where o.outboxId in :ids")
+	int deleteByOutboxIdIn(@Param("ids") List<Long> ids);
+
+	long countByStatus(final OutboxStatusEnum status);
+}
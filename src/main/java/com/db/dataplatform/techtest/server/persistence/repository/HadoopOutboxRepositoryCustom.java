@@ -0,0 +1,11 @@
+package com.db.dataplatform.techtest.server.persistence.repository;
+
+import java.io.Reader;
+
+public interface HadoopOutboxRepositoryCustom {
+
+	/**
+	 * Replaces the payload of a row that has been flushed, reading it from {@code payload} to the end.
+	 */
+	void writePayload(long outboxId, Reader payload);
+}
@@ -0,0 +1,27 @@
+package com.db.dataplatform.techtest.server.persistence.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+
+@RequiredArgsConstructor
+public class HadoopOutboxRepositoryCustomImpl implements HadoopOutboxRepositoryCustom {
+
+	private static final String UPDATE_PAYLOAD = "update HADOOP_OUTBOX set PAYLOAD = ? where OUTBOX_ID = ?";
+
+	private final EntityManager entityManager;
+
+	@Override
+	public void writePayload(long outboxId, Reader payload) {
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement(UPDATE_PAYLOAD)) {
+				statement.setCharacterStream(1, payload);
+				statement.setLong(2, outboxId);
+				statement.executeUpdate();
+			}
+		});
+	}
+}
@@ -0,0 +1,145 @@
+package com.db.dataplatform.techtest.server.persistence.segment;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One memory-mapped log file of {@link SegmentStore}. Records are appended by one writer at a time; readers
+ * only read records the index already points to, so they never see a partly written record.
+ * <p>
+ * A deleted segment stays mapped until the buffer is garbage collected, so readers still holding a location
+ * in it can finish.
+ */
+class Segment {
+
+    private final long sequence;
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile int writePosition;
+
+    private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    static Segment create(Path path, long sequence, int sizeBytes) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(sizeBytes);
+            return new Segment(sequence, path, file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes));
+        }
+    }
+
+    static Segment open(Path path, long sequence) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            return new Segment(sequence, path, file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length()));
+        }
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    int getWritePosition() {
+        return writePosition;
+    }
+
+    void setWritePosition(int writePosition) {
+        this.writePosition = writePosition;
+    }
+
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    /**
+     * @return the offset the record was written at.
+     */
+    int append(ByteBuffer record) {
+        int offset = writePosition;
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(record);
+        writePosition = target.position();
+        return offset;
+    }
+
+    /**
+     * As {@link #append(ByteBuffer)} for a record whose last {@code tailLength} bytes are read from {@code tail},
+     * from its start.
+     *
+     * @return the offset the record was written at.
+     */
+    int append(ByteBuffer head, FileChannel tail, int tailLength) throws IOException {
+        int offset = writePosition;
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset);
+        target.put(head);
+        target.limit(target.position() + tailLength);
+        tail.position(0);
+        while (target.hasRemaining()) {
+            if (tail.read(target) == -1) {
+                throw new EOFException("Record tail ended " + target.remaining() + " bytes short");
+            }
+        }
+        writePosition = target.position();
+        return offset;
+    }
+
+    void writeInt(int offset, int value) {
+        buffer.putInt(offset, value);
+    }
+
+    ByteBuffer read(int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        return view.slice();
+    }
+
+    int readInt(int offset) {
+        return buffer.getInt(offset);
+    }
+
+    long readLong(int offset) {
+        return buffer.getLong(offset);
+    }
+
+    void zero(int from) {
+        for (int position = from; position < buffer.capacity(); position++) {
+            buffer.put(position, (byte) 0);
+        }
+    }
+
+    void addLiveBytes(long bytes) {
+        liveBytes.addAndGet(bytes);
+    }
+
+    double liveRatio() {
+        return writePosition == 0 ? 1.0 : (double) liveBytes.get() / writePosition;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
@@ -0,0 +1,580 @@
+package com.db.dataplatform.techtest.server.persistence.segment;
+
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store of data envelopes in memory-mapped segment files, with the index held in memory.
+ * <p>
+ * Every save appends a complete record, so an update supersedes the record before it rather than changing it.
+ * A record is its payload length and the CRC32 of its payload, followed by the payload: id, body created timestamp,
+ * header created timestamp, block type, body codec, name, checksum and body. Segments are named by a sequence number; the newest one
+ * takes the appends and is replaced by a new one once a record no longer fits.
+ * <p>
+ * On start-up the segments are scanned oldest first to rebuild the index, the later record of an id winning.
+ * The scan of a segment stops at the first record that is incomplete or fails its CRC, which is where a crash
+ * interrupted the last append; that tail is discarded. Compaction copies the current records of a mostly
+ * superseded segment to the newest segment and deletes it.
+ * <p>
+ * Writes are serialized by one lock. Reads take no lock. A streamed body is spooled to a temporary file in the
+ * segment directory before the lock is taken, so a slow client does not hold up other writes and the body is
+ * not held in memory; it is then copied into the segment as part of a single append.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = DataStoreProperties.BACKEND_PROPERTY, havingValue = DataStoreProperties.SEGMENT_BACKEND)
+public class SegmentStore {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String SPOOL_SUFFIX = ".spool";
+    private static final int SPOOL_BUFFER_CHARS = 8192;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int BLOCK_TYPE_OFFSET = 32;
+    private static final int NAME_LENGTH_OFFSET = 34;
+    private static final BlockTypeEnum[] BLOCK_TYPES = BlockTypeEnum.values();
+    private static final BodyCodecEnum[] BODY_CODECS = BodyCodecEnum.values();
+
+    private final Path directory;
+    private final int segmentSizeBytes;
+    private final boolean forceOnWrite;
+    private final double compactionLiveRatio;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Long, Location> byId = new ConcurrentHashMap<>();
+    private final Map<String, Location> byName = new ConcurrentHashMap<>();
+    private final Map<BlockTypeEnum, ConcurrentSkipListMap<Long, Location>> byBlockType = new EnumMap<>(BlockTypeEnum.class);
+
+    // Guarded by writeLock.
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(64 * 1024);
+    private volatile Segment activeSegment;
+    private long nextId = 1;
+
+    public SegmentStore(DataStoreProperties properties) throws IOException {
+        DataStoreProperties.SegmentSettings settings = properties.getSegment();
+        this.directory = Paths.get(settings.getDirectory());
+        this.segmentSizeBytes = settings.getSizeBytes();
+        this.forceOnWrite = settings.isForceOnWrite();
+        this.compactionLiveRatio = settings.getCompactionLiveRatio();
+        for (BlockTypeEnum blockType : BlockTypeEnum.values()) {
+            byBlockType.put(blockType, new ConcurrentSkipListMap<>());
+        }
+
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Stores a new envelope, or a new version of a stored one when its dataStoreId is set. Assigns the ids of
+     * a new envelope.
+     *
+     * @throws DataIntegrityViolationException when the name belongs to another envelope.
+     */
+    public void save(DataBodyEntity dataBodyEntity) {
+        saveAll(Collections.singletonList(dataBodyEntity));
+    }
+
+    /**
+     * As {@link #save(DataBodyEntity)}; when one of the names is taken, none of the envelopes is stored.
+     */
+    public void saveAll(List<DataBodyEntity> dataBodyEntities) {
+        writeLock.lock();
+        try {
+            checkNames(dataBodyEntities);
+            for (DataBodyEntity dataBodyEntity : dataBodyEntities) {
+                assignIds(dataBodyEntity);
+                index(append(encode(dataBodyEntity)), dataBodyEntity.getDataStoreId(),
+                        dataBodyEntity.getDataHeaderEntity().getName(), dataBodyEntity.getDataHeaderEntity().getBlocktype());
+            }
+            if (forceOnWrite) {
+                activeSegment.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * As {@link #save(DataBodyEntity)} for a body read from {@code body} to the end and stored uncompressed.
+     * {@code checksum} is asked for once the body has been read, and stored with it.
+     */
+    public void save(DataBodyEntity dataBodyEntity, Reader body, Supplier<String> checksum) throws IOException {
+        Path spool = Files.createTempFile(directory, null, SPOOL_SUFFIX);
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE), SPOOL_BUFFER_CHARS);
+            char[] buffer = new char[SPOOL_BUFFER_CHARS];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                writer.write(buffer, 0, read);
+            }
+            writer.flush();
+            long bodyLength = channel.size();
+            dataBodyEntity.setBodyCodec(BodyCodecEnum.NONE);
+            dataBodyEntity.setChecksum(checksum.get());
+
+            writeLock.lock();
+            try {
+                checkNames(Collections.singletonList(dataBodyEntity));
+                assignIds(dataBodyEntity);
+                encodeFields(dataBodyEntity, 0);
+                if (recordBuffer.position() + Integer.BYTES + bodyLength > Integer.MAX_VALUE) {
+                    throw new IOException("Body of " + bodyLength + " bytes is too large for a segment");
+                }
+                writeBodyLength((int) bodyLength);
+                long payloadLength = recordBuffer.position() - RECORD_HEADER_BYTES + bodyLength;
+                recordBuffer.flip();
+
+                // The length is written last, until then a crash leaves the record looking like free space.
+                Segment segment = segmentFor(RECORD_HEADER_BYTES + (int) payloadLength);
+                int offset = segment.append(recordBuffer, channel, (int) bodyLength);
+                crc.reset();
+                crc.update(segment.read(offset + RECORD_HEADER_BYTES, (int) payloadLength));
+                segment.writeInt(offset + 4, (int) crc.getValue());
+                segment.writeInt(offset, (int) payloadLength);
+                index(new Location(segment, offset, RECORD_HEADER_BYTES + (int) payloadLength), dataBodyEntity.getDataStoreId(),
+                        dataBodyEntity.getDataHeaderEntity().getName(), dataBodyEntity.getDataHeaderEntity().getBlocktype());
+                if (forceOnWrite) {
+                    activeSegment.force();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    public Optional<DataBodyEntity> findByName(String name) {
+        return Optional.ofNullable(byName.get(name)).map(SegmentStore::decode);
+    }
+
+    public Optional<DataBodyEntity> findById(long id) {
+        return Optional.ofNullable(byId.get(id)).map(SegmentStore::decode);
+    }
+
+    /**
+     * Up to {@code limit} envelopes of the block type with an id above {@code afterId}, in id order.
+     */
+    public List<DataBodyEntity> findByBlockType(BlockTypeEnum blockType, long afterId, int limit) {
+        return byBlockType.get(blockType).tailMap(afterId, false).values().stream()
+                .limit(limit)
+                .map(SegmentStore::decode)
+                .collect(Collectors.toList());
+    }
+
+    public void forEachByBlockType(BlockTypeEnum blockType, Consumer<DataBodyEntity> consumer) {
+        for (Location location : byBlockType.get(blockType).values()) {
+            consumer.accept(decode(location));
+        }
+    }
+
+    public Set<String> findExistingNames(Collection<String> names) {
+        return names.stream().filter(byName::containsKey).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    public void forEachName(Consumer<String> consumer) {
+        byName.keySet().forEach(consumer);
+    }
+
+    /**
+     * Appends a copy of the record of each named envelope with the block type changed, the body is copied as
+     * stored.
+     *
+     * @return the number of names found, including those that already had the block type.
+     */
+    public int updateBlockType(Collection<String> names, BlockTypeEnum blockType) {
+        writeLock.lock();
+        try {
+            int updated = 0;
+            for (String name : names) {
+                Location location = byName.get(name);
+                if (location != null) {
+                    if (location.blockType != blockType) {
+                        index(append(retag(location, blockType)), location.id, name, blockType);
+                    }
+                    updated++;
+                }
+            }
+            if (forceOnWrite) {
+                activeSegment.force();
+            }
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int updateBlockTypeByNamePrefix(String namePrefix, BlockTypeEnum blockType) {
+        return updateBlockType(byName.keySet().stream().filter(name -> name.startsWith(namePrefix))
+                .collect(Collectors.toList()), blockType);
+    }
+
+    /**
+     * Compacts every segment but the active one whose share of current records is below the configured ratio.
+     *
+     * @return the number of segments deleted.
+     */
+    @Scheduled(fixedDelayString = "${dataserver.store.segment.compaction-interval-millis:60000}")
+    public int compactSegments() {
+        int compacted = 0;
+        for (Segment segment : segments) {
+            if (segment != activeSegment && segment.liveRatio() < compactionLiveRatio) {
+                try {
+                    compact(segment);
+                    compacted++;
+                } catch (IOException e) {
+                    log.error("Compaction of segment {} failed", segment, e);
+                }
+            }
+        }
+        return compacted;
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.force();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.sorted().collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            // Left by a streamed save that was interrupted before its append.
+            if (path.getFileName().toString().endsWith(SPOOL_SUFFIX)) {
+                Files.deleteIfExists(path);
+            }
+        }
+        paths.removeIf(path -> !path.getFileName().toString().endsWith(SEGMENT_SUFFIX));
+        for (int i = 0; i < paths.size(); i++) {
+            String fileName = paths.get(i).getFileName().toString();
+            Segment segment = Segment.open(paths.get(i), Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())));
+            int end = scan(segment);
+            if (end < segment.capacity() && segment.readInt(end) != 0) {
+                log.warn("Discarding incomplete record at {} of segment {}", end, segment);
+                if (i < paths.size() - 1) {
+                    log.error("Segment {} is damaged before its end, records after offset {} are lost", segment, end);
+                }
+                segment.zero(end);
+            }
+            segment.setWritePosition(end);
+            segments.add(segment);
+        }
+
+        if (segments.isEmpty()) {
+            activeSegment = createSegment(1, segmentSizeBytes);
+        } else {
+            activeSegment = segments.get(segments.size() - 1);
+        }
+        log.info("Recovered {} envelopes from {} segments in {}", byId.size(), segments.size(), directory);
+    }
+
+    /**
+     * Indexes the valid records of the segment.
+     *
+     * @return the offset after the last valid record.
+     */
+    private int scan(Segment segment) {
+        int offset = 0;
+        while (offset + RECORD_HEADER_BYTES <= segment.capacity()) {
+            int payloadLength = segment.readInt(offset);
+            if (payloadLength <= 0 || payloadLength > segment.capacity() - offset - RECORD_HEADER_BYTES) {
+                break;
+            }
+            ByteBuffer payload = segment.read(offset + RECORD_HEADER_BYTES, payloadLength);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != segment.readInt(offset + 4)) {
+                break;
+            }
+            // Only the keys are read, the body is left where it is.
+            long id = payload.getLong(0);
+            BlockTypeEnum blockType = BLOCK_TYPES[payload.get(BLOCK_TYPE_OFFSET)];
+            payload.position(NAME_LENGTH_OFFSET + 2);
+            String name = readString(payload, payload.getShort(NAME_LENGTH_OFFSET));
+            Location location = new Location(segment, offset, RECORD_HEADER_BYTES + payloadLength);
+            index(location, id, name, blockType);
+            nextId = Math.max(nextId, id + 1);
+            offset += location.length;
+        }
+        return offset;
+    }
+
+    private void compact(Segment segment) throws IOException {
+        int copied = 0;
+        int offset = 0;
+        while (offset < segment.getWritePosition()) {
+            int length = RECORD_HEADER_BYTES + segment.readInt(offset);
+            long id = segment.readLong(offset + RECORD_HEADER_BYTES);
+            writeLock.lock();
+            try {
+                Location current = byId.get(id);
+                if (current != null && current.segment == segment && current.offset == offset) {
+                    index(append(segment.read(offset, length)), id, current.name, current.blockType);
+                    copied++;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            offset += length;
+        }
+
+        writeLock.lock();
+        try {
+            activeSegment.force();
+            segments.remove(segment);
+            segment.delete();
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Compacted segment {}, {} current records moved", segment, copied);
+    }
+
+    private void checkNames(List<DataBodyEntity> dataBodyEntities) {
+        Map<String, Long> names = new HashMap<>();
+        for (DataBodyEntity dataBodyEntity : dataBodyEntities) {
+            String name = dataBodyEntity.getDataHeaderEntity().getName();
+            Long id = dataBodyEntity.getDataStoreId();
+            Location stored = byName.get(name);
+            if ((stored != null && !stored.id.equals(id)) || (names.containsKey(name) && (id == null || !id.equals(names.get(name))))) {
+                throw new DataIntegrityViolationException("Data header name is already stored: " + name);
+            }
+            names.put(name, id);
+        }
+    }
+
+    private void assignIds(DataBodyEntity dataBodyEntity) {
+        if (dataBodyEntity.getDataStoreId() == null) {
+            dataBodyEntity.setDataStoreId(nextId++);
+        } else {
+            nextId = Math.max(nextId, dataBodyEntity.getDataStoreId() + 1);
+        }
+        DataHeaderEntity dataHeaderEntity = dataBodyEntity.getDataHeaderEntity();
+        dataHeaderEntity.setDataHeaderId(dataBodyEntity.getDataStoreId());
+        if (dataBodyEntity.getCreatedTimestamp() == null) {
+            dataBodyEntity.setCreatedTimestamp(Instant.now());
+        }
+        if (dataHeaderEntity.getCreatedTimestamp() == null) {
+            dataHeaderEntity.setCreatedTimestamp(dataBodyEntity.getCreatedTimestamp());
+        }
+    }
+
+    private ByteBuffer encode(DataBodyEntity dataBodyEntity) {
+        byte[] body = dataBodyEntity.getBodyCodec() == BodyCodecEnum.NONE
+                ? dataBodyEntity.getDataBody().getBytes(StandardCharsets.UTF_8) : dataBodyEntity.getCompressedBody();
+        encodeFields(dataBodyEntity, body.length);
+        writeBodyLength(body.length);
+        recordBuffer.put(body);
+        int payloadLength = recordBuffer.position() - RECORD_HEADER_BYTES;
+
+        crc.reset();
+        crc.update(recordBuffer.array(), RECORD_HEADER_BYTES, payloadLength);
+        recordBuffer.putInt(0, payloadLength).putInt(4, (int) crc.getValue());
+        recordBuffer.flip();
+        return recordBuffer;
+    }
+
+    /**
+     * Writes the fields before the body into the record buffer, leaving the header zero and room for the body
+     * length and {@code bodyCapacity} bytes of body.
+     */
+    private void encodeFields(DataBodyEntity dataBodyEntity, int bodyCapacity) {
+        byte[] name = dataBodyEntity.getDataHeaderEntity().getName().getBytes(StandardCharsets.UTF_8);
+        byte[] checksum = dataBodyEntity.getChecksum() == null ? null : dataBodyEntity.getChecksum().getBytes(StandardCharsets.UTF_8);
+        Instant createdTimestamp = dataBodyEntity.getCreatedTimestamp();
+        Instant headerCreatedTimestamp = dataBodyEntity.getDataHeaderEntity().getCreatedTimestamp();
+
+        int payloadLength = 8 + 12 + 12 + 2 + 2 + name.length + 4 + (checksum == null ? 0 : checksum.length) + 4 + bodyCapacity;
+        if (recordBuffer.capacity() < RECORD_HEADER_BYTES + payloadLength) {
+            recordBuffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadLength);
+        }
+        recordBuffer.clear();
+        recordBuffer.putInt(0).putInt(0);
+        recordBuffer.putLong(dataBodyEntity.getDataStoreId())
+                .putLong(createdTimestamp.getEpochSecond())
+                .putInt(createdTimestamp.getNano())
+                .putLong(headerCreatedTimestamp.getEpochSecond())
+                .putInt(headerCreatedTimestamp.getNano())
+                .put((byte) dataBodyEntity.getDataHeaderEntity().getBlocktype().ordinal())
+                .put((byte) dataBodyEntity.getBodyCodec().ordinal())
+                .putShort((short) name.length)
+                .put(name);
+        if (checksum == null) {
+            recordBuffer.putInt(-1);
+        } else {
+            recordBuffer.putInt(checksum.length).put(checksum);
+        }
+    }
+
+    private void writeBodyLength(int bodyLength) {
+        recordBuffer.putInt(bodyLength);
+    }
+
+    private ByteBuffer retag(Location location, BlockTypeEnum blockType) {
+        if (recordBuffer.capacity() < location.length) {
+            recordBuffer = ByteBuffer.allocate(location.length);
+        }
+        recordBuffer.clear();
+        recordBuffer.put(location.segment.read(location.offset, location.length));
+        recordBuffer.put(RECORD_HEADER_BYTES + BLOCK_TYPE_OFFSET, (byte) blockType.ordinal());
+
+        crc.reset();
+        crc.update(recordBuffer.array(), RECORD_HEADER_BYTES, location.length - RECORD_HEADER_BYTES);
+        recordBuffer.putInt(4, (int) crc.getValue());
+        recordBuffer.flip();
+        return recordBuffer;
+    }
+
+    private static DataBodyEntity decode(Location location) {
+        ByteBuffer payload = location.segment.read(location.offset + RECORD_HEADER_BYTES, location.length - RECORD_HEADER_BYTES);
+        DataBodyEntity dataBodyEntity = new DataBodyEntity();
+        DataHeaderEntity dataHeaderEntity = new DataHeaderEntity();
+        dataBodyEntity.setDataHeaderEntity(dataHeaderEntity);
+
+        long id = payload.getLong();
+        dataBodyEntity.setDataStoreId(id);
+        dataBodyEntity.setCreatedTimestamp(Instant.ofEpochSecond(payload.getLong(), payload.getInt()));
+        dataHeaderEntity.setDataHeaderId(id);
+        dataHeaderEntity.setCreatedTimestamp(Instant.ofEpochSecond(payload.getLong(), payload.getInt()));
+        dataHeaderEntity.setBlocktype(BLOCK_TYPES[payload.get()]);
+        dataBodyEntity.setBodyCodec(BODY_CODECS[payload.get()]);
+        dataHeaderEntity.setName(readString(payload, payload.getShort()));
+        int checksumLength = payload.getInt();
+        dataBodyEntity.setChecksum(checksumLength < 0 ? null : readString(payload, checksumLength));
+        byte[] body = new byte[payload.getInt()];
+        payload.get(body);
+        if (dataBodyEntity.getBodyCodec() == BodyCodecEnum.NONE) {
+            dataBodyEntity.setDataBody(new String(body, StandardCharsets.UTF_8));
+        } else {
+            dataBodyEntity.setCompressedBody(body);
+        }
+        return dataBodyEntity;
+    }
+
+    private static String readString(ByteBuffer payload, int length) {
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a complete record, header included, rolling to a new segment when it does not fit.
+     */
+    private Location append(ByteBuffer record) {
+        int length = record.remaining();
+        Segment segment = segmentFor(length);
+        return new Location(segment, segment.append(record), length);
+    }
+
+    /**
+     * @return the active segment, after rolling to a new one if a record of {@code length} bytes does not fit.
+     */
+    private Segment segmentFor(int length) {
+        if (activeSegment.remaining() < length) {
+            activeSegment.force();
+            activeSegment = createSegment(activeSegment.getSequence() + 1, Math.max(segmentSizeBytes, length));
+        }
+        return activeSegment;
+    }
+
+    private Segment createSegment(long sequence, int sizeBytes) {
+        try {
+            Segment segment = Segment.create(directory.resolve(String.format("%020d%s", sequence, SEGMENT_SUFFIX)), sequence, sizeBytes);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create segment " + sequence + " in " + directory, e);
+        }
+    }
+
+    private void index(Location location, long id, String name, BlockTypeEnum blockType) {
+        location.id = id;
+        location.name = name;
+        location.blockType = blockType;
+        location.segment.addLiveBytes(location.length);
+
+        Location previous = byId.put(id, location);
+        byName.put(name, location);
+        byBlockType.get(blockType).put(id, location);
+        if (previous != null) {
+            previous.segment.addLiveBytes(-previous.length);
+            if (!previous.name.equals(name)) {
+                byName.remove(previous.name, previous);
+            }
+            if (previous.blockType != blockType) {
+                byBlockType.get(previous.blockType).remove(id, previous);
+            }
+        }
+    }
+
+    /**
+     * Where the current record of an envelope is. Only set up before it is published to the index.
+     */
+    private static class Location {
+
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+        private Long id;
+        private String name;
+        private BlockTypeEnum blockType;
+
+        Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -2,12 +2,25 @@ package com.db.dataplatform.techtest.server.service;
 
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepositoryCustom.DataBodyReaderConsumer;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface DataBodyService {
     void saveDataBody(DataBodyEntity dataBody);
-    List<DataBodyEntity> getDataByBlockType(BlockTypeEnum blockType);
+    void saveDataBody(DataBodyEntity dataBody, Reader dataBodyReader, Supplier<String> checksum);
+    void saveDataBodies(List<DataBodyEntity> dataBodies);
+    List<DataEnvelopeProjection> getDataByBlockType(BlockTypeEnum blockType);
+    List<DataEnvelopeProjection> getDataByBlockTypeAfter(BlockTypeEnum blockType, long afterId, int limit);
+    void forEachByBlockType(BlockTypeEnum blockType, Consumer<DataEnvelopeProjection> consumer);
     Optional<DataBodyEntity> getDataByBlockName(String blockName);
+    Optional<DataEnvelopeProjection> getEnvelopeByName(String name);
+    void replaceDataBody(DataBodyEntity dataBody);
+    boolean readDataBody(String blockName, DataBodyReaderConsumer consumer) throws IOException;
 }
@@ -1,7 +1,15 @@
 package com.db.dataplatform.techtest.server.service;
 
-import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface DataHeaderService {
-    void saveHeader(DataHeaderEntity entity);
+    Set<String> findExistingNames(Collection<String> names);
+    void forEachName(Consumer<String> consumer);
+    int updateBlockType(String name, BlockTypeEnum blockType);
+    int updateBlockType(Collection<String> names, BlockTypeEnum blockType);
+    int updateBlockTypeByNamePrefix(String namePrefix, BlockTypeEnum blockType);
 }
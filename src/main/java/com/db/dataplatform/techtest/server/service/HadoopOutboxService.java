@@ -0,0 +1,23 @@
+package com.db.dataplatform.techtest.server.service;
+
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+
+import java.io.Reader;
+import java.util.List;
+
+public interface HadoopOutboxService {
+    void enqueue(DataEnvelope envelope);
+    void enqueue(DataHeader dataHeader, String md5Checksum, Reader dataBody);
+    /**
+     * Claims up to {@code batchSize} due rows whose payloads add up to at most {@code maxPayloadChars}. The first
+     * due row is claimed even when its payload alone is larger, so it is not stuck behind the limit.
+     */
+    List<HadoopOutboxEntity> claimBatch(int batchSize, long maxPayloadChars);
+    void markDelivered(List<HadoopOutboxEntity> entries);
+    void markFailed(List<HadoopOutboxEntity> entries);
+    int releaseClaims(List<HadoopOutboxEntity> entries);
+    int releaseExpiredClaims();
+    long countPending();
+}
@@ -1,33 +1,147 @@
 package com.db.dataplatform.techtest.server.service.impl;
 
+import com.db.dataplatform.techtest.server.component.DataBodyCodec;
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
 import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepository;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepositoryCustom.DataBodyReaderConsumer;
 import com.db.dataplatform.techtest.server.service.DataBodyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = DataStoreProperties.BACKEND_PROPERTY, havingValue = DataStoreProperties.JPA_BACKEND, matchIfMissing = true)
 public class DataBodyServiceImpl implements DataBodyService {
 
     private final DataStoreRepository dataStoreRepository;
+    private final EntityManager entityManager;
+    private final DataBodyCodec dataBodyCodec;
 
+    /**
+     * Compresses the body if its block type is configured for it, in which case dataBody of the given entity
+     * is cleared.
+     */
     @Override
     public void saveDataBody(DataBodyEntity dataBody) {
+        dataBodyCodec.encode(dataBody);
         dataStoreRepository.save(dataBody);
     }
 
+    /**
+     * Inserts the row with an empty body and then streams the body into it, so it never has to be held as a
+     * String. The entity is detached afterwards since its dataBody field does not hold the stored body.
+     * Streamed bodies are stored uncompressed. The checksum is only known once the body has been read, so it is
+     * set on the row afterwards when there is one.
+     */
     @Override
-    public List<DataBodyEntity> getDataByBlockType(BlockTypeEnum blockType) {
-        return dataStoreRepository.findByDataHeaderEntity_Blocktype(blockType);
+    @Transactional
+    public void saveDataBody(DataBodyEntity dataBody, Reader dataBodyReader, Supplier<String> checksum) {
+        dataBody.setDataBody("");
+        dataStoreRepository.saveAndFlush(dataBody);
+        dataStoreRepository.writeDataBody(dataBody.getDataStoreId(), dataBodyReader);
+        String bodyChecksum = checksum.get();
+        if (bodyChecksum != null) {
+            dataStoreRepository.updateChecksum(dataBody.getDataStoreId(), bodyChecksum);
+        }
+        entityManager.detach(dataBody);
+    }
+
+    @Override
+    public void saveDataBodies(List<DataBodyEntity> dataBodies) {
+        dataBodies.forEach(dataBodyCodec::encode);
+        dataStoreRepository.saveAll(dataBodies);
+    }
+
+    /**
+     * Reads projections rather than entities, so nothing is added to the persistence context.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<DataEnvelopeProjection> getDataByBlockType(BlockTypeEnum blockType) {
+        return decode(dataStoreRepository.findEnvelopesByBlockType(blockType));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DataEnvelopeProjection> getDataByBlockTypeAfter(BlockTypeEnum blockType, long afterId, int limit) {
+        return decode(dataStoreRepository.findEnvelopePageByBlockType(blockType, afterId, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Hands over the rows one at a time as they are read from the cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachByBlockType(BlockTypeEnum blockType, Consumer<DataEnvelopeProjection> consumer) {
+        try (Stream<DataEnvelopeProjection> dataEnvelopeProjections = dataStoreRepository.streamEnvelopesByBlockType(blockType)) {
+            dataEnvelopeProjections.forEach(dataEnvelopeProjection -> {
+                dataBodyCodec.decode(dataEnvelopeProjection);
+                consumer.accept(dataEnvelopeProjection);
+            });
+        }
     }
 
     @Override
     public Optional<DataBodyEntity> getDataByBlockName(String blockName) {
-        return Optional.ofNullable(dataStoreRepository.findByDataHeaderEntity_Name(blockName));
+        Optional<DataBodyEntity> dataBodyEntity = Optional.ofNullable(dataStoreRepository.findByDataHeaderEntity_Name(blockName));
+        dataBodyEntity.ifPresent(dataBodyCodec::decode);
+        return dataBodyEntity;
+    }
+
+    /**
+     * Reads a projection rather than the entity, so nothing is added to the persistence context of the
+     * surrounding transaction.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<DataEnvelopeProjection> getEnvelopeByName(String name) {
+        Optional<DataEnvelopeProjection> dataEnvelopeProjection = Optional.ofNullable(dataStoreRepository.findEnvelopeByName(name));
+        dataEnvelopeProjection.ifPresent(dataBodyCodec::decode);
+        return dataEnvelopeProjection;
+    }
+
+    /**
+     * Overwrites the body, checksum and block type of the stored envelope of the same name in place, keeping its
+     * ids, or saves the envelope if there is none.
+     */
+    @Override
+    @Transactional
+    public void replaceDataBody(DataBodyEntity dataBody) {
+        DataBodyEntity stored = dataStoreRepository.findByDataHeaderEntity_Name(dataBody.getDataHeaderEntity().getName());
+        if (stored == null) {
+            saveDataBody(dataBody);
+            return;
+        }
+        stored.getDataHeaderEntity().setBlocktype(dataBody.getDataHeaderEntity().getBlocktype());
+        stored.setDataBody(dataBody.getDataBody());
+        stored.setChecksum(dataBody.getChecksum());
+        dataBodyCodec.encode(stored);
+        dataBody.setDataStoreId(stored.getDataStoreId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean readDataBody(String blockName, DataBodyReaderConsumer consumer) throws IOException {
+        return dataStoreRepository.readDataBody(blockName, consumer);
+    }
+
+    private List<DataEnvelopeProjection> decode(List<DataEnvelopeProjection> dataEnvelopeProjections) {
+        dataEnvelopeProjections.forEach(dataBodyCodec::decode);
+        return dataEnvelopeProjections;
     }
 }
@@ -1,18 +1,66 @@
 package com.db.dataplatform.techtest.server.service.impl;
 
-import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.repository.DataHeaderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = DataStoreProperties.BACKEND_PROPERTY, havingValue = DataStoreProperties.JPA_BACKEND, matchIfMissing = true)
 public class DataHeaderServiceImpl implements com.db.dataplatform.techtest.server.service.DataHeaderService {
 
     private final DataHeaderRepository dataHeaderRepository;
 
     @Override
-    public void saveHeader(DataHeaderEntity entity) {
-        dataHeaderRepository.save(entity);
+    public Set<String> findExistingNames(Collection<String> names) {
+        return new HashSet<>(dataHeaderRepository.findExistingNames(names));
+    }
+
+    /**
+     * Hands over the names one at a time as they are read from the cursor.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachName(Consumer<String> consumer) {
+        try (Stream<String> names = dataHeaderRepository.streamNames()) {
+            names.forEach(consumer);
+        }
+    }
+
+    /**
+     * Changes the block type with one update statement, the envelope is not loaded.
+     *
+     * @return the number of envelopes updated.
+     */
+    @Override
+    @Transactional
+    public int updateBlockType(String name, BlockTypeEnum blockType) {
+        return dataHeaderRepository.updateBlockType(name, blockType);
+    }
+
+    @Override
+    @Transactional
+    public int updateBlockType(Collection<String> names, BlockTypeEnum blockType) {
+        if (names.isEmpty()) {
+            return 0;
+        }
+        return dataHeaderRepository.updateBlockType(names, blockType);
+    }
+
+    @Override
+    @Transactional
+    public int updateBlockTypeByNamePrefix(String namePrefix, BlockTypeEnum blockType) {
+        String escaped = namePrefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return dataHeaderRepository.updateBlockTypeByNameLike(escaped + "%", blockType);
     }
 }
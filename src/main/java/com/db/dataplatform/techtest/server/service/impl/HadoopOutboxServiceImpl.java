@@ -0,0 +1,173 @@
+package com.db.dataplatform.techtest.server.service.impl;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.HadoopRetryPolicy;
+import com.db.dataplatform.techtest.server.configuration.HadoopOutboxProperties;
+import com.db.dataplatform.techtest.server.mapper.JsonStringEscapingReader;
+import com.db.dataplatform.techtest.server.persistence.OutboxStatusEnum;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DueOutboxEntryProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.HadoopOutboxRepository;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Reader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HadoopOutboxServiceImpl implements HadoopOutboxService {
+
+    private final HadoopOutboxRepository hadoopOutboxRepository;
+    private final HadoopOutboxProperties hadoopOutboxProperties;
+    private final HadoopRetryPolicy hadoopRetryPolicy;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Must run inside the transaction that writes the DATA_STORE row so both commit or neither does.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(DataEnvelope envelope) {
+        HadoopOutboxEntity entry = new HadoopOutboxEntity();
+        entry.setDataHeaderName(envelope.getDataHeader().getName());
+        entry.setPayload(toJson(envelope));
+        entry.setStatus(OutboxStatusEnum.PENDING);
+        hadoopOutboxRepository.save(entry);
+    }
+
+    /**
+     * As {@link #enqueue(DataEnvelope)} for a body that is only available as a stream. The payload is the same
+     * JSON, assembled around the escaped body while it is copied into the row.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(DataHeader dataHeader, String md5Checksum, Reader dataBody) {
+        String placeholder = UUID.randomUUID().toString();
+        String json = toJson(new DataEnvelope(dataHeader, new DataBody(placeholder), md5Checksum));
+        int placeholderStart = json.indexOf(placeholder);
+
+        HadoopOutboxEntity entry = new HadoopOutboxEntity();
+        entry.setDataHeaderName(dataHeader.getName());
+        entry.setPayload("");
+        entry.setStatus(OutboxStatusEnum.PENDING);
+        hadoopOutboxRepository.saveAndFlush(entry);
+        hadoopOutboxRepository.writePayload(entry.getOutboxId(), new JsonStringEscapingReader(
+                json.substring(0, placeholderStart), dataBody, json.substring(placeholderStart + placeholder.length())));
+    }
+
+    @Override
+    @Transactional
+    public List<HadoopOutboxEntity> claimBatch(int batchSize, long maxPayloadChars) {
+        Instant now = Instant.now();
+        List<Long> dueIds = new ArrayList<>();
+        long payloadChars = 0;
+        for (DueOutboxEntryProjection due : hadoopOutboxRepository.findDue(OutboxStatusEnum.PENDING, now, PageRequest.of(0, batchSize))) {
+            payloadChars += due.getPayloadLength();
+            if (!dueIds.isEmpty() && payloadChars > maxPayloadChars) {
+                break;
+            }
+            dueIds.add(due.getOutboxId());
+        }
+        if (dueIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = hadoopOutboxRepository.claim(dueIds, claimToken, now, OutboxStatusEnum.PENDING, OutboxStatusEnum.CLAIMED);
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        return hadoopOutboxRepository.findByClaimedByOrderByOutboxId(claimToken);
+    }
+
+    @Override
+    @Transactional
+    public void markDelivered(List<HadoopOutboxEntity> entries) {
+        hadoopOutboxRepository.deleteByOutboxIdIn(entries.stream().map(HadoopOutboxEntity::getOutboxId).collect(Collectors.toList()));
+    }
+
+    /**
+     * Reschedules the rows of a batch by their attempt count, one update statement for each count, which is
+     * usually one for the whole batch. The payloads are not written back.
+     */
+    @Override
+    @Transactional
+    public void markFailed(List<HadoopOutboxEntity> entries) {
+        Instant now = Instant.now();
+        Map<Integer, List<HadoopOutboxEntity>> byAttempts = entries.stream()
+                .collect(Collectors.groupingBy(HadoopOutboxEntity::getAttempts, TreeMap::new, Collectors.toList()));
+        byAttempts.forEach((attempts, sameAttempts) -> {
+            int failedAttempts = attempts + 1;
+            Instant nextAttempt = hadoopRetryPolicy.nextAttempt(failedAttempts, now);
+            OutboxStatusEnum status = OutboxStatusEnum.PENDING;
+            if (nextAttempt == null) {
+                // Only with hadoop.retry.max-attempts set: the row stays in the table but is never claimed again.
+                sameAttempts.forEach(entry -> log.error("Giving up pushing {} to Hadoop after {} attempts",
+                        entry.getDataHeaderName(), failedAttempts));
+                status = OutboxStatusEnum.FAILED;
+                nextAttempt = now;
+            }
+            hadoopOutboxRepository.reschedule(
+                    sameAttempts.stream().map(HadoopOutboxEntity::getOutboxId).collect(Collectors.toList()),
+                    sameAttempts.stream().map(HadoopOutboxEntity::getClaimedBy).collect(Collectors.toSet()),
+                    status, nextAttempt, OutboxStatusEnum.CLAIMED);
+        });
+    }
+
+    /**
+     * Returns rows that were claimed but not sent, so they are claimed again on a later poll.
+     */
+    @Override
+    @Transactional
+    public int releaseClaims(List<HadoopOutboxEntity> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        return hadoopOutboxRepository.releaseClaims(
+                entries.stream().map(HadoopOutboxEntity::getOutboxId).collect(Collectors.toList()),
+                entries.stream().map(HadoopOutboxEntity::getClaimedBy).collect(Collectors.toSet()),
+                OutboxStatusEnum.PENDING, OutboxStatusEnum.CLAIMED);
+    }
+
+    /**
+     * Hands rows back to the pool when their claim outlived the timeout, e.g. because the owning
+     * process stopped before it could report the delivery outcome.
+     */
+    @Override
+    @Transactional
+    public int releaseExpiredClaims() {
+        Instant cutoff = Instant.now().minusMillis(hadoopOutboxProperties.getClaimTimeoutMillis());
+        return hadoopOutboxRepository.releaseClaimsOlderThan(cutoff, OutboxStatusEnum.PENDING, OutboxStatusEnum.CLAIMED);
+    }
+
+    @Override
+    public long countPending() {
+        return hadoopOutboxRepository.countByStatus(OutboxStatusEnum.PENDING);
+    }
+
+    private String toJson(DataEnvelope envelope) {
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error serialising data envelope " + envelope.getDataHeader().getName(), e);
+        }
+    }
+}
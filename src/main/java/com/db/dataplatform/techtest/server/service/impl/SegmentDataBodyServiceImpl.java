@@ -0,0 +1,120 @@
+package com.db.dataplatform.techtest.server.service.impl;
+
+import com.db.dataplatform.techtest.server.component.DataBodyCodec;
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepositoryCustom.DataBodyReaderConsumer;
+import com.db.dataplatform.techtest.server.persistence.segment.SegmentStore;
+import com.db.dataplatform.techtest.server.service.DataBodyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the envelopes in the {@link SegmentStore} instead of the DATA_STORE table.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = DataStoreProperties.BACKEND_PROPERTY, havingValue = DataStoreProperties.SEGMENT_BACKEND)
+public class SegmentDataBodyServiceImpl implements DataBodyService {
+
+    private final SegmentStore segmentStore;
+    private final DataBodyCodec dataBodyCodec;
+
+    @Override
+    public void saveDataBody(DataBodyEntity dataBody) {
+        dataBodyCodec.encode(dataBody);
+        segmentStore.save(dataBody);
+    }
+
+    /**
+     * The body is streamed into a single record with its checksum, uncompressed as with the DATA_STORE table.
+     */
+    @Override
+    public void saveDataBody(DataBodyEntity dataBody, Reader dataBodyReader, Supplier<String> checksum) {
+        try {
+            segmentStore.save(dataBody, dataBodyReader, checksum);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void saveDataBodies(List<DataBodyEntity> dataBodies) {
+        dataBodies.forEach(dataBodyCodec::encode);
+        segmentStore.saveAll(dataBodies);
+    }
+
+    @Override
+    public List<DataEnvelopeProjection> getDataByBlockType(BlockTypeEnum blockType) {
+        return decode(segmentStore.findByBlockType(blockType, 0L, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<DataEnvelopeProjection> getDataByBlockTypeAfter(BlockTypeEnum blockType, long afterId, int limit) {
+        return decode(segmentStore.findByBlockType(blockType, afterId, limit));
+    }
+
+    @Override
+    public void forEachByBlockType(BlockTypeEnum blockType, Consumer<DataEnvelopeProjection> consumer) {
+        segmentStore.forEachByBlockType(blockType, dataBodyEntity -> consumer.accept(decode(dataBodyEntity)));
+    }
+
+    @Override
+    public Optional<DataBodyEntity> getDataByBlockName(String blockName) {
+        Optional<DataBodyEntity> dataBodyEntity = segmentStore.findByName(blockName);
+        dataBodyEntity.ifPresent(dataBodyCodec::decode);
+        return dataBodyEntity;
+    }
+
+    @Override
+    public Optional<DataEnvelopeProjection> getEnvelopeByName(String name) {
+        return segmentStore.findByName(name).map(this::decode);
+    }
+
+    /**
+     * Appends the envelope as a new version of the stored envelope of the same name, or as a new envelope if
+     * there is none.
+     */
+    @Override
+    public void replaceDataBody(DataBodyEntity dataBody) {
+        segmentStore.findByName(dataBody.getDataHeaderEntity().getName())
+                .ifPresent(stored -> dataBody.setDataStoreId(stored.getDataStoreId()));
+        saveDataBody(dataBody);
+    }
+
+    @Override
+    public boolean readDataBody(String blockName, DataBodyReaderConsumer consumer) throws IOException {
+        Optional<DataBodyEntity> dataBodyEntity = getDataByBlockName(blockName);
+        if (!dataBodyEntity.isPresent()) {
+            return false;
+        }
+        consumer.accept(new StringReader(dataBodyEntity.get().getDataBody()));
+        return true;
+    }
+
+    private List<DataEnvelopeProjection> decode(List<DataBodyEntity> dataBodyEntities) {
+        return dataBodyEntities.stream().map(this::decode).collect(Collectors.toList());
+    }
+
+    private DataEnvelopeProjection decode(DataBodyEntity dataBodyEntity) {
+        DataEnvelopeProjection dataEnvelopeProjection = new DataEnvelopeProjection(dataBodyEntity.getDataStoreId(),
+                dataBodyEntity.getDataHeaderEntity().getName(), dataBodyEntity.getDataHeaderEntity().getBlocktype(),
+                dataBodyEntity.getDataBody(), dataBodyEntity.getBodyCodec(), dataBodyEntity.getCompressedBody(),
+                dataBodyEntity.getChecksum());
+        dataBodyCodec.decode(dataEnvelopeProjection);
+        return dataEnvelopeProjection;
+    }
+}
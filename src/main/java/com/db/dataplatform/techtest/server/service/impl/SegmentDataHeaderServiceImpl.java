@@ -0,0 +1,51 @@
+package com.db.dataplatform.techtest.server.service.impl;
+
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.segment.SegmentStore;
+import com.db.dataplatform.techtest.server.service.DataHeaderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The segment store keeps a header in the record of its body, headers are saved with their bodies by
+ * {@link SegmentDataBodyServiceImpl}.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = DataStoreProperties.BACKEND_PROPERTY, havingValue = DataStoreProperties.SEGMENT_BACKEND)
+public class SegmentDataHeaderServiceImpl implements DataHeaderService {
+
+    private final SegmentStore segmentStore;
+
+    @Override
+    public Set<String> findExistingNames(Collection<String> names) {
+        return segmentStore.findExistingNames(names);
+    }
+
+    @Override
+    public void forEachName(Consumer<String> consumer) {
+        segmentStore.forEachName(consumer);
+    }
+
+    @Override
+    public int updateBlockType(String name, BlockTypeEnum blockType) {
+        return segmentStore.updateBlockType(Collections.singletonList(name), blockType);
+    }
+
+    @Override
+    public int updateBlockType(Collection<String> names, BlockTypeEnum blockType) {
+        return segmentStore.updateBlockType(names, blockType);
+    }
+
+    @Override
+    public int updateBlockTypeByNamePrefix(String namePrefix, BlockTypeEnum blockType) {
+        return segmentStore.updateBlockTypeByNamePrefix(namePrefix, blockType);
+    }
+}
@@ -1,4 +1,4 @@
-create sequence if not exists SEQ_DATA_HEADER;
+create sequence if not exists SEQ_DATA_HEADER increment by 50;
 
 drop table if exists DATA_HEADER;
 
@@ -12,7 +12,9 @@ create table DATA_HEADER
     CONSTRAINT UK_DATA_HEADER UNIQUE (NAME)
 );
 
-create sequence if not exists SEQ_DATA_STORE;
+create index if not exists IX_DATA_HEADER_BLOCKTYPE on DATA_HEADER (BLOCKTYPE, DATA_HEADER_ID, NAME, CREATED_TIMESTAMP);
+
+create sequence if not exists SEQ_DATA_STORE increment by 50;
 
 drop table if exists DATA_STORE;
 
@@ -20,9 +22,36 @@ create table DATA_STORE
 (
     DATA_STORE_ID           NUMBER NOT NULL,
     DATA_HEADER_ID          NUMBER NOT NULL,
-    DATA_BODY               VARCHAR2(1000 CHAR) NOT NULL,
+    DATA_BODY               CLOB,
+    BODY_CODEC              VARCHAR2(7 CHAR) DEFAULT 'NONE' NOT NULL,
+    COMPRESSED_BODY         BLOB,
     MD5_CHECKSUM            VARCHAR2(1000 CHAR),
     CREATED_TIMESTAMP       TIMESTAMP (6) NOT NULL,
-    CONSTRAINT PK_DATA_STORE PRIMARY KEY (DATA_STORE_ID),
-    CONSTRAINT FK_DS_DH FOREIGN KEY (DATA_HEADER_ID) REFERENCES DATA_HEADER (DATA_HEADER_ID)
-);
\ No newline at end of file
+    CONSTRAINT PK_DATA_STORE PRIMARY KEY (DATA_STORE_ID)
+);
+
+create index if not exists IX_DATA_STORE_DATA_HEADER on DATA_STORE (DATA_HEADER_ID);
+
+alter table DATA_STORE add constraint FK_DS_DH FOREIGN KEY (DATA_HEADER_ID) REFERENCES DATA_HEADER (DATA_HEADER_ID);
+
+create sequence if not exists SEQ_HADOOP_OUTBOX increment by 50;
+
+drop table if exists HADOOP_OUTBOX;
+
+create table HADOOP_OUTBOX
+(
+    OUTBOX_ID               NUMBER NOT NULL,
+    DATA_HEADER_NAME        VARCHAR2(30 CHAR) NOT NULL,
+    PAYLOAD                 CLOB NOT NULL,
+    STATUS                  VARCHAR2(10 CHAR) NOT NULL,
+    ATTEMPTS                NUMBER DEFAULT 0 NOT NULL,
+    NEXT_ATTEMPT_TIMESTAMP  TIMESTAMP (6) NOT NULL,
+    CLAIMED_BY              VARCHAR2(36 CHAR),
+    CLAIMED_TIMESTAMP       TIMESTAMP (6),
+    CREATED_TIMESTAMP       TIMESTAMP (6) NOT NULL,
+    CONSTRAINT PK_HADOOP_OUTBOX PRIMARY KEY (OUTBOX_ID)
+);
+
+create index if not exists IX_HADOOP_OUTBOX_DUE on HADOOP_OUTBOX (STATUS, NEXT_ATTEMPT_TIMESTAMP, OUTBOX_ID);
+
+create index if not exists IX_HADOOP_OUTBOX_CLAIM on HADOOP_OUTBOX (CLAIMED_BY);
\ No newline at end of file
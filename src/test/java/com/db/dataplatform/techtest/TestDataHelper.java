@@ -4,8 +4,10 @@ import com.db.dataplatform.techtest.server.api.model.DataBody;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
 import com.db.dataplatform.techtest.server.api.model.DataHeader;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
 import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
 
 import java.time.Instant;
 
@@ -32,6 +34,11 @@ public class TestDataHelper {
         return dataBodyEntity;
     }
 
+    public static DataEnvelopeProjection createTestDataEnvelopeProjection(Long dataStoreId) {
+        return new DataEnvelopeProjection(dataStoreId, TEST_NAME, BlockTypeEnum.BLOCKTYPEA, DUMMY_DATA,
+                BodyCodecEnum.NONE, null, DUMMY_CHECKSUM);
+    }
+
     public static DataEnvelope createTestDataEnvelopeApiObject() {
         DataBody dataBody = new DataBody(DUMMY_DATA);
         DataHeader dataHeader = new DataHeader(TEST_NAME, BlockTypeEnum.BLOCKTYPEA);
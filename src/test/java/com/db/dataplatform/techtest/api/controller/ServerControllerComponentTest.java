@@ -1,33 +1,73 @@
 package com.db.dataplatform.techtest.api.controller;
 
 import com.db.dataplatform.techtest.TestDataHelper;
+import com.db.dataplatform.techtest.server.api.DataEnvelopeRequestBodyAdvice;
+import com.db.dataplatform.techtest.server.api.PushAdmissionInterceptor;
+import com.db.dataplatform.techtest.server.api.RestResponseEntityExceptionHandler;
 import com.db.dataplatform.techtest.server.api.controller.ServerController;
+import com.db.dataplatform.techtest.server.api.model.AdmissionRejection;
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.BulkIngestor;
+import com.db.dataplatform.techtest.server.component.IngestMetrics;
 import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.component.impl.DataEnvelopeResponseCacheImpl;
+import com.db.dataplatform.techtest.server.component.impl.PushAdmissionControlImpl;
+import com.db.dataplatform.techtest.server.component.impl.RequestExecutorImpl;
+import com.db.dataplatform.techtest.server.configuration.AdmissionControlProperties;
+import com.db.dataplatform.techtest.server.configuration.DataEnvelopeCacheProperties;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionModeEnum;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionProperties;
 import com.db.dataplatform.techtest.server.exception.HadoopClientException;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.util.UriTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standaloneSetup;
 
@@ -35,31 +75,56 @@ import static org.springframework.test.web.servlet.setup.MockMvcBuilders.standal
 public class ServerControllerComponentTest {
 
 	public static final String URI_PUSHDATA = "http://localhost:8090/dataserver/pushdata?clientChecksum=";
+	public static final String URI_PUSHDATA_BULK = "http://localhost:8090/dataserver/pushdata/bulk";
 	public static final UriTemplate URI_GETDATA = new UriTemplate("http://localhost:8090/dataserver/data/{blockType}");
+	public static final UriTemplate URI_PUSHDATABODY = new UriTemplate("http://localhost:8090/dataserver/pushdata/{blockType}/{name}?clientChecksum={clientChecksum}");
+	public static final UriTemplate URI_GETDATABODY = new UriTemplate("http://localhost:8090/dataserver/databody/{name}");
 	public static final UriTemplate URI_PATCHDATA = new UriTemplate("http://localhost:8090/dataserver/update/{name}/{newBlockType}");
+	public static final UriTemplate URI_PATCHDATA_BULK = new UriTemplate("http://localhost:8090/dataserver/update/{newBlockType}");
 	private static final String INVALID_BLOCKTYPE = "Invalid_BlockType";
 
 	@Mock
 	private Server serverMock;
 
+	@Mock
+	private BulkIngestor bulkIngestorMock;
+
+	@Mock
+	private HadoopOutboxService hadoopOutboxServiceMock;
+
 	private DataEnvelope testDataEnvelope;
 	private ObjectMapper objectMapper;
+	private SimpleMeterRegistry meterRegistry;
 	private MockMvc mockMvc;
 	private ServerController serverController;
+	private RequestExecutorImpl requestExecutor;
 
 	@Before
 	public void setUp() throws HadoopClientException, NoSuchAlgorithmException, IOException {
-		serverController = new ServerController(serverMock);
-		mockMvc = standaloneSetup(serverController).build();
 		objectMapper = Jackson2ObjectMapperBuilder
 				.json()
 				.build();
+		RequestExecutionProperties requestExecutionProperties = new RequestExecutionProperties();
+		requestExecutionProperties.setMode(RequestExecutionModeEnum.PLATFORM);
+		requestExecutionProperties.setPlatformThreads(1);
+		requestExecutionProperties.setQueueCapacity(1);
+		requestExecutor = new RequestExecutorImpl(requestExecutionProperties, new SimpleMeterRegistry());
+		serverController = new ServerController(serverMock, bulkIngestorMock,
+				new DataEnvelopeResponseCacheImpl(serverMock, objectMapper, new DataEnvelopeCacheProperties(), new SimpleMeterRegistry()),
+				requestExecutor);
+		meterRegistry = new SimpleMeterRegistry();
+		mockMvc = standaloneSetup(serverController)
+				.setControllerAdvice(new DataEnvelopeRequestBodyAdvice(new IngestMetrics(meterRegistry)),
+						new RestResponseEntityExceptionHandler())
+				.build();
 
 		testDataEnvelope = TestDataHelper.createTestDataEnvelopeApiObject();
 
-		when(serverMock.saveDataEnvelope(any(DataEnvelope.class), any(String.class))).thenReturn(true);
-		when(serverMock.getDataEnvelopByBlockType(BlockTypeEnum.BLOCKTYPEA.name())).thenReturn(Collections.singletonList(testDataEnvelope));
-		when(serverMock.getDataEnvelopByBlockType(INVALID_BLOCKTYPE)).thenThrow(new IllegalArgumentException());
+		when(serverMock.saveDataEnvelope(any(DataEnvelope.class), any(String.class), any(ChecksumAlgorithmEnum.class))).thenReturn(true);
+		doAnswer(invocation -> {
+			invocation.<Consumer<DataEnvelope>>getArgument(1).accept(testDataEnvelope);
+			return null;
+		}).when(serverMock).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
 		when(serverMock.updateDataBlockType(any(String.class),any(String.class))).thenReturn(true);
 	}
 
@@ -68,7 +133,7 @@ public class ServerControllerComponentTest {
 
 		String testDataEnvelopeJson = objectMapper.writeValueAsString(testDataEnvelope);
 
-		MvcResult mvcResult = mockMvc.perform(post(URI_PUSHDATA)
+		MvcResult mvcResult = performAsync(post(URI_PUSHDATA)
 				.content(testDataEnvelopeJson)
 				.contentType(MediaType.APPLICATION_JSON_VALUE))
 				.andExpect(status().isOk())
@@ -76,15 +141,132 @@ public class ServerControllerComponentTest {
 
 		boolean checksumPass = Boolean.parseBoolean(mvcResult.getResponse().getContentAsString());
 		assertThat(checksumPass).isTrue();
+		verify(serverMock).saveDataEnvelope(any(DataEnvelope.class), eq(""), eq(ChecksumAlgorithmEnum.MD5));
+		assertThat(meterRegistry.get("dataserver.ingest.stage").tag("stage", "deserialize")
+				.tag("blockType", BlockTypeEnum.BLOCKTYPEA.name()).timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void testPushDataPassesNegotiatedChecksumAlgorithm() throws Exception {
+
+		performAsync(post(URI_PUSHDATA + "abccf42e&checksumAlgorithm=CRC32C")
+				.content(objectMapper.writeValueAsString(testDataEnvelope))
+				.contentType(MediaType.APPLICATION_JSON_VALUE))
+				.andExpect(status().isOk());
+
+		verify(serverMock).saveDataEnvelope(any(DataEnvelope.class), eq("abccf42e"), eq(ChecksumAlgorithmEnum.CRC32C));
+	}
+
+	@Test
+	public void testPushDataIsUnavailableWhileTheRequestQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		when(serverMock.saveDataEnvelope(any(DataEnvelope.class), any(String.class), any(ChecksumAlgorithmEnum.class)))
+				.thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+		String testDataEnvelopeJson = objectMapper.writeValueAsString(testDataEnvelope);
+		RequestBuilder push = post(URI_PUSHDATA).content(testDataEnvelopeJson).contentType(MediaType.APPLICATION_JSON_VALUE);
+
+		try {
+			// One push runs on the only thread, one waits in the queue.
+			mockMvc.perform(push).andExpect(request().asyncStarted());
+			mockMvc.perform(push).andExpect(request().asyncStarted());
+
+			performAsync(push).andExpect(status().isServiceUnavailable());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void testPushDataIsTurnedAwayWhileThePlatformExecutorIsSaturated() throws Exception {
+		AdmissionControlProperties admissionControlProperties = new AdmissionControlProperties();
+		admissionControlProperties.setMaxInFlightRequests(2);
+		admissionControlProperties.setOverloadRetryAfterSeconds(3);
+		MockMvc admittingMockMvc = standaloneSetup(serverController)
+				.addInterceptors(new PushAdmissionInterceptor(new PushAdmissionControlImpl(admissionControlProperties,
+						requestExecutor, hadoopOutboxServiceMock, null, meterRegistry), admissionControlProperties))
+				.build();
+		CountDownLatch release = new CountDownLatch(1);
+		when(serverMock.saveDataEnvelope(any(DataEnvelope.class), any(String.class), any(ChecksumAlgorithmEnum.class)))
+				.thenAnswer(invocation -> release.await(5, TimeUnit.SECONDS));
+		String testDataEnvelopeJson = objectMapper.writeValueAsString(testDataEnvelope);
+		RequestBuilder push = post(URI_PUSHDATA).content(testDataEnvelopeJson).contentType(MediaType.APPLICATION_JSON_VALUE);
+
+		try {
+			// One push runs on the only thread, the other waits in the queue; both count as in flight.
+			admittingMockMvc.perform(push).andExpect(request().asyncStarted());
+			admittingMockMvc.perform(push).andExpect(request().asyncStarted());
+
+			MvcResult mvcResult = admittingMockMvc.perform(push)
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+					.andReturn();
+			assertThat(mvcResult.getResponse().getContentAsString()).endsWith(AdmissionRejection.Reason.REQUEST_BACKLOG.name());
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void testPushDataRejectsUnknownChecksumAlgorithm() throws Exception {
+
+		mockMvc.perform(post(URI_PUSHDATA + "abc&checksumAlgorithm=SHA0")
+				.content(objectMapper.writeValueAsString(testDataEnvelope))
+				.contentType(MediaType.APPLICATION_JSON_VALUE))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void testPushDataBulkStreamsIngestorResults() throws Exception {
+		String result = "{\"index\":0,\"name\":\"Test\",\"outcome\":\"CHECKSUM_PASS\"}\n";
+		doAnswer(invocation -> {
+			invocation.getArgument(1, OutputStream.class).write(result.getBytes(StandardCharsets.UTF_8));
+			return 1;
+		}).when(bulkIngestorMock).ingest(any(InputStream.class), any(OutputStream.class));
+
+		MvcResult mvcResult = mockMvc.perform(post(URI_PUSHDATA_BULK)
+				.content(objectMapper.writeValueAsString(Collections.singletonList(testDataEnvelope)))
+				.contentType(MediaType.APPLICATION_JSON_VALUE))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(mvcResult.getResponse().getContentType()).isEqualTo(ServerController.APPLICATION_NDJSON_VALUE);
+		assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo(result);
 	}
 
 	@Test
 	public void testGetDataForBlockTypeA() throws Exception{
-		MvcResult mvcResult = mockMvc.perform(get(URI_GETDATA.expand(BlockTypeEnum.BLOCKTYPEA).toString()))
+		MvcResult mvcResult = performAsync(get(URI_GETDATA.expand(BlockTypeEnum.BLOCKTYPEA).toString()))
 				.andExpect(status().isOk())
 				.andReturn();
 		String response = mvcResult.getResponse().getContentAsString();
 		assertThat(response).isNotEmpty();
+		assertThat(objectMapper.readValue(response, DataEnvelope[].class)).hasSize(1);
+	}
+
+	@Test
+	public void testGetDataPageLinksToNextPage() throws Exception{
+		when(serverMock.getDataEnvelopePage(BlockTypeEnum.BLOCKTYPEA.name(), 0L, 1))
+				.thenReturn(new DataEnvelopePage(Collections.singletonList(testDataEnvelope), 42L));
+
+		MvcResult mvcResult = performAsync(get(URI_GETDATA.expand(BlockTypeEnum.BLOCKTYPEA).toString()).param("limit", "1"))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(objectMapper.readValue(mvcResult.getResponse().getContentAsString(), DataEnvelope[].class)).hasSize(1);
+		assertThat(mvcResult.getResponse().getHeader(HttpHeaders.LINK)).contains("afterId=42").contains("rel=\"next\"");
+	}
+
+	@Test
+	public void testGetDataLastPageHasNoLink() throws Exception{
+		when(serverMock.getDataEnvelopePage(BlockTypeEnum.BLOCKTYPEA.name(), 42L, 10))
+				.thenReturn(new DataEnvelopePage(Collections.singletonList(testDataEnvelope), null));
+
+		MvcResult mvcResult = performAsync(get(URI_GETDATA.expand(BlockTypeEnum.BLOCKTYPEA).toString())
+				.param("limit", "10").param("afterId", "42"))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(mvcResult.getResponse().getHeader(HttpHeaders.LINK)).isNull();
 	}
 
 	@Test
@@ -106,4 +288,102 @@ public class ServerControllerComponentTest {
 		assertThat(result).isTrue();
 
 	}
+
+	@Test
+	public void testBulkUpdateByNamesReturnsUpdatedCount() throws Exception {
+		when(serverMock.updateDataBlockTypes(Arrays.asList("TEST1", "TEST2"), BlockTypeEnum.BLOCKTYPEB.name())).thenReturn(2);
+
+		MvcResult mvcResult = mockMvc.perform(put(URI_PATCHDATA_BULK.expand(BlockTypeEnum.BLOCKTYPEB))
+				.content("[\"TEST1\",\"TEST2\"]")
+				.contentType(MediaType.APPLICATION_JSON_VALUE))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo("2");
+	}
+
+	@Test
+	public void testBulkUpdateByNamePrefixReturnsUpdatedCount() throws Exception {
+		when(serverMock.updateDataBlockTypeByNamePrefix("TEST", BlockTypeEnum.BLOCKTYPEB.name())).thenReturn(5);
+
+		MvcResult mvcResult = mockMvc.perform(put(URI_PATCHDATA_BULK.expand(BlockTypeEnum.BLOCKTYPEB) + "?namePrefix=TEST"))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo("5");
+	}
+
+	@Test
+	public void testBulkUpdateNeedsNamesOrNamePrefix() throws Exception {
+		mockMvc.perform(put(URI_PATCHDATA_BULK.expand(BlockTypeEnum.BLOCKTYPEB)))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(put(URI_PATCHDATA_BULK.expand(BlockTypeEnum.BLOCKTYPEB) + "?namePrefix=TEST")
+				.content("[\"TEST1\"]")
+				.contentType(MediaType.APPLICATION_JSON_VALUE))
+				.andExpect(status().isBadRequest());
+
+		verify(serverMock, never()).updateDataBlockTypeByNamePrefix(any(String.class), any(String.class));
+	}
+
+	@Test
+	public void testPushDataBodyStreamsRequestBody() throws Exception {
+		when(serverMock.saveDataEnvelope(any(DataHeader.class), any(InputStream.class), eq(DUMMY_CHECKSUM), eq(ChecksumAlgorithmEnum.MD5)))
+				.thenAnswer(invocation -> {
+					assertThat(invocation.<DataHeader>getArgument(0).getBlockType()).isEqualTo(BlockTypeEnum.BLOCKTYPEA);
+					assertThat(invocation.<InputStream>getArgument(1)).hasSameContentAs(
+							new ByteArrayInputStream(DUMMY_DATA.getBytes(StandardCharsets.UTF_8)));
+					return true;
+				});
+
+		MvcResult mvcResult = performAsync(post(URI_PUSHDATABODY.expand(BlockTypeEnum.BLOCKTYPEA.name(), TEST_NAME, DUMMY_CHECKSUM))
+				.content(DUMMY_DATA)
+				.contentType(MediaType.TEXT_PLAIN_VALUE))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(Boolean.parseBoolean(mvcResult.getResponse().getContentAsString())).isTrue();
+	}
+
+	@Test
+	public void testPushDataBodyForInvalidBlockType() throws Exception {
+		performAsync(post(URI_PUSHDATABODY.expand(INVALID_BLOCKTYPE, TEST_NAME, DUMMY_CHECKSUM))
+				.content(DUMMY_DATA)
+				.contentType(MediaType.TEXT_PLAIN_VALUE))
+				.andExpect(status().isBadRequest());
+
+		verify(serverMock, never()).saveDataEnvelope(any(DataHeader.class), any(InputStream.class), any(String.class), any(ChecksumAlgorithmEnum.class));
+	}
+
+	@Test
+	public void testGetDataBodyStreamsStoredBody() throws Exception {
+		when(serverMock.writeDataBody(eq(TEST_NAME), any(Writer.class))).thenAnswer(invocation -> {
+			invocation.<Writer>getArgument(1).write(DUMMY_DATA);
+			return true;
+		});
+
+		MvcResult mvcResult = mockMvc.perform(get(URI_GETDATABODY.expand(TEST_NAME)))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertThat(mvcResult.getResponse().getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(mvcResult.getResponse().getContentAsString()).isEqualTo(DUMMY_DATA);
+	}
+
+	@Test
+	public void testGetDataBodyForUnknownName() throws Exception {
+		when(serverMock.writeDataBody(eq(TEST_NAME), any(Writer.class))).thenReturn(false);
+
+		mockMvc.perform(get(URI_GETDATABODY.expand(TEST_NAME)))
+				.andExpect(status().isNotFound());
+	}
+
+	/**
+	 * Performs a request to an endpoint returning a future, and then the dispatch that writes its result.
+	 */
+	private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+		MvcResult mvcResult = mockMvc.perform(requestBuilder)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(mvcResult));
+	}
 }
@@ -0,0 +1,89 @@
+package com.db.dataplatform.techtest.api.model;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
+import com.db.dataplatform.techtest.server.mapper.DataBodyDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataBodyDeserializerTests {
+
+    private ChecksumCalculatorImpl checksumCalculator;
+    private ObjectMapper objectMapper;
+
+    @Before
+    public void setup() {
+        checksumCalculator = new ChecksumCalculatorImpl();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .deserializerByType(DataBody.class, new DataBodyDeserializer(checksumCalculator))
+                .build();
+    }
+
+    @Test
+    public void shouldComputeChecksumWhileParsingEnvelope() throws IOException {
+        String json = objectMapper.writeValueAsString(createTestDataEnvelopeApiObject());
+
+        DataEnvelope dataEnvelope = objectMapper.readValue(json, DataEnvelope.class);
+
+        assertThat(dataEnvelope.getDataBody().getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(dataEnvelope.getDataBody().calculatedMd5Checksum()).isEqualTo(DUMMY_CHECKSUM);
+    }
+
+    @Test
+    public void shouldHashUnescapedText() throws IOException {
+        DataBody dataBody = objectMapper.readValue("{\"dataBody\":\"line\\nG\\u00fc \\\"q\\\"\"}", DataBody.class);
+
+        assertThat(dataBody.getDataBody()).isEqualTo("line\nG\u00fc \"q\"");
+        assertThat(dataBody.calculatedMd5Checksum())
+                .isEqualTo(checksumCalculator.checksum(dataBody.getDataBody(), ChecksumAlgorithmEnum.MD5));
+    }
+
+    @Test
+    public void shouldHashBodyLargerThanParserBuffer() throws IOException {
+        char[] text = new char[200000];
+        Arrays.fill(text, 'x');
+        String body = new String(text);
+
+        DataBody dataBody = objectMapper.readValue("{\"dataBody\":\"" + body + "\"}", DataBody.class);
+
+        assertThat(dataBody.getDataBody()).isEqualTo(body);
+        assertThat(dataBody.calculatedMd5Checksum()).isEqualTo(checksumCalculator.checksum(body, ChecksumAlgorithmEnum.MD5));
+    }
+
+    @Test
+    public void shouldReadNullAndCoercedBodiesWithoutChecksum() throws IOException {
+        DataBody nullBody = objectMapper.readValue("{\"dataBody\":null}", DataBody.class);
+        DataBody numberBody = objectMapper.readValue("{\"dataBody\":42}", DataBody.class);
+
+        assertThat(nullBody.getDataBody()).isNull();
+        assertThat(nullBody.calculatedMd5Checksum()).isNull();
+        assertThat(numberBody.getDataBody()).isEqualTo("42");
+        assertThat(numberBody.calculatedMd5Checksum()).isNull();
+    }
+
+    @Test
+    public void shouldIgnoreUnknownFields() throws IOException {
+        DataBody dataBody = objectMapper.readValue("{\"extra\":{\"a\":[1]},\"dataBody\":\"" + DUMMY_DATA + "\"}", DataBody.class);
+
+        assertThat(dataBody.calculatedMd5Checksum()).isEqualTo(DUMMY_CHECKSUM);
+    }
+
+    @Test
+    public void shouldNotSerializeCalculatedChecksum() throws IOException {
+        String json = objectMapper.writeValueAsString(new DataBody(DUMMY_DATA, DUMMY_CHECKSUM));
+
+        assertThat(json).isEqualTo("{\"dataBody\":\"" + DUMMY_DATA + "\"}");
+    }
+}
@@ -0,0 +1,41 @@
+package com.db.dataplatform.techtest.api.model;
+
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.mapper.DataEnvelopeMapper;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import org.junit.Test;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeProjection;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataEnvelopeMapperTests {
+
+    private final DataEnvelopeMapper dataEnvelopeMapper = new DataEnvelopeMapper();
+
+    @Test
+    public void shouldMapEnvelopeToNewEntities() {
+        DataBodyEntity dataBodyEntity = dataEnvelopeMapper.toDataBodyEntity(createTestDataEnvelopeApiObject());
+
+        assertThat(dataBodyEntity.getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(dataBodyEntity.getChecksum()).isNull();
+        assertThat(dataBodyEntity.getDataStoreId()).isNull();
+        assertThat(dataBodyEntity.getDataHeaderEntity().getName()).isEqualTo(TEST_NAME);
+        assertThat(dataBodyEntity.getDataHeaderEntity().getBlocktype()).isEqualTo(BlockTypeEnum.BLOCKTYPEA);
+        assertThat(dataBodyEntity.getDataHeaderEntity().getDataHeaderId()).isNull();
+    }
+
+    @Test
+    public void shouldMapProjectionToEnvelope() {
+        DataEnvelope dataEnvelope = dataEnvelopeMapper.toDataEnvelope(createTestDataEnvelopeProjection(1L));
+
+        assertThat(dataEnvelope.getDataHeader().getName()).isEqualTo(TEST_NAME);
+        assertThat(dataEnvelope.getDataHeader().getBlockType()).isEqualTo(BlockTypeEnum.BLOCKTYPEA);
+        assertThat(dataEnvelope.getDataBody().getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(dataEnvelope.getMd5Checksum()).isEqualTo(DUMMY_CHECKSUM);
+    }
+}
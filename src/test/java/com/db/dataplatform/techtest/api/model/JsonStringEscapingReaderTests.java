@@ -0,0 +1,53 @@
+package com.db.dataplatform.techtest.api.model;
+
+import com.db.dataplatform.techtest.server.mapper.JsonStringEscapingReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonStringEscapingReaderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void shouldEscapeLikeJackson() throws IOException {
+        StringBuilder text = new StringBuilder("quote \" backslash \\ slash / \u00e9 \ud83d\ude00 ");
+        for (char c = 0; c < 0x20; c++) {
+            text.append(c);
+        }
+
+        assertThat(read(new JsonStringEscapingReader("\"", new StringReader(text.toString()), "\"")))
+                .isEqualTo(objectMapper.writeValueAsString(text.toString()));
+    }
+
+    @Test
+    public void shouldEscapeAcrossBlocks() throws IOException {
+        char[] text = new char[10000];
+        Arrays.fill(text, '"');
+
+        String json = read(new JsonStringEscapingReader("{\"dataBody\":\"", new StringReader(new String(text)), "\"}"));
+
+        assertThat(objectMapper.readTree(json).get("dataBody").asText()).isEqualTo(new String(text));
+    }
+
+    @Test
+    public void shouldReadPrefixAndSuffixOfEmptySource() throws IOException {
+        assertThat(read(new JsonStringEscapingReader("[", new StringReader(""), "]"))).isEqualTo("[]");
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[333];
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.AdaptiveConcurrencyLimiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveConcurrencyLimiterTests {
+
+    private static final long LATENCY_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final long FAST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Before
+    public void setup() {
+        limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, LATENCY_THRESHOLD_NANOS, 0.5);
+    }
+
+    @Test
+    public void shouldRejectCallsAboveTheLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.available()).isZero();
+    }
+
+    @Test
+    public void shouldGrowWhileSaturatedCallsAreFast() {
+        acquire(4);
+
+        limiter.onSuccess(FAST_NANOS);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(limiter.getInFlight()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotGrowWhenTheLimitIsNotUsed() {
+        acquire(1);
+
+        limiter.onSuccess(FAST_NANOS);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldShrinkOnTimeoutsAndSlowCalls() {
+        acquire(2);
+
+        limiter.onDropped();
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.onSuccess(LATENCY_THRESHOLD_NANOS + 1);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldStayWithinBounds() {
+        for (int i = 0; i < 10; i++) {
+            acquire(1);
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+
+        for (int i = 0; i < 20; i++) {
+            acquire(limiter.getLimit());
+            for (int j = limiter.getInFlight(); j > 0; j--) {
+                limiter.onSuccess(FAST_NANOS);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidBounds() {
+        new AdaptiveConcurrencyLimiter(10, 1, 8, LATENCY_THRESHOLD_NANOS, 0.5);
+    }
+
+    private void acquire(int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
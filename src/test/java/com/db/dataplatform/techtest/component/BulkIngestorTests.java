@@ -0,0 +1,147 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.api.model.BulkIngestResult;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.component.impl.BulkIngestorImpl;
+import com.db.dataplatform.techtest.server.configuration.BulkIngestProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObjectWithEmptyName;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BulkIngestorTests {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private Server serverMock;
+
+    private ObjectMapper objectMapper;
+    private BulkIngestorImpl bulkIngestor;
+
+    @Before
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        BulkIngestProperties properties = new BulkIngestProperties();
+        properties.setChunkSize(CHUNK_SIZE);
+
+        bulkIngestor = new BulkIngestorImpl(serverMock, Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper, properties);
+    }
+
+    @Test
+    public void shouldPersistJsonArrayInChunks() throws IOException {
+        when(serverMock.saveDataEnvelopes(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.getArgument(0, List.class).size(), BulkIngestOutcomeEnum.CHECKSUM_PASS));
+        String request = objectMapper.writeValueAsString(Arrays.asList(createTestDataEnvelopeApiObject(),
+                createTestDataEnvelopeApiObject(), createTestDataEnvelopeApiObject()));
+
+        List<BulkIngestResult> results = ingest(request);
+
+        assertThat(results).extracting(BulkIngestResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BulkIngestResult::getOutcome).containsOnly(BulkIngestOutcomeEnum.CHECKSUM_PASS);
+        verify(serverMock, times(1)).saveDataEnvelopes(argThat(envelopes -> envelopes.size() == 2));
+        verify(serverMock, times(1)).saveDataEnvelopes(argThat(envelopes -> envelopes.size() == 1));
+    }
+
+    @Test
+    public void shouldReadNewlineDelimitedJson() throws IOException {
+        when(serverMock.saveDataEnvelopes(anyList())).thenReturn(Collections.singletonList(BulkIngestOutcomeEnum.DUPLICATE));
+        String request = objectMapper.writeValueAsString(createTestDataEnvelopeApiObject()) + "\n";
+
+        List<BulkIngestResult> results = ingest(request);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getName()).isEqualTo(TEST_NAME);
+        assertThat(results.get(0).getOutcome()).isEqualTo(BulkIngestOutcomeEnum.DUPLICATE);
+    }
+
+    @Test
+    public void shouldReportInvalidEnvelopesWithoutStoppingTheStream() throws IOException {
+        when(serverMock.saveDataEnvelopes(anyList())).thenReturn(Collections.singletonList(BulkIngestOutcomeEnum.CHECKSUM_PASS));
+        String request = "[" + objectMapper.writeValueAsString(createTestDataEnvelopeApiObjectWithEmptyName()) + ","
+                + "{\"dataHeader\":{\"name\":\"Test2\",\"blockType\":\"NOT_A_BLOCKTYPE\"},\"dataBody\":{\"dataBody\":\"x\"}},"
+                + objectMapper.writeValueAsString(createTestDataEnvelopeApiObject()) + "]";
+
+        List<BulkIngestResult> results = ingest(request);
+
+        assertThat(results).extracting(BulkIngestResult::getOutcome).containsExactly(BulkIngestOutcomeEnum.INVALID,
+                BulkIngestOutcomeEnum.INVALID, BulkIngestOutcomeEnum.CHECKSUM_PASS);
+        assertThat(results.get(0).getMessage()).contains("dataHeader.name");
+        assertThat(results.get(2).getIndex()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEndStreamOnMalformedJson() throws IOException {
+        when(serverMock.saveDataEnvelopes(anyList())).thenReturn(Collections.singletonList(BulkIngestOutcomeEnum.CHECKSUM_PASS));
+        String request = "[" + objectMapper.writeValueAsString(createTestDataEnvelopeApiObject()) + ", {\"dataHeader\": ]";
+
+        List<BulkIngestResult> results = ingest(request);
+
+        assertThat(results).extracting(BulkIngestResult::getOutcome).containsExactly(BulkIngestOutcomeEnum.CHECKSUM_PASS,
+                BulkIngestOutcomeEnum.ERROR);
+    }
+
+    @Test
+    public void shouldIsolateFailingEnvelopeWhenChunkFails() throws IOException {
+        when(serverMock.saveDataEnvelopes(anyList()))
+                .thenThrow(new IllegalStateException("Constraint violated"))
+                .thenReturn(Collections.singletonList(BulkIngestOutcomeEnum.CHECKSUM_PASS))
+                .thenThrow(new IllegalStateException("Constraint violated"));
+        String request = objectMapper.writeValueAsString(Arrays.asList(createTestDataEnvelopeApiObject(),
+                createTestDataEnvelopeApiObject()));
+
+        List<BulkIngestResult> results = ingest(request);
+
+        assertThat(results).extracting(BulkIngestResult::getOutcome).containsExactly(BulkIngestOutcomeEnum.CHECKSUM_PASS,
+                BulkIngestOutcomeEnum.ERROR);
+        verify(serverMock, times(3)).saveDataEnvelopes(anyList());
+    }
+
+    @Test
+    public void shouldWriteNothingForEmptyArray() throws IOException {
+        List<BulkIngestResult> results = ingest("[]");
+
+        assertThat(results).isEmpty();
+        verify(serverMock, never()).saveDataEnvelopes(anyList());
+    }
+
+    private List<BulkIngestResult> ingest(String request) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        bulkIngestor.ingest(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)), response);
+
+        List<BulkIngestResult> results = new ArrayList<>();
+        for (String line : response.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            if (!line.isEmpty()) {
+                results.add(objectMapper.readValue(line, BulkIngestResult.class));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,94 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.component.ChecksumInputStream;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChecksumCalculatorTests {
+
+    private ChecksumCalculatorImpl checksumCalculator;
+
+    @Before
+    public void setup() {
+        checksumCalculator = new ChecksumCalculatorImpl();
+    }
+
+    @Test
+    public void shouldMatchKnownChecksums() {
+        assertThat(checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.MD5)).isEqualTo(DUMMY_CHECKSUM);
+        assertThat(checksumCalculator.checksum("", ChecksumAlgorithmEnum.MD5)).isEqualTo("d41d8cd98f00b204e9800998ecf8427e");
+        assertThat(checksumCalculator.checksum("123456789", ChecksumAlgorithmEnum.CRC32)).isEqualTo("cbf43926");
+        assertThat(checksumCalculator.checksum("123456789", ChecksumAlgorithmEnum.CRC32C)).isEqualTo("e3069283");
+        assertThat(checksumCalculator.checksum("", ChecksumAlgorithmEnum.XXHASH64)).isEqualTo("ef46db3751d8e999");
+    }
+
+    @Test
+    public void shouldPadChecksumsWithLeadingZeros() {
+        assertThat(checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.CRC32)).isEqualTo("9271893e");
+        assertThat(checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.CRC32C)).isEqualTo("abccf42e");
+        assertThat(checksumCalculator.checksum("", ChecksumAlgorithmEnum.CRC32)).isEqualTo("00000000");
+    }
+
+    @Test
+    public void shouldHashUtf8EncodingOfText() {
+        assertThat(checksumCalculator.checksum("Gr\u00fc\u00dfe, \u6771\u4eac \ud83d\ude00", ChecksumAlgorithmEnum.MD5))
+                .isEqualTo("78f14b9c541650584b896e50159c5df2");
+    }
+
+    @Test
+    public void shouldHashTextLongerThanBuffer() {
+        char[] text = new char[9000];
+        Arrays.fill(text, '\u00e9');
+
+        assertThat(checksumCalculator.checksum(new String(text), ChecksumAlgorithmEnum.MD5))
+                .isEqualTo("449bbb47955f58e027af251961485e53");
+    }
+
+    @Test
+    public void shouldGiveSameChecksumForTextAndItsBytes() throws IOException {
+        String text = "\ud83d\ude00 " + DUMMY_DATA + " \u6771\u4eac";
+        for (ChecksumAlgorithmEnum algorithm : ChecksumAlgorithmEnum.values()) {
+            String fromStream = checksumCalculator.checksum(
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), algorithm);
+
+            assertThat(checksumCalculator.checksum(text, algorithm)).as(algorithm.name()).isEqualTo(fromStream);
+        }
+    }
+
+    @Test
+    public void shouldResetBetweenCallsAndThreads() throws Exception {
+        String first = checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.XXHASH64);
+        String second = checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.XXHASH64);
+        String otherThread = CompletableFuture.supplyAsync(
+                () -> checksumCalculator.checksum(DUMMY_DATA, ChecksumAlgorithmEnum.XXHASH64)).get();
+
+        assertThat(second).isEqualTo(first).hasSize(16);
+        assertThat(otherThread).isEqualTo(first);
+    }
+
+    @Test
+    public void shouldHashBytesReadThroughChecksumInputStream() throws IOException {
+        ChecksumInputStream in = new ChecksumInputStream(new ByteArrayInputStream(DUMMY_DATA.getBytes(StandardCharsets.UTF_8)),
+                checksumCalculator.newHasher(ChecksumAlgorithmEnum.MD5));
+
+        assertThat(in.read()).isEqualTo('A');
+        assertThat(in.skip(10)).isEqualTo(10);
+        byte[] rest = new byte[100];
+        while (in.read(rest, 0, rest.length) != -1) {
+        }
+
+        assertThat(in.getChecksum()).isEqualTo(DUMMY_CHECKSUM);
+    }
+}
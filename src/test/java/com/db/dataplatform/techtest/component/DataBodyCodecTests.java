@@ -0,0 +1,142 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.DataBodyCodecImpl;
+import com.db.dataplatform.techtest.server.configuration.DataBodyCodecProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Random;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataBodyEntity;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataHeaderEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataBodyCodecTests {
+
+    private static final String COMPRESSIBLE_DATA = repeat(DUMMY_DATA + " \u00e9\u6771\u4eac ", 40);
+
+    private DataBodyCodecProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DataBodyCodecImpl dataBodyCodec;
+
+    @Before
+    public void setup() {
+        properties = new DataBodyCodecProperties();
+        properties.getBlockTypes().put(BlockTypeEnum.BLOCKTYPEA, BodyCodecEnum.LZ4);
+        properties.getBlockTypes().put(BlockTypeEnum.BLOCKTYPEB, BodyCodecEnum.DEFLATE);
+        meterRegistry = new SimpleMeterRegistry();
+        dataBodyCodec = new DataBodyCodecImpl(properties, meterRegistry);
+    }
+
+    @Test
+    public void shouldCompressAndRestoreWithLz4() {
+        assertRoundTrip(BlockTypeEnum.BLOCKTYPEA, BodyCodecEnum.LZ4);
+    }
+
+    @Test
+    public void shouldCompressAndRestoreWithDeflate() {
+        assertRoundTrip(BlockTypeEnum.BLOCKTYPEB, BodyCodecEnum.DEFLATE);
+    }
+
+    @Test
+    public void shouldRestoreBodyOfProjection() {
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(BlockTypeEnum.BLOCKTYPEB, COMPRESSIBLE_DATA);
+        dataBodyCodec.encode(dataBodyEntity);
+        DataEnvelopeProjection dataEnvelopeProjection = new DataEnvelopeProjection(1L, TEST_NAME, BlockTypeEnum.BLOCKTYPEB,
+                null, dataBodyEntity.getBodyCodec(), dataBodyEntity.getCompressedBody(), null);
+
+        dataBodyCodec.decode(dataEnvelopeProjection);
+
+        assertThat(dataEnvelopeProjection.getDataBody()).isEqualTo(COMPRESSIBLE_DATA);
+    }
+
+    @Test
+    public void shouldStoreShortBodyUncompressed() {
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(BlockTypeEnum.BLOCKTYPEA, DUMMY_DATA);
+
+        dataBodyCodec.encode(dataBodyEntity);
+
+        assertThat(dataBodyEntity.getBodyCodec()).isEqualTo(BodyCodecEnum.NONE);
+        assertThat(dataBodyEntity.getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(dataBodyEntity.getCompressedBody()).isNull();
+    }
+
+    @Test
+    public void shouldStoreUncompressedWhenBlockTypeHasNoCodec() {
+        properties.getBlockTypes().remove(BlockTypeEnum.BLOCKTYPEB);
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(BlockTypeEnum.BLOCKTYPEB, COMPRESSIBLE_DATA);
+
+        dataBodyCodec.encode(dataBodyEntity);
+
+        assertThat(dataBodyEntity.getBodyCodec()).isEqualTo(BodyCodecEnum.NONE);
+        assertThat(dataBodyEntity.getDataBody()).isEqualTo(COMPRESSIBLE_DATA);
+    }
+
+    @Test
+    public void shouldStoreIncompressibleBodyUncompressed() {
+        StringBuilder random = new StringBuilder();
+        Random generator = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            random.append((char) (0x21 + generator.nextInt(94)));
+        }
+        // Without repeats LZ4 cannot shorten it; DEFLATE still would, through its entropy coding.
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(BlockTypeEnum.BLOCKTYPEA, random.toString());
+
+        dataBodyCodec.encode(dataBodyEntity);
+
+        assertThat(dataBodyEntity.getBodyCodec()).isEqualTo(BodyCodecEnum.NONE);
+        assertThat(dataBodyEntity.getDataBody()).isEqualTo(random.toString());
+    }
+
+    @Test
+    public void shouldRecordBytesPerBlockTypeAndCodec() {
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(BlockTypeEnum.BLOCKTYPEA, COMPRESSIBLE_DATA);
+
+        dataBodyCodec.encode(dataBodyEntity);
+        dataBodyCodec.decode(dataBodyEntity);
+
+        assertThat(meterRegistry.get("dataserver.codec.bytes").tags("blockType", "BLOCKTYPEA", "codec", "LZ4", "form", "stored")
+                .counter().count()).isEqualTo(dataBodyEntity.getCompressedBody().length);
+        assertThat(meterRegistry.get("dataserver.codec.ratio").tags("blockType", "BLOCKTYPEA", "codec", "LZ4")
+                .summary().max()).isGreaterThan(2.0);
+        assertThat(meterRegistry.get("dataserver.codec.time").tags("blockType", "BLOCKTYPEA", "codec", "LZ4", "operation", "decode")
+                .timer().count()).isEqualTo(1);
+    }
+
+    private void assertRoundTrip(BlockTypeEnum blockType, BodyCodecEnum codec) {
+        DataBodyEntity dataBodyEntity = createDataBodyEntity(blockType, COMPRESSIBLE_DATA);
+
+        dataBodyCodec.encode(dataBodyEntity);
+
+        assertThat(dataBodyEntity.getBodyCodec()).isEqualTo(codec);
+        assertThat(dataBodyEntity.getDataBody()).isNull();
+        assertThat(dataBodyEntity.getCompressedBody().length).isLessThan(COMPRESSIBLE_DATA.length() / 4);
+
+        dataBodyCodec.decode(dataBodyEntity);
+
+        assertThat(dataBodyEntity.getDataBody()).isEqualTo(COMPRESSIBLE_DATA);
+    }
+
+    private static DataBodyEntity createDataBodyEntity(BlockTypeEnum blockType, String dataBody) {
+        DataBodyEntity dataBodyEntity = createTestDataBodyEntity(createTestDataHeaderEntity(Instant.now()));
+        dataBodyEntity.getDataHeaderEntity().setBlocktype(blockType);
+        dataBodyEntity.setDataBody(dataBody);
+        return dataBodyEntity;
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            result.append(text);
+        }
+        return result.toString();
+    }
+}
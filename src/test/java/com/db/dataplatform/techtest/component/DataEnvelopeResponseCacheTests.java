@@ -0,0 +1,129 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.DataEnvelopesChangedEvent;
+import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.component.impl.DataEnvelopeResponseCacheImpl;
+import com.db.dataplatform.techtest.server.configuration.DataEnvelopeCacheProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataEnvelopeResponseCacheTests {
+
+    @Mock
+    private Server serverMock;
+
+    private ObjectMapper objectMapper;
+    private DataEnvelopeCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private DataEnvelopeResponseCacheImpl cache;
+
+    @Before
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        properties = new DataEnvelopeCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DataEnvelopeResponseCacheImpl(serverMock, objectMapper, properties, meterRegistry);
+
+        DataEnvelope dataEnvelope = createTestDataEnvelopeApiObject();
+        doAnswer(invocation -> {
+            invocation.<Consumer<DataEnvelope>>getArgument(1).accept(dataEnvelope);
+            return null;
+        }).when(serverMock).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+    }
+
+    @Test
+    public void shouldServeRepeatedRequestsFromCache() throws IOException {
+        String first = write(BlockTypeEnum.BLOCKTYPEA.name());
+        String second = write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        assertThat(second).isEqualTo(first);
+        assertThat(objectMapper.readValue(first, DataEnvelope[].class)[0].getDataHeader().getName()).isEqualTo(TEST_NAME);
+        verify(serverMock, times(1)).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldReloadAfterChangeOfBlockType() throws IOException {
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        cache.onDataEnvelopesChanged(new DataEnvelopesChangedEvent(Collections.singleton(BlockTypeEnum.BLOCKTYPEA)));
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        verify(serverMock, times(2)).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+        assertThat(meterRegistry.get("dataserver.cache.invalidations").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void shouldKeepResponseWhenOtherBlockTypeChanges() throws IOException {
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        cache.onDataEnvelopesChanged(new DataEnvelopesChangedEvent(Collections.singleton(BlockTypeEnum.BLOCKTYPEB)));
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        verify(serverMock, times(1)).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+    }
+
+    @Test
+    public void shouldStreamResponsesTooLargeToCache() throws IOException {
+        properties.setMaxEntryBytes(16);
+        cache = new DataEnvelopeResponseCacheImpl(serverMock, objectMapper, properties, new SimpleMeterRegistry());
+
+        String first = write(BlockTypeEnum.BLOCKTYPEA.name());
+        String second = write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        assertThat(objectMapper.readValue(first, DataEnvelope[].class)).hasSize(1);
+        assertThat(second).isEqualTo(first);
+        // The first request gives up on caching and streams, the second streams straight away.
+        verify(serverMock, times(3)).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+    }
+
+    @Test
+    public void shouldStreamEveryRequestWhenDisabled() throws IOException {
+        properties.setEnabled(false);
+
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+        write(BlockTypeEnum.BLOCKTYPEA.name());
+
+        verify(serverMock, times(2)).forEachDataEnvelopByBlockType(eq(BlockTypeEnum.BLOCKTYPEA.name()), any());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownBlockType() throws IOException {
+        try {
+            write("Invalid_BlockType");
+        } finally {
+            verify(serverMock, never()).forEachDataEnvelopByBlockType(eq("Invalid_BlockType"), any());
+        }
+    }
+
+    private String write(String blockType) throws IOException {
+        ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+        cache.writeDataEnvelopes(blockType, responseBody);
+        return responseBody.toString("UTF-8");
+    }
+}
@@ -0,0 +1,72 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.DataHeaderNameFilterImpl;
+import com.db.dataplatform.techtest.server.configuration.IngestProperties;
+import com.db.dataplatform.techtest.server.service.DataHeaderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataHeaderNameFilterTests {
+
+    private static final int NAMES = 10000;
+
+    @Mock
+    private DataHeaderService dataHeaderServiceMock;
+
+    private IngestProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        properties = new IngestProperties();
+        properties.setNameFilterExpectedNames(NAMES);
+        properties.setNameFilterFalsePositiveRate(0.01);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void shouldContainStoredAndAddedNames() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(0).accept("Stored");
+            return null;
+        }).when(dataHeaderServiceMock).forEachName(any());
+        DataHeaderNameFilterImpl filter = new DataHeaderNameFilterImpl(properties, dataHeaderServiceMock, meterRegistry);
+
+        filter.add("Added");
+
+        assertThat(filter.mightContain("Stored")).isTrue();
+        assertThat(filter.mightContain("Added")).isTrue();
+        assertThat(filter.mightContain("Missing")).isFalse();
+    }
+
+    @Test
+    public void shouldKeepFalsePositivesNearTheConfiguredRate() {
+        DataHeaderNameFilterImpl filter = new DataHeaderNameFilterImpl(properties, dataHeaderServiceMock, meterRegistry);
+        for (int i = 0; i < NAMES; i++) {
+            filter.add("Name" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < NAMES; i++) {
+            assertThat(filter.mightContain("Name" + i)).isTrue();
+            if (filter.mightContain("Other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(NAMES * 2 / 100);
+        assertThat(meterRegistry.get("dataserver.ingest.name.filter.fpp").gauge().value()).isBetween(0.005, 0.02);
+    }
+}
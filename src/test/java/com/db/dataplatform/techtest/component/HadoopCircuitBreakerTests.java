@@ -0,0 +1,98 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.HadoopCircuitBreaker;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HadoopCircuitBreakerTests {
+
+    private static final long OPEN_DURATION_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private long nowNanos;
+    private HadoopCircuitBreaker circuitBreaker;
+
+    @Before
+    public void setup() {
+        circuitBreaker = new HadoopCircuitBreaker(4, 2, 0.5, OPEN_DURATION_NANOS, () -> nowNanos);
+    }
+
+    @Test
+    public void shouldStayClosedBelowMinimumCalls() {
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    public void shouldOpenWhenFailureRateReachesThreshold() {
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void shouldOnlyCountTheLastWindowOfCalls() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess();
+        }
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        // Two of the last four calls failed, although only two of all six did.
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    public void shouldAllowOneTrialCallOnceOpenDurationPassed() {
+        openCircuit();
+        nowNanos += OPEN_DURATION_NANOS;
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void shouldReopenWhenTrialCallFails() {
+        openCircuit();
+        nowNanos += OPEN_DURATION_NANOS;
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.OPEN);
+        nowNanos += OPEN_DURATION_NANOS - 1;
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    public void shouldAllowAnotherTrialWhenPermissionWasReleased() {
+        openCircuit();
+        nowNanos += OPEN_DURATION_NANOS;
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.releasePermission();
+
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void openCircuit() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(HadoopCircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,229 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.HadoopClient;
+import com.db.dataplatform.techtest.server.component.HadoopRetryPolicy;
+import com.db.dataplatform.techtest.server.component.impl.HadoopForwarderImpl;
+import com.db.dataplatform.techtest.server.configuration.HadoopCircuitBreakerProperties;
+import com.db.dataplatform.techtest.server.configuration.HadoopForwardingProperties;
+import com.db.dataplatform.techtest.server.configuration.HadoopOutboxProperties;
+import com.db.dataplatform.techtest.server.exception.HadoopClientException;
+import com.db.dataplatform.techtest.server.persistence.OutboxStatusEnum;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HadoopForwarderTests {
+
+    private static final String TEST_PAYLOAD = "{\"dataHeader\":{\"name\":\"Test\"}}";
+    private static final int BATCH_MAX_SIZE = 2;
+
+    @Mock
+    private HadoopClient hadoopClientMock;
+
+    @Mock
+    private HadoopOutboxService hadoopOutboxServiceMock;
+
+    @Mock
+    private HadoopRetryPolicy hadoopRetryPolicyMock;
+
+    private MeterRegistry meterRegistry;
+    private HadoopForwarderImpl hadoopForwarder;
+
+    @Before
+    public void setup() {
+        hadoopForwarder = createForwarder(0, 1024);
+    }
+
+    private HadoopForwarderImpl createForwarder(long batchMaxLingerMillis, long batchMaxChars) {
+        HadoopForwardingProperties properties = new HadoopForwardingProperties();
+        properties.setWorkerThreads(1);
+        properties.setConcurrencyInitialLimit(2);
+        properties.setConcurrencyBackoffRatio(0.5);
+        properties.setBatchMaxSize(BATCH_MAX_SIZE);
+        properties.setBatchMaxLingerMillis(batchMaxLingerMillis);
+        properties.setBatchMaxChars(batchMaxChars);
+        HadoopOutboxProperties outboxProperties = new HadoopOutboxProperties();
+        outboxProperties.setBatchSize(4);
+        HadoopCircuitBreakerProperties circuitBreakerProperties = new HadoopCircuitBreakerProperties();
+        circuitBreakerProperties.setWindowSize(1);
+        circuitBreakerProperties.setMinimumCalls(1);
+        circuitBreakerProperties.setFailureRateThreshold(1.0);
+        circuitBreakerProperties.setOpenDurationMillis(60000);
+
+        meterRegistry = new SimpleMeterRegistry();
+        return new HadoopForwarderImpl(hadoopClientMock, hadoopOutboxServiceMock, hadoopRetryPolicyMock, properties,
+                outboxProperties, circuitBreakerProperties, meterRegistry);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        hadoopForwarder.shutdown();
+    }
+
+    @Test
+    public void shouldDispatchClaimedRowsInBatchesWithoutWaitingForHadoop() {
+        List<HadoopOutboxEntity> firstBatch = Arrays.asList(createTestOutboxEntity(1L), createTestOutboxEntity(2L));
+        List<HadoopOutboxEntity> secondBatch = Arrays.asList(createTestOutboxEntity(3L), createTestOutboxEntity(4L));
+        when(hadoopOutboxServiceMock.claimBatch(eq(4), anyLong())).thenReturn(Arrays.asList(firstBatch.get(0), firstBatch.get(1),
+                secondBatch.get(0), secondBatch.get(1)));
+        CompletableFuture<Void> firstResponse = new CompletableFuture<>();
+        CompletableFuture<Void> secondResponse = new CompletableFuture<>();
+        when(hadoopClientMock.pushBatch(anyList())).thenReturn(firstResponse).thenReturn(secondResponse);
+
+        int dispatched = hadoopForwarder.drainOutbox();
+
+        assertThat(dispatched).isEqualTo(4);
+        assertThat(hadoopForwarder.getInFlight()).isEqualTo(2);
+        assertThat(meterRegistry.get("hadoop.forwarding.inflight").gauge().value()).isEqualTo(2);
+
+        firstResponse.complete(null);
+        secondResponse.complete(null);
+        verify(hadoopOutboxServiceMock, timeout(5000)).markDelivered(firstBatch);
+        verify(hadoopOutboxServiceMock, timeout(5000)).markDelivered(secondBatch);
+        verify(hadoopClientMock, never()).pushData(anyString());
+        verify(hadoopRetryPolicyMock, times(2)).recordFirstAttempts(BATCH_MAX_SIZE);
+        assertThat(hadoopForwarder.getInFlight()).isZero();
+        assertThat(meterRegistry.get("hadoop.forwarding.envelopes").tag("outcome", "success").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("hadoop.forwarding.batch.size").summary().mean()).isEqualTo(BATCH_MAX_SIZE);
+    }
+
+    @Test
+    public void shouldNotClaimMoreThanTheConcurrencyLimitAllows() {
+        when(hadoopOutboxServiceMock.claimBatch(eq(4), anyLong())).thenReturn(Arrays.asList(createTestOutboxEntity(1L), createTestOutboxEntity(2L),
+                createTestOutboxEntity(3L), createTestOutboxEntity(4L)));
+        when(hadoopClientMock.pushBatch(anyList())).thenReturn(new CompletableFuture<>());
+
+        hadoopForwarder.drainOutbox();
+        int dispatched = hadoopForwarder.drainOutbox();
+
+        assertThat(dispatched).isZero();
+        verify(hadoopOutboxServiceMock).claimBatch(eq(4), anyLong());
+    }
+
+    @Test
+    public void shouldSizeClaimsAndBatchesByPayloadCharacters() throws InterruptedException {
+        hadoopForwarder.shutdown();
+        long batchMaxChars = TEST_PAYLOAD.length() + 1;
+        hadoopForwarder = createForwarder(0, batchMaxChars);
+        when(hadoopOutboxServiceMock.claimBatch(4, 2 * batchMaxChars)).thenReturn(Arrays.asList(createTestOutboxEntity(1L),
+                createTestOutboxEntity(2L)));
+        when(hadoopClientMock.pushData(TEST_PAYLOAD)).thenReturn(new CompletableFuture<>());
+
+        int dispatched = hadoopForwarder.drainOutbox();
+
+        assertThat(dispatched).isEqualTo(2);
+        verify(hadoopClientMock, times(2)).pushData(TEST_PAYLOAD);
+        verify(hadoopClientMock, never()).pushBatch(anyList());
+    }
+
+    @Test
+    public void shouldSendSingleEnvelopeOnceLingerExpires() {
+        HadoopOutboxEntity entry = createTestOutboxEntity(1L);
+        when(hadoopOutboxServiceMock.claimBatch(anyInt(), anyLong())).thenReturn(Collections.singletonList(entry));
+        when(hadoopClientMock.pushData(TEST_PAYLOAD)).thenReturn(CompletableFuture.completedFuture(null));
+
+        hadoopForwarder.drainOutbox();
+
+        verify(hadoopOutboxServiceMock, timeout(5000)).markDelivered(Collections.singletonList(entry));
+    }
+
+    @Test
+    public void shouldReturnFailedRowsToTheOutboxAndShrinkTheLimit() {
+        HadoopOutboxEntity entry = createTestOutboxEntity(1L);
+        when(hadoopOutboxServiceMock.claimBatch(anyInt(), anyLong())).thenReturn(Collections.singletonList(entry));
+        CompletableFuture<Void> response = new CompletableFuture<>();
+        response.completeExceptionally(new HadoopClientException("Hadoop returned 504", 504));
+        when(hadoopClientMock.pushData(anyString())).thenReturn(response);
+
+        hadoopForwarder.drainOutbox();
+
+        verify(hadoopOutboxServiceMock, timeout(5000)).markFailed(Collections.singletonList(entry));
+        verify(hadoopOutboxServiceMock, never()).markDelivered(anyList());
+        assertThat(meterRegistry.get("hadoop.forwarding.envelopes").tag("outcome", "failure").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hadoop.forwarding.concurrency.limit").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldStopClaimingOnceTheCircuitOpens() {
+        HadoopOutboxEntity entry = createTestOutboxEntity(1L);
+        when(hadoopOutboxServiceMock.claimBatch(anyInt(), anyLong())).thenReturn(Collections.singletonList(entry));
+        CompletableFuture<Void> response = new CompletableFuture<>();
+        response.completeExceptionally(new HadoopClientException("Hadoop returned 504", 504));
+        when(hadoopClientMock.pushData(anyString())).thenReturn(response);
+
+        hadoopForwarder.drainOutbox();
+        verify(hadoopOutboxServiceMock, timeout(5000)).markFailed(Collections.singletonList(entry));
+        int dispatched = hadoopForwarder.drainOutbox();
+
+        assertThat(dispatched).isZero();
+        verify(hadoopOutboxServiceMock, times(1)).claimBatch(anyInt(), anyLong());
+        assertThat(meterRegistry.get("hadoop.circuit.state").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReleaseAHeldBatchOnceTheCircuitOpens() throws InterruptedException {
+        hadoopForwarder.shutdown();
+        hadoopForwarder = createForwarder(60000, 1024);
+        List<HadoopOutboxEntity> sent = Arrays.asList(createTestOutboxEntity(1L), createTestOutboxEntity(2L));
+        HadoopOutboxEntity held = createTestOutboxEntity(3L);
+        when(hadoopOutboxServiceMock.claimBatch(eq(4), anyLong())).thenReturn(Arrays.asList(sent.get(0), sent.get(1), held));
+        CompletableFuture<Void> response = new CompletableFuture<>();
+        response.completeExceptionally(new HadoopClientException("Hadoop returned 504", 504));
+        when(hadoopClientMock.pushBatch(anyList())).thenReturn(response);
+
+        hadoopForwarder.drainOutbox();
+        verify(hadoopOutboxServiceMock, timeout(5000)).markFailed(sent);
+        hadoopForwarder.drainOutbox();
+
+        verify(hadoopOutboxServiceMock).releaseClaims(Collections.singletonList(held));
+        verify(hadoopClientMock, never()).pushData(anyString());
+        verify(hadoopOutboxServiceMock, times(1)).claimBatch(anyInt(), anyLong());
+    }
+
+    @Test
+    public void shouldCountThePendingRowsOncePerSampleInterval() {
+        when(hadoopOutboxServiceMock.countPending()).thenReturn(7L);
+
+        hadoopForwarder.pollOutbox();
+        hadoopForwarder.pollOutbox();
+
+        verify(hadoopOutboxServiceMock, times(1)).countPending();
+        assertThat(meterRegistry.get("hadoop.outbox.pending").gauge().value()).isEqualTo(7);
+        verify(hadoopOutboxServiceMock, times(1)).countPending();
+    }
+
+    private static HadoopOutboxEntity createTestOutboxEntity(Long id) {
+        HadoopOutboxEntity entry = new HadoopOutboxEntity();
+        entry.setOutboxId(id);
+        entry.setDataHeaderName(TEST_NAME);
+        entry.setPayload(TEST_PAYLOAD);
+        entry.setStatus(OutboxStatusEnum.CLAIMED);
+        return entry;
+    }
+}
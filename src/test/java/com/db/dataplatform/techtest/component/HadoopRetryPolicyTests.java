@@ -0,0 +1,87 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.HadoopRetryPolicyImpl;
+import com.db.dataplatform.techtest.server.configuration.HadoopRetryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HadoopRetryPolicyTests {
+
+    private HadoopRetryProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setup() {
+        properties = new HadoopRetryProperties();
+        properties.setInitialDelayMillis(100);
+        properties.setMultiplier(2.0);
+        properties.setMaxDelayMillis(1000);
+        properties.setJitter(0);
+        properties.setMaxAttempts(5);
+        properties.setBudgetMinPerSecond(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void shouldBackOffExponentiallyUpToTheMaximum() {
+        HadoopRetryPolicyImpl retryPolicy = new HadoopRetryPolicyImpl(properties, meterRegistry);
+
+        assertThat(retryPolicy.backoffMillis(1)).isEqualTo(100);
+        assertThat(retryPolicy.backoffMillis(2)).isEqualTo(200);
+        assertThat(retryPolicy.backoffMillis(4)).isEqualTo(800);
+        assertThat(retryPolicy.backoffMillis(5)).isEqualTo(1000);
+    }
+
+    @Test
+    public void shouldKeepJitteredDelayWithinItsShare() {
+        properties.setJitter(0.5);
+        HadoopRetryPolicyImpl retryPolicy = new HadoopRetryPolicyImpl(properties, meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(retryPolicy.backoffMillis(3)).isBetween(200L, 400L);
+        }
+    }
+
+    @Test
+    public void shouldRetryForeverAtTheMaximumDelayByDefault() {
+        properties.setMaxAttempts(new HadoopRetryProperties().getMaxAttempts());
+        properties.setBudgetCapacity(10);
+        HadoopRetryPolicyImpl retryPolicy = new HadoopRetryPolicyImpl(properties, meterRegistry);
+        Instant now = Instant.now();
+
+        assertThat(retryPolicy.nextAttempt(10000, now)).isEqualTo(now.plusMillis(1000));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() {
+        HadoopRetryPolicyImpl retryPolicy = new HadoopRetryPolicyImpl(properties, meterRegistry);
+
+        assertThat(retryPolicy.nextAttempt(5, Instant.now())).isNull();
+        assertThat(meterRegistry.get("hadoop.forwarding.retries").tag("outcome", "exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeferRetriesOnceTheBudgetIsSpent() {
+        properties.setBudgetCapacity(1);
+        properties.setBudgetRatio(0.5);
+        HadoopRetryPolicyImpl retryPolicy = new HadoopRetryPolicyImpl(properties, meterRegistry);
+        Instant now = Instant.now();
+
+        assertThat(retryPolicy.nextAttempt(1, now)).isEqualTo(now.plusMillis(100));
+        assertThat(retryPolicy.nextAttempt(1, now)).isEqualTo(now.plusMillis(1000));
+
+        retryPolicy.recordFirstAttempts(2);
+
+        assertThat(retryPolicy.nextAttempt(1, now)).isEqualTo(now.plusMillis(100));
+        assertThat(meterRegistry.get("hadoop.forwarding.retries").tag("outcome", "deferred").counter().count()).isEqualTo(1);
+    }
+}
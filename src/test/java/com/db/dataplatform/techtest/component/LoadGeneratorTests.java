@@ -0,0 +1,78 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.client.LoadGeneratorProperties;
+import com.db.dataplatform.techtest.client.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.client.component.Client;
+import com.db.dataplatform.techtest.client.component.LoadOperationEnum;
+import com.db.dataplatform.techtest.client.component.LoadReport;
+import com.db.dataplatform.techtest.client.component.impl.LoadGeneratorImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoadGeneratorTests {
+
+    @Mock
+    private Client clientMock;
+
+    private LoadGeneratorProperties properties;
+    private LoadGeneratorImpl loadGenerator;
+
+    @Before
+    public void setup() {
+        properties = new LoadGeneratorProperties();
+        properties.setConcurrency(2);
+        properties.setRatePerSecond(200);
+        properties.setWarmupMillis(0);
+        properties.setDurationMillis(500);
+        loadGenerator = new LoadGeneratorImpl(clientMock, properties);
+    }
+
+    @Test
+    public void shouldSendTheConfiguredMixAtTheConfiguredRate() throws IOException, InterruptedException {
+        when(clientMock.getData(anyString())).thenReturn(Collections.emptyList());
+        when(clientMock.updateData(anyString(), anyString())).thenReturn(true);
+
+        LoadReport report = loadGenerator.run();
+
+        long total = report.getCount(LoadOperationEnum.PUSH) + report.getCount(LoadOperationEnum.QUERY)
+                + report.getCount(LoadOperationEnum.UPDATE);
+        assertThat(total).isBetween(90L, 100L);
+        assertThat(report.getCount(LoadOperationEnum.PUSH)).isGreaterThan(report.getCount(LoadOperationEnum.QUERY));
+        assertThat(report.getCount(LoadOperationEnum.QUERY)).isGreaterThan(0);
+        assertThat(report.getCount(LoadOperationEnum.UPDATE)).isGreaterThan(0);
+        assertThat(report.getErrorRatio()).isEqualTo(0);
+        assertThat(report.isPassed()).isTrue();
+    }
+
+    @Test
+    public void shouldFailWhenRequestsFail() throws IOException, InterruptedException {
+        properties.setQueryRatio(0);
+        properties.setUpdateRatio(0);
+        doThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE)).when(clientMock).pushData(any(DataEnvelope.class));
+
+        LoadReport report = loadGenerator.run();
+
+        assertThat(report.getCount(LoadOperationEnum.PUSH)).isEqualTo(0);
+        assertThat(report.getErrors().get(LoadOperationEnum.PUSH)).isGreaterThan(0);
+        assertThat(report.isPassed()).isFalse();
+        assertThat(report.getViolations()).hasSize(1);
+        verify(clientMock, never()).updateData(anyString(), anyString());
+    }
+}
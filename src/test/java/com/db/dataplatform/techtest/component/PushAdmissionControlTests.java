@@ -0,0 +1,119 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.api.model.AdmissionRejection;
+import com.db.dataplatform.techtest.server.component.RequestExecutor;
+import com.db.dataplatform.techtest.server.component.impl.PushAdmissionControlImpl;
+import com.db.dataplatform.techtest.server.configuration.AdmissionControlProperties;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PushAdmissionControlTests {
+
+    @Mock
+    private RequestExecutor requestExecutor;
+
+    @Mock
+    private HadoopOutboxService hadoopOutboxService;
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PushAdmissionControlImpl admissionControl;
+
+    @Before
+    public void setup() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setRatePerSecond(0.5);
+        properties.setBurst(2);
+        properties.setMaxInFlightRequests(10);
+        properties.setMaxOutboxPending(100);
+        properties.setMaxThreadsAwaitingConnection(5);
+        properties.setOverloadRetryAfterSeconds(3);
+        meterRegistry = new SimpleMeterRegistry();
+        admissionControl = new PushAdmissionControlImpl(properties, requestExecutor, hadoopOutboxService,
+                dataSource, meterRegistry);
+
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+    }
+
+    @Test
+    public void shouldRateLimitEachClientSeparately() {
+        assertThat(admissionControl.admit("a")).isNull();
+        assertThat(admissionControl.admit("a")).isNull();
+
+        AdmissionRejection rejection = admissionControl.admit("a");
+
+        assertThat(rejection.getReason()).isEqualTo(AdmissionRejection.Reason.RATE_LIMITED);
+        assertThat(rejection.getRetryAfterSeconds()).isBetween(1L, 2L);
+        assertThat(admissionControl.admit("b")).isNull();
+        assertThat(rejectedCount(AdmissionRejection.Reason.RATE_LIMITED)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldTurnAwayPushesWhileTooManyRequestsAreRunning() {
+        when(requestExecutor.getInFlight()).thenReturn(10);
+
+        AdmissionRejection rejection = admissionControl.admit("a");
+
+        assertThat(rejection).isEqualTo(new AdmissionRejection(AdmissionRejection.Reason.REQUEST_BACKLOG, 3));
+    }
+
+    @Test
+    public void shouldTurnAwayPushesWhileThreadsQueueForConnections() {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(5);
+
+        AdmissionRejection rejection = admissionControl.admit("a");
+
+        assertThat(rejection).isEqualTo(new AdmissionRejection(AdmissionRejection.Reason.DB_POOL_SATURATED, 3));
+    }
+
+    @Test
+    public void shouldTurnAwayPushesOnceTheSampledOutboxIsFull() {
+        when(hadoopOutboxService.countPending()).thenReturn(100L);
+        admissionControl.sampleOutbox();
+
+        AdmissionRejection rejection = admissionControl.admit("a");
+
+        assertThat(rejection).isEqualTo(new AdmissionRejection(AdmissionRejection.Reason.OUTBOX_BACKLOG, 3));
+        assertThat(rejectedCount(AdmissionRejection.Reason.OUTBOX_BACKLOG)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotSpendTokensOnOverloadedPushes() {
+        when(requestExecutor.getInFlight()).thenReturn(10, 10, 10, 0);
+        for (int i = 0; i < 3; i++) {
+            admissionControl.admit("a");
+        }
+
+        assertThat(admissionControl.admit("a")).isNull();
+    }
+
+    @Test
+    public void shouldKeepTheLastOutboxCountWhenCountingFails() {
+        when(hadoopOutboxService.countPending()).thenReturn(100L).thenThrow(new IllegalStateException("busy"));
+        admissionControl.sampleOutbox();
+        admissionControl.sampleOutbox();
+
+        assertThat(admissionControl.admit("a").getReason()).isEqualTo(AdmissionRejection.Reason.OUTBOX_BACKLOG);
+    }
+
+    private double rejectedCount(AdmissionRejection.Reason reason) {
+        return meterRegistry.get("dataserver.admission.rejected").tag("reason", reason.name().toLowerCase())
+                .counter().count();
+    }
+}
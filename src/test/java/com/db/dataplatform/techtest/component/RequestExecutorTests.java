@@ -0,0 +1,175 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.RequestExecutorImpl;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionModeEnum;
+import com.db.dataplatform.techtest.server.configuration.RequestExecutionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RequestExecutorTests {
+
+    private RequestExecutionProperties properties;
+    private RequestExecutorImpl requestExecutor;
+
+    @Before
+    public void setup() {
+        properties = new RequestExecutionProperties();
+        properties.setPlatformThreads(2);
+    }
+
+    @After
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+
+    @Test
+    public void shouldRunOnCallerThreadInDirectMode() {
+        properties.setMode(RequestExecutionModeEnum.DIRECT);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+
+        CompletableFuture<Thread> future = requestExecutor.submit(Thread::currentThread);
+
+        assertThat(future.getNow(null)).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void shouldRunOffCallerThreadInPlatformMode() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.PLATFORM);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+
+        Thread thread = requestExecutor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        assertThat(thread).isNotSameAs(Thread.currentThread());
+        assertThat(thread.getName()).startsWith("request-");
+    }
+
+    @Test
+    public void shouldRunTasksInVirtualModeOnAnyJdk() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.VIRTUAL);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+
+        assertThat(requestExecutor.getMode()).isIn(RequestExecutionModeEnum.VIRTUAL, RequestExecutionModeEnum.PLATFORM);
+        assertThat(requestExecutor.submit(() -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    }
+
+    @Test
+    public void shouldCompleteWithTheExceptionTheTaskThrew() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.PLATFORM);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+
+        CompletableFuture<Object> future = requestExecutor.submit(() -> {
+            throw new IOException("Stream closed");
+        });
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the task's exception");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IOException.class).hasMessage("Stream closed");
+        }
+    }
+
+    @Test
+    public void shouldRejectTasksOnceThePlatformQueueIsFull() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.PLATFORM);
+        properties.setPlatformThreads(1);
+        properties.setQueueCapacity(1);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> running = requestExecutor.submit(() -> release.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = requestExecutor.submit(() -> "queued");
+        CompletableFuture<String> rejected = requestExecutor.submit(() -> "rejected");
+
+        assertThat(rejected).isCompletedExceptionally();
+        try {
+            requestExecutor.execute(() -> { });
+            fail("Expected the task to be rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    public void shouldCountQueuedTasksInFlight() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.PLATFORM);
+        properties.setPlatformThreads(1);
+        properties.setTimeoutMillis(200);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+        Semaphore release = new Semaphore(0);
+
+        requestExecutor.submit(() -> {
+            release.acquireUninterruptibly();
+            return null;
+        });
+        CompletableFuture<String> queued = requestExecutor.submit(() -> "queued");
+
+        assertThat(requestExecutor.getInFlight()).isEqualTo(2);
+        try {
+            queued.get(5, TimeUnit.SECONDS);
+            fail("Expected the queued request to time out");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(AsyncRequestTimeoutException.class);
+        }
+        // The running task is left to finish and is counted until it does.
+        awaitInFlight(1);
+        release.release();
+        awaitInFlight(0);
+    }
+
+    @Test
+    public void shouldLetARunningTaskFinishAfterItTimesOut() throws Exception {
+        properties.setMode(RequestExecutionModeEnum.PLATFORM);
+        properties.setTimeoutMillis(100);
+        requestExecutor = new RequestExecutorImpl(properties, new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> finished = new CompletableFuture<>();
+
+        CompletableFuture<Object> future = requestExecutor.submit(() -> {
+            try {
+                finished.complete(release.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                finished.completeExceptionally(e);
+            }
+            return null;
+        });
+
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the request to time out");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(AsyncRequestTimeoutException.class);
+        }
+        assertThat(requestExecutor.getInFlight()).isEqualTo(1);
+        release.countDown();
+        assertThat(finished.get(5, TimeUnit.SECONDS)).isTrue();
+        awaitInFlight(0);
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestExecutor.getInFlight() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(requestExecutor.getInFlight()).isEqualTo(expected);
+    }
+}
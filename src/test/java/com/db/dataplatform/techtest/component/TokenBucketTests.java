@@ -0,0 +1,55 @@
+package com.db.dataplatform.techtest.component;
+
+import com.db.dataplatform.techtest.server.component.impl.TokenBucket;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TokenBucketTests {
+
+    private long nanos;
+    private TokenBucket bucket;
+
+    @Before
+    public void setup() {
+        bucket = new TokenBucket(10, 3, () -> nanos);
+    }
+
+    @Test
+    public void shouldAllowTheBurstThenTellTheWait() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void shouldRefillAtTheRate() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire();
+        }
+
+        nanos += TimeUnit.MILLISECONDS.toNanos(60);
+        assertThat(bucket.tryAcquire()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(40));
+        nanos += TimeUnit.MILLISECONDS.toNanos(40);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    public void shouldNotRefillBeyondTheBurst() {
+        nanos += TimeUnit.MINUTES.toNanos(1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+}
@@ -0,0 +1,140 @@
+package com.db.dataplatform.techtest.persistence.repository;
+
+import com.db.dataplatform.techtest.EmbeddedDataSourceConfiguration;
+import com.db.dataplatform.techtest.server.component.impl.DataBodyCodecImpl;
+import com.db.dataplatform.techtest.server.configuration.DataBodyCodecProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository queries against setup.sql with {@value #ROWS} envelopes and checks the plan H2 picks for the
+ * SQL Hibernate generated, so that a schema or query change cannot silently turn a lookup into a table scan or
+ * into one select per row.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = DataStoreQueryPlanTests.QueryPlanConfiguration.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"logging.level.root=WARN",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.db.dataplatform.techtest.persistence.repository.DataStoreQueryPlanTests$RecordingStatementInspector"})
+public class DataStoreQueryPlanTests {
+
+    private static final int ROWS = 200_000;
+    private static final long MAX_LOOKUP_MILLIS = 100;
+    private static final long MAX_LISTING_MILLIS = 3000;
+    private static final String TABLE_SCAN = "tableScan";
+
+    private static boolean seeded;
+
+    @Autowired
+    private DataStoreRepository dataStoreRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void seed() {
+        if (seeded) {
+            return;
+        }
+        // Ids well above anything the sequences hand out, every tenth envelope is BLOCKTYPEB.
+        jdbcTemplate.update("insert into DATA_HEADER (DATA_HEADER_ID, NAME, BLOCKTYPE, CREATED_TIMESTAMP) "
+                + "select 1000000 + X, 'SEED-' || X, case when mod(X, 10) = 0 then 'BLOCKTYPEB' else 'BLOCKTYPEA' end, "
+                + "current_timestamp from system_range(1, ?)", ROWS);
+        jdbcTemplate.update("insert into DATA_STORE (DATA_STORE_ID, DATA_HEADER_ID, DATA_BODY, MD5_CHECKSUM, CREATED_TIMESTAMP) "
+                + "select 1000000 + X, 1000000 + X, 'BODY-' || X, null, current_timestamp from system_range(1, ?)", ROWS);
+        jdbcTemplate.execute("analyze");
+        seeded = true;
+    }
+
+    @Test
+    public void shouldFindByNameThroughIndexes() {
+        DataBodyEntity found = timed(MAX_LOOKUP_MILLIS, () -> dataStoreRepository.findByDataHeaderEntity_Name("SEED-12345"));
+
+        assertThat(found.getDataStoreId()).isEqualTo(1012345L);
+        assertThat(found.getDataHeaderEntity().getName()).isEqualTo("SEED-12345");
+        String plan = explain(singleStatement(), "SEED-12345");
+        assertThat(plan).contains("UK_DATA_HEADER").contains("IX_DATA_STORE_DATA_HEADER").doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    public void shouldPageBlockTypeThroughIndexes() {
+        List<DataEnvelopeProjection> page = timed(MAX_LOOKUP_MILLIS, () -> dataStoreRepository.findEnvelopePageByBlockType(BlockTypeEnum.BLOCKTYPEB,
+                1000000L + ROWS - 100, PageRequest.of(0, 50)));
+
+        assertThat(page).hasSize(10);
+        String plan = explain(singleStatement(), BlockTypeEnum.BLOCKTYPEB.name(), 1000000L + ROWS - 100, 50);
+        assertThat(plan).contains("IX_DATA_HEADER_BLOCKTYPE").contains("IX_DATA_STORE_DATA_HEADER").doesNotContain(TABLE_SCAN);
+    }
+
+    @Test
+    public void shouldListBlockTypeThroughIndexes() {
+        List<DataEnvelopeProjection> dataEnvelopeProjections = timed(MAX_LISTING_MILLIS, () ->
+                dataStoreRepository.findEnvelopesByBlockType(BlockTypeEnum.BLOCKTYPEB));
+
+        assertThat(dataEnvelopeProjections).hasSize(ROWS / 10);
+        assertThat(dataEnvelopeProjections.get(0).getDataBody()).startsWith("BODY-");
+        String plan = explain(singleStatement(), BlockTypeEnum.BLOCKTYPEB.name());
+        assertThat(plan).contains("IX_DATA_HEADER_BLOCKTYPE").contains("IX_DATA_STORE_DATA_HEADER").doesNotContain(TABLE_SCAN);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+    }
+
+    private static String singleStatement() {
+        assertThat(RecordingStatementInspector.STATEMENTS).hasSize(1);
+        return RecordingStatementInspector.STATEMENTS.get(0);
+    }
+
+    private static <T> T timed(long maxMillis, Supplier<T> query) {
+        // The first run pays for parsing and planning the statement.
+        query.get();
+        RecordingStatementInspector.STATEMENTS.clear();
+        long start = System.nanoTime();
+        T result = query.get();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(maxMillis);
+        return result;
+    }
+
+    /**
+     * Keeps the statements Hibernate prepares, so the test can count them and ask H2 for their plan.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import({EmbeddedDataSourceConfiguration.class, DataBodyCodecImpl.class, DataBodyCodecProperties.class})
+    static class QueryPlanConfiguration {
+    }
+}
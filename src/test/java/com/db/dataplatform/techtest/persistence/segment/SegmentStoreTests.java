@@ -0,0 +1,235 @@
+package com.db.dataplatform.techtest.persistence.segment;
+
+import com.db.dataplatform.techtest.server.configuration.DataStoreProperties;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
+import com.db.dataplatform.techtest.server.persistence.BodyCodecEnum;
+import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
+import com.db.dataplatform.techtest.server.persistence.segment.SegmentStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataBodyEntity;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataHeaderEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentStoreTests {
+
+    private static final int SEGMENT_SIZE_BYTES = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DataStoreProperties properties;
+    private SegmentStore segmentStore;
+
+    @Before
+    public void setup() throws IOException {
+        properties = new DataStoreProperties();
+        properties.getSegment().setDirectory(folder.getRoot().getPath());
+        properties.getSegment().setSizeBytes(SEGMENT_SIZE_BYTES);
+        segmentStore = new SegmentStore(properties);
+    }
+
+    @Test
+    public void shouldFindSavedEnvelopeByNameAndBlockType() {
+        DataBodyEntity saved = createDataBodyEntity(TEST_NAME, BlockTypeEnum.BLOCKTYPEA);
+
+        segmentStore.save(saved);
+
+        DataBodyEntity found = segmentStore.findByName(TEST_NAME).get();
+        assertThat(found.getDataStoreId()).isEqualTo(saved.getDataStoreId());
+        assertThat(found.getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(found.getChecksum()).isEqualTo(DUMMY_CHECKSUM);
+        assertThat(found.getCreatedTimestamp()).isEqualTo(saved.getCreatedTimestamp());
+        assertThat(found.getDataHeaderEntity().getCreatedTimestamp()).isEqualTo(saved.getDataHeaderEntity().getCreatedTimestamp());
+        assertThat(segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEA, 0L, 10)).hasSize(1);
+        assertThat(segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEB, 0L, 10)).isEmpty();
+    }
+
+    @Test
+    public void shouldPageByIdInOrder() {
+        segmentStore.saveAll(Arrays.asList(createDataBodyEntity("A", BlockTypeEnum.BLOCKTYPEA),
+                createDataBodyEntity("B", BlockTypeEnum.BLOCKTYPEA), createDataBodyEntity("C", BlockTypeEnum.BLOCKTYPEA)));
+
+        List<DataBodyEntity> first = segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEA, 0L, 2);
+        List<DataBodyEntity> second = segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEA, first.get(1).getDataStoreId(), 2);
+
+        assertThat(first).extracting(dataBodyEntity -> dataBodyEntity.getDataHeaderEntity().getName()).containsExactly("A", "B");
+        assertThat(second).extracting(dataBodyEntity -> dataBodyEntity.getDataHeaderEntity().getName()).containsExactly("C");
+    }
+
+    @Test
+    public void shouldMoveUpdatedEnvelopeToNewBlockType() {
+        segmentStore.save(createDataBodyEntity(TEST_NAME, BlockTypeEnum.BLOCKTYPEA));
+        DataBodyEntity updated = segmentStore.findByName(TEST_NAME).get();
+        updated.getDataHeaderEntity().setBlocktype(BlockTypeEnum.BLOCKTYPEB);
+
+        segmentStore.save(updated);
+
+        assertThat(segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEA, 0L, 10)).isEmpty();
+        assertThat(segmentStore.findByBlockType(BlockTypeEnum.BLOCKTYPEB, 0L, 10))
+                .extracting(DataBodyEntity::getDataStoreId).containsExactly(updated.getDataStoreId());
+    }
+
+    @Test
+    public void shouldRetagEnvelopesWithoutChangingBody() throws IOException {
+        segmentStore.saveAll(Arrays.asList(createDataBodyEntity("KEEP-1", BlockTypeEnum.BLOCKTYPEA),
+                createDataBodyEntity("KEEP-2", BlockTypeEnum.BLOCKTYPEB), createDataBodyEntity("OTHER", BlockTypeEnum.BLOCKTYPEA)));
+
+        int updated = segmentStore.updateBlockTypeByNamePrefix("KEEP-", BlockTypeEnum.BLOCKTYPEB);
+        segmentStore.close();
+
+        assertThat(updated).isEqualTo(2);
+        SegmentStore recovered = new SegmentStore(properties);
+        assertThat(recovered.findByBlockType(BlockTypeEnum.BLOCKTYPEB, 0L, 10)).extracting(DataBodyEntity::getDataHeaderEntity)
+                .extracting("name").containsExactly("KEEP-1", "KEEP-2");
+        assertThat(recovered.findByName("KEEP-1").get().getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(recovered.updateBlockType(Arrays.asList("OTHER", "MISSING"), BlockTypeEnum.BLOCKTYPEA)).isEqualTo(1);
+    }
+
+    @Test(expected = DataIntegrityViolationException.class)
+    public void shouldRejectNameOfAnotherEnvelope() {
+        segmentStore.save(createDataBodyEntity(TEST_NAME, BlockTypeEnum.BLOCKTYPEA));
+
+        segmentStore.save(createDataBodyEntity(TEST_NAME, BlockTypeEnum.BLOCKTYPEB));
+    }
+
+    @Test
+    public void shouldStoreNoneOfABatchWithADuplicateName() {
+        try {
+            segmentStore.saveAll(Arrays.asList(createDataBodyEntity("A", BlockTypeEnum.BLOCKTYPEA),
+                    createDataBodyEntity("A", BlockTypeEnum.BLOCKTYPEA)));
+        } catch (DataIntegrityViolationException expected) {
+        }
+
+        assertThat(segmentStore.findExistingNames(Collections.singletonList("A"))).isEmpty();
+    }
+
+    @Test
+    public void shouldRecoverEnvelopesAcrossRolledSegments() throws IOException {
+        for (int i = 0; i < 30; i++) {
+            segmentStore.save(createDataBodyEntity("N" + i, BlockTypeEnum.BLOCKTYPEA));
+        }
+        DataBodyEntity compressed = createDataBodyEntity("Z", BlockTypeEnum.BLOCKTYPEB);
+        compressed.setBodyCodec(BodyCodecEnum.LZ4);
+        compressed.setCompressedBody(new byte[]{1, 2, 3});
+        segmentStore.save(compressed);
+        segmentStore.close();
+
+        SegmentStore recovered = new SegmentStore(properties);
+
+        assertThat(folder.getRoot().list().length).isGreaterThan(1);
+        assertThat(recovered.findByBlockType(BlockTypeEnum.BLOCKTYPEA, 0L, 100)).hasSize(30);
+        assertThat(recovered.findByName("Z").get().getCompressedBody()).containsExactly(new byte[]{1, 2, 3});
+        recovered.save(createDataBodyEntity("New", BlockTypeEnum.BLOCKTYPEA));
+        assertThat(recovered.findByName("New").get().getDataStoreId()).isEqualTo(compressed.getDataStoreId() + 1);
+    }
+
+    @Test
+    public void shouldDiscardTornRecordAtTail() throws IOException {
+        segmentStore.save(createDataBodyEntity("A", BlockTypeEnum.BLOCKTYPEA));
+        segmentStore.save(createDataBodyEntity("B", BlockTypeEnum.BLOCKTYPEA));
+        segmentStore.close();
+        File segment = folder.getRoot().listFiles()[0];
+        int secondRecord = recordLength("A");
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            // Only part of the second record reached the file.
+            file.seek(secondRecord + 40);
+            file.write(new byte[recordLength("B") - 40]);
+        }
+
+        SegmentStore recovered = new SegmentStore(properties);
+        recovered.save(createDataBodyEntity("C", BlockTypeEnum.BLOCKTYPEA));
+        recovered.close();
+        SegmentStore recoveredAgain = new SegmentStore(properties);
+
+        assertThat(recoveredAgain.findExistingNames(Arrays.asList("A", "B", "C"))).containsOnly("A", "C");
+    }
+
+    @Test
+    public void shouldStreamBodyIntoOneRecordWithItsChecksum() throws IOException {
+        char[] large = new char[3 * SEGMENT_SIZE_BYTES];
+        Arrays.fill(large, 'x');
+        StringReader body = new StringReader(new String(large));
+        DataBodyEntity streamed = createDataBodyEntity("S", BlockTypeEnum.BLOCKTYPEB);
+        streamed.setChecksum(null);
+
+        segmentStore.save(streamed, body, () -> {
+            assertThat(readsToEnd(body)).isTrue();
+            return DUMMY_CHECKSUM;
+        });
+        segmentStore.save(createDataBodyEntity("A", BlockTypeEnum.BLOCKTYPEA));
+        segmentStore.close();
+
+        SegmentStore recovered = new SegmentStore(properties);
+        DataBodyEntity found = recovered.findByName("S").get();
+        assertThat(found.getDataBody()).isEqualTo(new String(large));
+        assertThat(found.getChecksum()).isEqualTo(DUMMY_CHECKSUM);
+        assertThat(found.getDataStoreId()).isEqualTo(streamed.getDataStoreId());
+        assertThat(recovered.findByName("A")).isPresent();
+        assertThat(folder.getRoot().list()).allMatch(file -> file.endsWith(".segment"));
+    }
+
+    @Test
+    public void shouldCompactSupersededSegmentAndKeepCurrentRecords() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            segmentStore.save(createDataBodyEntity("N" + i, BlockTypeEnum.BLOCKTYPEA));
+        }
+        for (int i = 1; i < 6; i++) {
+            DataBodyEntity updated = segmentStore.findByName("N" + i).get();
+            updated.getDataHeaderEntity().setBlocktype(BlockTypeEnum.BLOCKTYPEB);
+            segmentStore.save(updated);
+        }
+        int segmentsBefore = folder.getRoot().list().length;
+
+        int compacted = segmentStore.compactSegments();
+        segmentStore.close();
+
+        assertThat(compacted).isGreaterThan(0);
+        assertThat(folder.getRoot().list().length).isLessThan(segmentsBefore);
+        SegmentStore recovered = new SegmentStore(properties);
+        assertThat(recovered.findByBlockType(BlockTypeEnum.BLOCKTYPEA, 0L, 10)).extracting(DataBodyEntity::getDataHeaderEntity)
+                .extracting("name").containsExactly("N0");
+        assertThat(recovered.findByBlockType(BlockTypeEnum.BLOCKTYPEB, 0L, 10)).hasSize(5);
+    }
+
+    private static DataBodyEntity createDataBodyEntity(String name, BlockTypeEnum blockType) {
+        DataBodyEntity dataBodyEntity = createTestDataBodyEntity(createTestDataHeaderEntity(Instant.now()));
+        dataBodyEntity.getDataHeaderEntity().setName(name);
+        dataBodyEntity.getDataHeaderEntity().setBlocktype(blockType);
+        return dataBodyEntity;
+    }
+
+    private static boolean readsToEnd(Reader reader) {
+        try {
+            return reader.read() == -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Header, id, body and header timestamps, block type, codec, name, checksum and body of a record written by
+     * {@link #createDataBodyEntity(String, BlockTypeEnum)}.
+     */
+    private static int recordLength(String name) {
+        return 8 + 8 + 12 + 12 + 1 + 1 + 2 + name.length() + 4 + DUMMY_CHECKSUM.length() + 4 + DUMMY_DATA.length();
+    }
+}
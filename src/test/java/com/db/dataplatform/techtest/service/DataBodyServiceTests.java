@@ -1,25 +1,45 @@
 package com.db.dataplatform.techtest.service;
 
+import com.db.dataplatform.techtest.server.component.DataBodyCodec;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
 import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
 import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepository;
 import com.db.dataplatform.techtest.server.service.DataBodyService;
 import com.db.dataplatform.techtest.server.service.impl.DataBodyServiceImpl;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
 
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
 import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
 import static com.db.dataplatform.techtest.TestDataHelper.createTestDataBodyEntity;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeProjection;
 import static com.db.dataplatform.techtest.TestDataHelper.createTestDataHeaderEntity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DataBodyServiceTests {
@@ -29,6 +49,12 @@ public class DataBodyServiceTests {
     @Mock
     private DataStoreRepository dataStoreRepositoryMock;
 
+    @Mock
+    private EntityManager entityManagerMock;
+
+    @Mock
+    private DataBodyCodec dataBodyCodecMock;
+
     private DataBodyService dataBodyService;
     private DataBodyEntity expectedDataBodyEntity;
 
@@ -37,23 +63,90 @@ public class DataBodyServiceTests {
         DataHeaderEntity testDataHeaderEntity = createTestDataHeaderEntity(Instant.now());
         expectedDataBodyEntity = createTestDataBodyEntity(testDataHeaderEntity);
 
-        dataBodyService = new DataBodyServiceImpl(dataStoreRepositoryMock);
+        dataBodyService = new DataBodyServiceImpl(dataStoreRepositoryMock, entityManagerMock, dataBodyCodecMock);
     }
 
     @Test
     public void shouldSaveDataBodyEntityAsExpected(){
         dataBodyService.saveDataBody(expectedDataBodyEntity);
 
+        InOrder inOrder = inOrder(dataBodyCodecMock, dataStoreRepositoryMock);
+        inOrder.verify(dataBodyCodecMock).encode(expectedDataBodyEntity);
+        inOrder.verify(dataStoreRepositoryMock).save(expectedDataBodyEntity);
+    }
+
+    @Test
+    public void shouldStreamDataBodyIntoSavedRow(){
+        expectedDataBodyEntity.setDataStoreId(7L);
+        Reader dataBody = new StringReader(TEST_NAME);
+
+        dataBodyService.saveDataBody(expectedDataBodyEntity, dataBody, () -> DUMMY_CHECKSUM);
+
+        assertThat(expectedDataBodyEntity.getDataBody()).isEmpty();
+        InOrder inOrder = inOrder(dataStoreRepositoryMock, entityManagerMock);
+        inOrder.verify(dataStoreRepositoryMock).saveAndFlush(expectedDataBodyEntity);
+        inOrder.verify(dataStoreRepositoryMock).writeDataBody(7L, dataBody);
+        inOrder.verify(dataStoreRepositoryMock).updateChecksum(7L, DUMMY_CHECKSUM);
+        inOrder.verify(entityManagerMock).detach(expectedDataBodyEntity);
+    }
+
+    @Test
+    public void shouldLeaveChecksumOfStreamedRowUnsetWithoutOne(){
+        expectedDataBodyEntity.setDataStoreId(7L);
+
+        dataBodyService.saveDataBody(expectedDataBodyEntity, new StringReader(TEST_NAME), () -> null);
+
+        verify(dataStoreRepositoryMock, never()).updateChecksum(anyLong(), anyString());
+    }
+
+    @Test
+    public void shouldSaveDataBodyEntitiesTogether(){
+        dataBodyService.saveDataBodies(Collections.singletonList(expectedDataBodyEntity));
+
+        verify(dataBodyCodecMock, times(1)).encode(expectedDataBodyEntity);
         verify(dataStoreRepositoryMock, times(1))
-                .save(expectedDataBodyEntity);
+                .saveAll(Collections.singletonList(expectedDataBodyEntity));
     }
 
     @Test
-    public void shouldFetchDataBodyEntityByBlockType(){
+    public void shouldFetchDataEnvelopeProjectionsByBlockType(){
         dataBodyService.getDataByBlockType(BlockTypeEnum.BLOCKTYPEA);
 
         verify(dataStoreRepositoryMock, times(1))
-                .findByDataHeaderEntity_Blocktype(BlockTypeEnum.BLOCKTYPEA);
+                .findEnvelopesByBlockType(BlockTypeEnum.BLOCKTYPEA);
+    }
+
+    @Test
+    public void shouldDecodeEachFetchedDataEnvelopeProjection(){
+        DataEnvelopeProjection dataEnvelopeProjection = createTestDataEnvelopeProjection(1L);
+        when(dataStoreRepositoryMock.findEnvelopesByBlockType(BlockTypeEnum.BLOCKTYPEA))
+                .thenReturn(Collections.singletonList(dataEnvelopeProjection));
+
+        List<DataEnvelopeProjection> dataEnvelopeProjections = dataBodyService.getDataByBlockType(BlockTypeEnum.BLOCKTYPEA);
+
+        assertThat(dataEnvelopeProjections).containsExactly(dataEnvelopeProjection);
+        verify(dataBodyCodecMock, times(1)).decode(dataEnvelopeProjection);
+    }
+
+    @Test
+    public void shouldFetchPageOfDataEnvelopeProjectionsAfterCursor(){
+        dataBodyService.getDataByBlockTypeAfter(BlockTypeEnum.BLOCKTYPEA, 42L, 10);
+
+        verify(dataStoreRepositoryMock, times(1))
+                .findEnvelopePageByBlockType(BlockTypeEnum.BLOCKTYPEA, 42L, PageRequest.of(0, 10));
+    }
+
+    @Test
+    public void shouldHandOverEachStreamedDataEnvelopeProjection(){
+        DataEnvelopeProjection dataEnvelopeProjection = createTestDataEnvelopeProjection(1L);
+        when(dataStoreRepositoryMock.streamEnvelopesByBlockType(BlockTypeEnum.BLOCKTYPEA))
+                .thenReturn(Stream.of(dataEnvelopeProjection));
+        List<DataEnvelopeProjection> consumed = new ArrayList<>();
+
+        dataBodyService.forEachByBlockType(BlockTypeEnum.BLOCKTYPEA, consumed::add);
+
+        assertThat(consumed).containsExactly(dataEnvelopeProjection);
+        verify(dataBodyCodecMock, times(1)).decode(dataEnvelopeProjection);
     }
 
     @Test
@@ -64,4 +157,11 @@ public class DataBodyServiceTests {
                 .findByDataHeaderEntity_Name(TEST_NAME);
     }
 
+    @Test
+    public void shouldReportMissingDataBodyWhenReading() throws IOException {
+        boolean found = dataBodyService.readDataBody(TEST_NAME_NO_RESULT, dataBody -> {});
+
+        assertThat(found).isFalse();
+    }
+
 }
@@ -1,6 +1,6 @@
 package com.db.dataplatform.techtest.service;
 
-import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.repository.DataHeaderRepository;
 import com.db.dataplatform.techtest.server.service.DataHeaderService;
 import com.db.dataplatform.techtest.server.service.impl.DataHeaderServiceImpl;
@@ -10,12 +10,15 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
-import java.time.Instant;
+import java.util.Collections;
 
-import static com.db.dataplatform.techtest.TestDataHelper.createTestDataHeaderEntity;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class DataHeaderServiceTests {
@@ -24,21 +27,32 @@ public class DataHeaderServiceTests {
     private DataHeaderRepository dataHeaderRepositoryMock;
 
     private DataHeaderService dataHeaderService;
-    private DataHeaderEntity expectedDataHeaderEntity;
 
     @Before
     public void setup() {
-        expectedDataHeaderEntity = createTestDataHeaderEntity(Instant.now());
-
         dataHeaderService = new DataHeaderServiceImpl(dataHeaderRepositoryMock);
     }
 
     @Test
-    public void shouldSaveDataHeaderEntityAsExpected(){
-        dataHeaderService.saveHeader(expectedDataHeaderEntity);
+    public void shouldFindExistingNames(){
+        when(dataHeaderRepositoryMock.findExistingNames(Collections.singletonList(TEST_NAME)))
+                .thenReturn(Collections.singletonList(TEST_NAME));
+
+        assertThat(dataHeaderService.findExistingNames(Collections.singletonList(TEST_NAME))).containsExactly(TEST_NAME);
+    }
+
+    @Test
+    public void shouldEscapeLikeCharactersOfNamePrefix(){
+        when(dataHeaderRepositoryMock.updateBlockTypeByNameLike("A\\_B\\%C\\\\%", BlockTypeEnum.BLOCKTYPEB)).thenReturn(3);
+
+        assertThat(dataHeaderService.updateBlockTypeByNamePrefix("A_B%C\\", BlockTypeEnum.BLOCKTYPEB)).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotUpdateForNoNames(){
+        assertThat(dataHeaderService.updateBlockType(Collections.emptyList(), BlockTypeEnum.BLOCKTYPEB)).isZero();
 
-        verify(dataHeaderRepositoryMock, times(1))
-                .save(eq(expectedDataHeaderEntity));
+        verify(dataHeaderRepositoryMock, never()).updateBlockType(anyCollection(), eq(BlockTypeEnum.BLOCKTYPEB));
     }
 
 }
@@ -0,0 +1,202 @@
+package com.db.dataplatform.techtest.service;
+
+import com.db.dataplatform.techtest.server.api.model.DataBody;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
+import com.db.dataplatform.techtest.server.component.HadoopRetryPolicy;
+import com.db.dataplatform.techtest.server.configuration.HadoopOutboxProperties;
+import com.db.dataplatform.techtest.server.persistence.OutboxStatusEnum;
+import com.db.dataplatform.techtest.server.persistence.model.HadoopOutboxEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DueOutboxEntryProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.HadoopOutboxRepository;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
+import com.db.dataplatform.techtest.server.service.impl.HadoopOutboxServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HadoopOutboxServiceTests {
+
+    @Mock
+    private HadoopOutboxRepository hadoopOutboxRepositoryMock;
+
+    @Mock
+    private HadoopRetryPolicy hadoopRetryPolicyMock;
+
+    private HadoopOutboxService hadoopOutboxService;
+
+    @Before
+    public void setup() {
+        hadoopOutboxService = new HadoopOutboxServiceImpl(hadoopOutboxRepositoryMock, new HadoopOutboxProperties(),
+                hadoopRetryPolicyMock, new ObjectMapper());
+    }
+
+    @Test
+    public void shouldStoreEnvelopeAsPendingPayload() {
+        hadoopOutboxService.enqueue(createTestDataEnvelopeApiObject());
+
+        ArgumentCaptor<HadoopOutboxEntity> captor = ArgumentCaptor.forClass(HadoopOutboxEntity.class);
+        verify(hadoopOutboxRepositoryMock).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(OutboxStatusEnum.PENDING);
+        assertThat(captor.getValue().getDataHeaderName()).isEqualTo(TEST_NAME);
+        assertThat(captor.getValue().getPayload()).contains("\"name\":\"Test\"");
+    }
+
+    @Test
+    public void shouldStreamEnvelopeIntoPendingPayload() throws IOException {
+        DataEnvelope envelope = new DataEnvelope(createTestDataEnvelopeApiObject().getDataHeader(),
+                new DataBody("quote \" backslash \\ newline \n control \u0001 \u00e9"), DUMMY_CHECKSUM);
+        when(hadoopOutboxRepositoryMock.saveAndFlush(any(HadoopOutboxEntity.class))).thenAnswer(invocation -> {
+            invocation.<HadoopOutboxEntity>getArgument(0).setOutboxId(5L);
+            return invocation.getArgument(0);
+        });
+
+        hadoopOutboxService.enqueue(envelope.getDataHeader(), DUMMY_CHECKSUM, new StringReader(envelope.getDataBody().getDataBody()));
+
+        ArgumentCaptor<HadoopOutboxEntity> entry = ArgumentCaptor.forClass(HadoopOutboxEntity.class);
+        verify(hadoopOutboxRepositoryMock).saveAndFlush(entry.capture());
+        assertThat(entry.getValue().getStatus()).isEqualTo(OutboxStatusEnum.PENDING);
+        assertThat(entry.getValue().getDataHeaderName()).isEqualTo(TEST_NAME);
+        ArgumentCaptor<Reader> payload = ArgumentCaptor.forClass(Reader.class);
+        verify(hadoopOutboxRepositoryMock).writePayload(eq(5L), payload.capture());
+        assertThat(read(payload.getValue())).isEqualTo(new ObjectMapper().writeValueAsString(envelope));
+    }
+
+    @Test
+    public void shouldOnlyReturnRowsWonByTheClaim() {
+        List<Long> dueIds = Arrays.asList(1L, 2L);
+        HadoopOutboxEntity claimed = new HadoopOutboxEntity();
+        when(hadoopOutboxRepositoryMock.findDue(eq(OutboxStatusEnum.PENDING), any(Instant.class), any()))
+                .thenReturn(Arrays.asList(new DueOutboxEntryProjection(1L, 10), new DueOutboxEntryProjection(2L, 10)));
+        when(hadoopOutboxRepositoryMock.claim(eq(dueIds), anyString(), any(Instant.class), eq(OutboxStatusEnum.PENDING), eq(OutboxStatusEnum.CLAIMED)))
+                .thenReturn(1);
+        when(hadoopOutboxRepositoryMock.findByClaimedByOrderByOutboxId(anyString()))
+                .thenReturn(Collections.singletonList(claimed));
+
+        List<HadoopOutboxEntity> batch = hadoopOutboxService.claimBatch(10, 100);
+
+        assertThat(batch).containsExactly(claimed);
+    }
+
+    @Test
+    public void shouldStopClaimingAtThePayloadLimitButAlwaysClaimTheFirstRow() {
+        when(hadoopOutboxRepositoryMock.findDue(eq(OutboxStatusEnum.PENDING), any(Instant.class), any()))
+                .thenReturn(Arrays.asList(new DueOutboxEntryProjection(1L, 150), new DueOutboxEntryProjection(2L, 10)));
+        when(hadoopOutboxRepositoryMock.claim(eq(Collections.singletonList(1L)), anyString(), any(Instant.class),
+                eq(OutboxStatusEnum.PENDING), eq(OutboxStatusEnum.CLAIMED))).thenReturn(1);
+
+        hadoopOutboxService.claimBatch(10, 100);
+
+        verify(hadoopOutboxRepositoryMock).findByClaimedByOrderByOutboxId(anyString());
+    }
+
+    @Test
+    public void shouldNotClaimWhenNothingIsDue() {
+        when(hadoopOutboxRepositoryMock.findDue(eq(OutboxStatusEnum.PENDING), any(Instant.class), any()))
+                .thenReturn(Collections.emptyList());
+
+        List<HadoopOutboxEntity> batch = hadoopOutboxService.claimBatch(10, 100);
+
+        assertThat(batch).isEmpty();
+        verify(hadoopOutboxRepositoryMock, never()).claim(anyList(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldDeleteDeliveredRows() {
+        HadoopOutboxEntity first = new HadoopOutboxEntity();
+        first.setOutboxId(1L);
+        HadoopOutboxEntity second = new HadoopOutboxEntity();
+        second.setOutboxId(2L);
+
+        hadoopOutboxService.markDelivered(Arrays.asList(first, second));
+
+        verify(hadoopOutboxRepositoryMock).deleteByOutboxIdIn(Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    public void shouldReleaseUnsentRowsUnderTheirOwnClaims() {
+        HadoopOutboxEntity first = new HadoopOutboxEntity();
+        first.setOutboxId(1L);
+        first.setClaimedBy("token");
+        HadoopOutboxEntity second = new HadoopOutboxEntity();
+        second.setOutboxId(2L);
+        second.setClaimedBy("token");
+
+        hadoopOutboxService.releaseClaims(Arrays.asList(first, second));
+
+        verify(hadoopOutboxRepositoryMock).releaseClaims(Arrays.asList(1L, 2L), Collections.singleton("token"),
+                OutboxStatusEnum.PENDING, OutboxStatusEnum.CLAIMED);
+    }
+
+    @Test
+    public void shouldRescheduleFailedRowsWithOneStatementPerAttemptCount() {
+        HadoopOutboxEntity first = claimedEntry(1L, 0);
+        HadoopOutboxEntity second = claimedEntry(2L, 0);
+        HadoopOutboxEntity retried = claimedEntry(3L, 2);
+        Instant firstRetry = Instant.now().plusSeconds(1);
+        Instant thirdRetry = Instant.now().plusSeconds(4);
+        when(hadoopRetryPolicyMock.nextAttempt(eq(1), any(Instant.class))).thenReturn(firstRetry);
+        when(hadoopRetryPolicyMock.nextAttempt(eq(3), any(Instant.class))).thenReturn(thirdRetry);
+
+        hadoopOutboxService.markFailed(Arrays.asList(first, retried, second));
+
+        verify(hadoopOutboxRepositoryMock).reschedule(Arrays.asList(1L, 2L), Collections.singleton("token"),
+                OutboxStatusEnum.PENDING, firstRetry, OutboxStatusEnum.CLAIMED);
+        verify(hadoopOutboxRepositoryMock).reschedule(Collections.singletonList(3L), Collections.singleton("token"),
+                OutboxStatusEnum.PENDING, thirdRetry, OutboxStatusEnum.CLAIMED);
+        verify(hadoopOutboxRepositoryMock, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void shouldParkRowsThatUsedAllAttempts() {
+        HadoopOutboxEntity entry = claimedEntry(1L, 9);
+        when(hadoopRetryPolicyMock.nextAttempt(eq(10), any(Instant.class))).thenReturn(null);
+
+        hadoopOutboxService.markFailed(Collections.singletonList(entry));
+
+        verify(hadoopOutboxRepositoryMock).reschedule(eq(Collections.singletonList(1L)), eq(Collections.singleton("token")),
+                eq(OutboxStatusEnum.FAILED), any(Instant.class), eq(OutboxStatusEnum.CLAIMED));
+    }
+
+    private static HadoopOutboxEntity claimedEntry(long outboxId, int attempts) {
+        HadoopOutboxEntity entry = new HadoopOutboxEntity();
+        entry.setOutboxId(outboxId);
+        entry.setStatus(OutboxStatusEnum.CLAIMED);
+        entry.setClaimedBy("token");
+        entry.setAttempts(attempts);
+        return entry;
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            result.append((char) c);
+        }
+        return result.toString();
+    }
+}
@@ -1,30 +1,59 @@
 package com.db.dataplatform.techtest.service;
 
+import com.db.dataplatform.techtest.server.api.model.BulkIngestOutcomeEnum;
+import com.db.dataplatform.techtest.server.api.model.ChecksumAlgorithmEnum;
+import com.db.dataplatform.techtest.server.api.model.DataBody;
 import com.db.dataplatform.techtest.server.api.model.DataEnvelope;
-import com.db.dataplatform.techtest.server.mapper.ServerMapperConfiguration;
+import com.db.dataplatform.techtest.server.api.model.DataEnvelopePage;
+import com.db.dataplatform.techtest.server.api.model.DataHeader;
+import com.db.dataplatform.techtest.server.component.DataEnvelopesChangedEvent;
+import com.db.dataplatform.techtest.server.component.DataHeaderNameFilter;
+import com.db.dataplatform.techtest.server.component.IngestMetrics;
+import com.db.dataplatform.techtest.server.configuration.ConflictPolicyEnum;
+import com.db.dataplatform.techtest.server.configuration.IngestProperties;
+import com.db.dataplatform.techtest.server.exception.DataEnvelopeConflictException;
+import com.db.dataplatform.techtest.server.mapper.DataEnvelopeMapper;
 import com.db.dataplatform.techtest.server.persistence.BlockTypeEnum;
 import com.db.dataplatform.techtest.server.persistence.model.DataBodyEntity;
-import com.db.dataplatform.techtest.server.persistence.model.DataHeaderEntity;
+import com.db.dataplatform.techtest.server.persistence.projection.DataEnvelopeProjection;
+import com.db.dataplatform.techtest.server.persistence.repository.DataStoreRepositoryCustom.DataBodyReaderConsumer;
 import com.db.dataplatform.techtest.server.service.DataBodyService;
+import com.db.dataplatform.techtest.server.service.DataHeaderService;
+import com.db.dataplatform.techtest.server.service.HadoopOutboxService;
 import com.db.dataplatform.techtest.server.component.Server;
+import com.db.dataplatform.techtest.server.component.impl.ChecksumCalculatorImpl;
 import com.db.dataplatform.techtest.server.component.impl.ServerImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.modelmapper.ModelMapper;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_CHECKSUM;
+import static com.db.dataplatform.techtest.TestDataHelper.DUMMY_DATA;
+import static com.db.dataplatform.techtest.TestDataHelper.TEST_NAME;
 import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeApiObject;
+import static com.db.dataplatform.techtest.TestDataHelper.createTestDataEnvelopeProjection;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -35,65 +64,367 @@ public class ServerServiceTests {
     private DataBodyService dataBodyServiceImplMock;
 
     @Mock
-    private RestTemplate restTemplateMock;
+    private DataHeaderService dataHeaderServiceImplMock;
 
-    private ModelMapper modelMapper;
+    @Mock
+    private HadoopOutboxService hadoopOutboxServiceMock;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisherMock;
+
+    @Mock
+    private DataHeaderNameFilter dataHeaderNameFilterMock;
 
-    private DataBodyEntity expectedDataBodyEntity;
     private DataEnvelope testDataEnvelope;
 
+    private IngestProperties ingestProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private Server server;
 
     @Before
     public void setup() {
-        ServerMapperConfiguration serverMapperConfiguration = new ServerMapperConfiguration();
-        modelMapper = serverMapperConfiguration.createModelMapperBean();
-
         testDataEnvelope = createTestDataEnvelopeApiObject();
-        expectedDataBodyEntity = modelMapper.map(testDataEnvelope.getDataBody(), DataBodyEntity.class);
-        expectedDataBodyEntity.setDataHeaderEntity(modelMapper.map(testDataEnvelope.getDataHeader(), DataHeaderEntity.class));
+        meterRegistry = new SimpleMeterRegistry();
+        ingestProperties = new IngestProperties();
 
-        server = new ServerImpl(dataBodyServiceImplMock, modelMapper,restTemplateMock);
+        server = new ServerImpl(dataBodyServiceImplMock, dataHeaderServiceImplMock, new DataEnvelopeMapper(), new ChecksumCalculatorImpl(),
+                new IngestMetrics(meterRegistry), dataHeaderNameFilterMock, ingestProperties, hadoopOutboxServiceMock,
+                applicationEventPublisherMock);
     }
 
     @Test
     public void shouldSaveDataEnvelopeAsExpected() throws NoSuchAlgorithmException, IOException {
-        boolean success = server.saveDataEnvelope(testDataEnvelope, DUMMY_CHECKSUM);
+        boolean success = server.saveDataEnvelope(testDataEnvelope, DUMMY_CHECKSUM, ChecksumAlgorithmEnum.MD5);
+
+        assertThat(success).isTrue();
+        verify(dataBodyServiceImplMock, times(1)).saveDataBody(any(DataBodyEntity.class));
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(testDataEnvelope);
+        verify(dataHeaderNameFilterMock, times(1)).add(TEST_NAME);
+        verify(dataBodyServiceImplMock, never()).getEnvelopeByName(anyString());
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.BLOCKTYPEA);
+        assertThat(envelopeCount(BulkIngestOutcomeEnum.CHECKSUM_PASS)).isEqualTo(1);
+        for (IngestMetrics.Stage stage : new IngestMetrics.Stage[]{IngestMetrics.Stage.CHECKSUM, IngestMetrics.Stage.MAP,
+                IngestMetrics.Stage.PERSIST, IngestMetrics.Stage.OUTBOX}) {
+            assertThat(meterRegistry.get("dataserver.ingest.stage").tag("stage", stage.name().toLowerCase())
+                    .tag("blockType", BlockTypeEnum.BLOCKTYPEA.name()).timer().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void shouldVerifyChecksumWithNegotiatedAlgorithm() throws NoSuchAlgorithmException, IOException {
+        testDataEnvelope.setMd5Checksum(null);
+
+        boolean success = server.saveDataEnvelope(testDataEnvelope, "9271893e", ChecksumAlgorithmEnum.CRC32);
 
         assertThat(success).isTrue();
+        // Only MD5 checksums are kept with the data.
+        assertThat(testDataEnvelope.getMd5Checksum()).isNull();
         verify(dataBodyServiceImplMock, times(1)).saveDataBody(any(DataBodyEntity.class));
     }
 
+    @Test
+    public void shouldUseChecksumCalculatedWhileParsing() throws NoSuchAlgorithmException, IOException {
+        DataEnvelope parsed = new DataEnvelope(testDataEnvelope.getDataHeader(), new DataBody(DUMMY_DATA, "parsed"), null);
+
+        boolean success = server.saveDataEnvelope(parsed, "parsed", ChecksumAlgorithmEnum.MD5);
+
+        assertThat(success).isTrue();
+        ArgumentCaptor<DataBodyEntity> saved = ArgumentCaptor.forClass(DataBodyEntity.class);
+        verify(dataBodyServiceImplMock).saveDataBody(saved.capture());
+        assertThat(saved.getValue().getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(saved.getValue().getChecksum()).isNull();
+    }
+
+    @Test
+    public void shouldReportChecksumMismatch() throws NoSuchAlgorithmException, IOException {
+        boolean success = server.saveDataEnvelope(testDataEnvelope, DUMMY_CHECKSUM, ChecksumAlgorithmEnum.CRC32C);
+
+        assertThat(success).isFalse();
+        verify(dataBodyServiceImplMock, times(1)).saveDataBody(any(DataBodyEntity.class));
+        assertThat(envelopeCount(BulkIngestOutcomeEnum.CHECKSUM_FAIL)).isEqualTo(1);
+        assertThat(envelopeCount(BulkIngestOutcomeEnum.CHECKSUM_PASS)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldAcknowledgeReplayWithoutStoringItAgain() throws NoSuchAlgorithmException, IOException {
+        givenStoredEnvelope();
+
+        boolean success = server.saveDataEnvelope(testDataEnvelope, DUMMY_CHECKSUM, ChecksumAlgorithmEnum.MD5);
+
+        assertThat(success).isTrue();
+        verify(dataBodyServiceImplMock, never()).saveDataBody(any(DataBodyEntity.class));
+        verify(dataBodyServiceImplMock, never()).replaceDataBody(any(DataBodyEntity.class));
+        verify(hadoopOutboxServiceMock, never()).enqueue(any(DataEnvelope.class));
+        verify(applicationEventPublisherMock, never()).publishEvent(any(Object.class));
+        assertThat(envelopeCount(BulkIngestOutcomeEnum.DUPLICATE)).isEqualTo(1);
+    }
+
+    @Test(expected = DataEnvelopeConflictException.class)
+    public void shouldRejectConflictingContent() throws NoSuchAlgorithmException, IOException {
+        givenStoredEnvelope();
+        DataEnvelope conflicting = new DataEnvelope(testDataEnvelope.getDataHeader(), new DataBody("Other"), DUMMY_CHECKSUM);
+
+        server.saveDataEnvelope(conflicting, DUMMY_CHECKSUM, ChecksumAlgorithmEnum.MD5);
+    }
+
+    @Test
+    public void shouldReplaceConflictingContentOnUpsert() throws NoSuchAlgorithmException, IOException {
+        ingestProperties.setConflictPolicy(ConflictPolicyEnum.UPSERT);
+        givenStoredEnvelope();
+        DataEnvelope moved = new DataEnvelope(new DataHeader(TEST_NAME, BlockTypeEnum.BLOCKTYPEB), new DataBody(DUMMY_DATA), DUMMY_CHECKSUM);
+
+        boolean success = server.saveDataEnvelope(moved, DUMMY_CHECKSUM, ChecksumAlgorithmEnum.MD5);
+
+        assertThat(success).isTrue();
+        verify(dataBodyServiceImplMock, times(1)).replaceDataBody(argThat(entity ->
+                entity.getDataHeaderEntity().getBlocktype() == BlockTypeEnum.BLOCKTYPEB));
+        verify(dataBodyServiceImplMock, never()).saveDataBody(any(DataBodyEntity.class));
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(moved);
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.BLOCKTYPEA, BlockTypeEnum.BLOCKTYPEB);
+    }
+
+    @Test
+    public void shouldAcknowledgeStreamedReplayWithoutStoringItAgain() throws IOException {
+        givenStoredEnvelope();
+
+        boolean success = server.saveDataEnvelope(testDataEnvelope.getDataHeader(), dataBodyStream(), "9271893e",
+                ChecksumAlgorithmEnum.CRC32);
+
+        assertThat(success).isTrue();
+        verify(dataBodyServiceImplMock, never()).saveDataBody(any(DataBodyEntity.class), any(Reader.class), any());
+        verify(hadoopOutboxServiceMock, never()).enqueue(any(DataHeader.class), any(), any(Reader.class));
+    }
+
+    @Test
+    public void shouldStreamDataBodyIntoStoreAndOutbox() throws IOException {
+        StringBuilder streamed = new StringBuilder();
+        List<String> storedChecksums = new ArrayList<>();
+        doAnswer(invocation -> {
+            copy(invocation.getArgument(1), streamed);
+            storedChecksums.add(invocation.<Supplier<String>>getArgument(2).get());
+            return null;
+        }).when(dataBodyServiceImplMock).saveDataBody(any(DataBodyEntity.class), any(Reader.class), any());
+        Reader storedDataBody = new StringReader(DUMMY_DATA);
+        givenStoredDataBody(storedDataBody);
+
+        boolean success = server.saveDataEnvelope(testDataEnvelope.getDataHeader(), dataBodyStream(), DUMMY_CHECKSUM,
+                ChecksumAlgorithmEnum.MD5);
+
+        assertThat(success).isTrue();
+        assertThat(streamed.toString()).isEqualTo(DUMMY_DATA);
+        assertThat(storedChecksums).containsExactly(DUMMY_CHECKSUM);
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(testDataEnvelope.getDataHeader(), DUMMY_CHECKSUM, storedDataBody);
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.BLOCKTYPEA);
+    }
+
+    @Test
+    public void shouldNotKeepChecksumOfStreamedDataBodyOnMismatch() throws IOException {
+        List<String> storedChecksums = new ArrayList<>();
+        doAnswer(invocation -> {
+            copy(invocation.getArgument(1), new StringBuilder());
+            storedChecksums.add(invocation.<Supplier<String>>getArgument(2).get());
+            return null;
+        }).when(dataBodyServiceImplMock).saveDataBody(any(DataBodyEntity.class), any(Reader.class), any());
+        givenStoredDataBody(new StringReader(DUMMY_DATA));
+
+        boolean success = server.saveDataEnvelope(testDataEnvelope.getDataHeader(), dataBodyStream(), DUMMY_CHECKSUM,
+                ChecksumAlgorithmEnum.CRC32);
+
+        assertThat(success).isFalse();
+        assertThat(storedChecksums).containsExactly((String) null);
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(eq(testDataEnvelope.getDataHeader()), isNull(), any(Reader.class));
+    }
+
+    @Test
+    public void shouldWriteStoredDataBody() throws IOException {
+        givenStoredDataBody(new StringReader(DUMMY_DATA));
+        StringWriter writer = new StringWriter();
+
+        boolean found = server.writeDataBody(TEST_NAME, writer);
+
+        assertThat(found).isTrue();
+        assertThat(writer.toString()).isEqualTo(DUMMY_DATA);
+    }
+
+    @Test
+    public void shouldSaveDataEnvelopesAndReportEachOutcome() {
+        DataEnvelope badChecksum = new DataEnvelope(new DataHeader("Test2", BlockTypeEnum.BLOCKTYPEB), new DataBody(DUMMY_DATA), "bad");
+        DataEnvelope stored = new DataEnvelope(new DataHeader("Stored", BlockTypeEnum.BLOCKTYPEA), new DataBody(DUMMY_DATA), DUMMY_CHECKSUM);
+        DataEnvelope repeated = createTestDataEnvelopeApiObject();
+        when(dataHeaderNameFilterMock.mightContain(anyString())).thenReturn(true);
+        when(dataHeaderServiceImplMock.findExistingNames(anyCollection()))
+                .thenReturn(new HashSet<>(Collections.singletonList("Stored")));
+
+        List<BulkIngestOutcomeEnum> outcomes = server.saveDataEnvelopes(Arrays.asList(testDataEnvelope, badChecksum, stored, repeated));
+
+        assertThat(outcomes).containsExactly(BulkIngestOutcomeEnum.CHECKSUM_PASS, BulkIngestOutcomeEnum.CHECKSUM_FAIL,
+                BulkIngestOutcomeEnum.DUPLICATE, BulkIngestOutcomeEnum.DUPLICATE);
+        verify(dataBodyServiceImplMock, times(1)).saveDataBodies(argThat(entities -> entities.size() == 2));
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(testDataEnvelope);
+        verify(hadoopOutboxServiceMock, times(1)).enqueue(badChecksum);
+        verify(hadoopOutboxServiceMock, never()).enqueue(stored);
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.BLOCKTYPEA, BlockTypeEnum.BLOCKTYPEB);
+    }
+
+    @Test
+    public void shouldOnlyLookUpNamesTheFilterMightContain() {
+        DataEnvelope other = new DataEnvelope(new DataHeader("Test2", BlockTypeEnum.BLOCKTYPEA), new DataBody(DUMMY_DATA), DUMMY_CHECKSUM);
+        when(dataHeaderNameFilterMock.mightContain("Test2")).thenReturn(true);
+        when(dataHeaderServiceImplMock.findExistingNames(Collections.singleton("Test2"))).thenReturn(new HashSet<>());
+
+        List<BulkIngestOutcomeEnum> outcomes = server.saveDataEnvelopes(Arrays.asList(testDataEnvelope, other));
+
+        assertThat(outcomes).containsOnly(BulkIngestOutcomeEnum.CHECKSUM_PASS);
+        verify(dataHeaderNameFilterMock, times(1)).add(TEST_NAME);
+        verify(dataHeaderNameFilterMock, times(1)).add("Test2");
+    }
+
+    @Test
+    public void shouldNotLookUpNamesWhenTheFilterContainsNone() {
+        server.saveDataEnvelopes(Collections.singletonList(testDataEnvelope));
+
+        verify(dataHeaderServiceImplMock, never()).findExistingNames(anyCollection());
+        verify(dataBodyServiceImplMock, times(1)).saveDataBodies(anyList());
+    }
+
+    @Test
+    public void shouldNotPublishChangeWhenNothingWasSaved() {
+        when(dataHeaderNameFilterMock.mightContain(anyString())).thenReturn(true);
+        when(dataHeaderServiceImplMock.findExistingNames(anyCollection()))
+                .thenReturn(new HashSet<>(Collections.singletonList(testDataEnvelope.getDataHeader().getName())));
+
+        server.saveDataEnvelopes(Collections.singletonList(testDataEnvelope));
+
+        verify(applicationEventPublisherMock, never()).publishEvent(any(Object.class));
+    }
+
     @Test
     public void shouldGetDataEnvelopAsExpected(){
         when(dataBodyServiceImplMock.getDataByBlockType(any(BlockTypeEnum.class)))
-                .thenReturn(Collections.singletonList(expectedDataBodyEntity));
+                .thenReturn(Collections.singletonList(createTestDataEnvelopeProjection(1L)));
 
         List<DataEnvelope> response = server.getDataEnvelopByBlockType(BlockTypeEnum.BLOCKTYPEA.name());
 
         assertThat(response).hasSize(1);
+        assertThat(response.get(0).getDataHeader().getName()).isEqualTo(TEST_NAME);
+        assertThat(response.get(0).getDataBody().getDataBody()).isEqualTo(DUMMY_DATA);
+        assertThat(response.get(0).getMd5Checksum()).isEqualTo(DUMMY_CHECKSUM);
 
     }
 
+    @Test
+    public void shouldReturnCursorWhenPageIsFull(){
+        when(dataBodyServiceImplMock.getDataByBlockTypeAfter(BlockTypeEnum.BLOCKTYPEA, 0L, 1))
+                .thenReturn(Collections.singletonList(createTestDataEnvelopeProjection(42L)));
+
+        DataEnvelopePage page = server.getDataEnvelopePage(BlockTypeEnum.BLOCKTYPEA.name(), 0L, 1);
+
+        assertThat(page.getDataEnvelopes()).hasSize(1);
+        assertThat(page.getNextAfterId()).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldNotReturnCursorOnLastPage(){
+        when(dataBodyServiceImplMock.getDataByBlockTypeAfter(BlockTypeEnum.BLOCKTYPEA, 0L, 10))
+                .thenReturn(Collections.singletonList(createTestDataEnvelopeProjection(42L)));
+
+        DataEnvelopePage page = server.getDataEnvelopePage(BlockTypeEnum.BLOCKTYPEA.name(), 0L, 10);
+
+        assertThat(page.getNextAfterId()).isNull();
+    }
+
+    @Test
+    public void shouldHandOverEachStreamedDataEnvelope(){
+        doAnswer(invocation -> {
+            invocation.<Consumer<DataEnvelopeProjection>>getArgument(1).accept(createTestDataEnvelopeProjection(1L));
+            return null;
+        }).when(dataBodyServiceImplMock).forEachByBlockType(eq(BlockTypeEnum.BLOCKTYPEA), any());
+        List<DataEnvelope> consumed = new ArrayList<>();
+
+        server.forEachDataEnvelopByBlockType(BlockTypeEnum.BLOCKTYPEA.name(), consumed::add);
+
+        assertThat(consumed).hasSize(1);
+        assertThat(consumed.get(0).getDataHeader().getName()).isEqualTo(TEST_NAME);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownBlockTypeBeforeStreaming(){
+        server.forEachDataEnvelopByBlockType("Invalid_BlockType", dataEnvelope -> {});
+    }
+
     @Test
     public void shouldUpdateDataEnvelopAsExpected(){
-        when(dataBodyServiceImplMock.getDataByBlockName("TEST2"))
-                .thenReturn(Optional.of(expectedDataBodyEntity));
+        when(dataHeaderServiceImplMock.updateBlockType("TEST2", BlockTypeEnum.BLOCKTYPEB)).thenReturn(1);
 
         boolean response = server.updateDataBlockType("TEST2",BlockTypeEnum.BLOCKTYPEB.name());
 
         assertThat(response).isTrue();
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.BLOCKTYPEA, BlockTypeEnum.BLOCKTYPEB);
+        verify(dataBodyServiceImplMock, never()).getDataByBlockName(any(String.class));
+        verify(dataBodyServiceImplMock, never()).saveDataBody(any(DataBodyEntity.class));
 
     }
 
     @Test
     public void shouldNotUpdateDataEnvelopAsExpected(){
-        when(dataBodyServiceImplMock.getDataByBlockName("TEST2"))
-                .thenReturn(Optional.empty());
+        when(dataHeaderServiceImplMock.updateBlockType("TEST2", BlockTypeEnum.BLOCKTYPEB)).thenReturn(0);
 
         boolean response = server.updateDataBlockType("TEST2",BlockTypeEnum.BLOCKTYPEB.name());
 
         assertThat(response).isFalse();
+        verify(applicationEventPublisherMock, never()).publishEvent(any(Object.class));
+
+    }
+
+    @Test
+    public void shouldUpdateBlockTypeOfNamesInOneCall(){
+        List<String> names = Arrays.asList("TEST1", "TEST2", "TEST3");
+        when(dataHeaderServiceImplMock.updateBlockType(names, BlockTypeEnum.BLOCKTYPEA)).thenReturn(2);
+
+        int updated = server.updateDataBlockTypes(names, BlockTypeEnum.BLOCKTYPEA.name());
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(publishedEvent().getBlockTypes()).containsOnly(BlockTypeEnum.values());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyNamePrefix(){
+        server.updateDataBlockTypeByNamePrefix("", BlockTypeEnum.BLOCKTYPEA.name());
+    }
+
+    private void givenStoredEnvelope() {
+        when(dataHeaderNameFilterMock.mightContain(TEST_NAME)).thenReturn(true);
+        when(dataBodyServiceImplMock.getEnvelopeByName(TEST_NAME)).thenReturn(Optional.of(createTestDataEnvelopeProjection(1L)));
+    }
+
+    private void givenStoredDataBody(Reader storedDataBody) throws IOException {
+        when(dataBodyServiceImplMock.readDataBody(eq(TEST_NAME), any())).thenAnswer(invocation -> {
+            invocation.<DataBodyReaderConsumer>getArgument(1).accept(storedDataBody);
+            return true;
+        });
+    }
+
+    private static ByteArrayInputStream dataBodyStream() {
+        return new ByteArrayInputStream(DUMMY_DATA.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void copy(Reader reader, StringBuilder target) throws IOException {
+        int c;
+        while ((c = reader.read()) != -1) {
+            target.append((char) c);
+        }
+    }
+
+    private DataEnvelopesChangedEvent publishedEvent() {
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisherMock, times(1)).publishEvent(event.capture());
+        return (DataEnvelopesChangedEvent) event.getValue();
+    }
 
+    private double envelopeCount(BulkIngestOutcomeEnum outcome) {
+        return meterRegistry.get("dataserver.ingest.envelopes").tag("outcome", outcome.name().toLowerCase())
+                .tag("blockType", BlockTypeEnum.BLOCKTYPEA.name()).counter().count();
     }
 }